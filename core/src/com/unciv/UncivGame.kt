@@ -8,11 +8,13 @@ import com.unciv.logic.UncivShowableException
 import com.unciv.logic.Version
 import com.unciv.logic.civilization.PlayerType
 import com.unciv.logic.files.UncivFiles
+import com.unciv.logic.map.mapgenerator.MapPool
 import com.unciv.logic.multiplayer.Multiplayer
 import com.unciv.platform.PlatformCapabilities
 import com.unciv.models.metadata.BaseRuleset
 import com.unciv.models.metadata.GameSettings
 import com.unciv.models.ruleset.RulesetCache
+import com.unciv.models.ruleset.RulesetSnapshotCache
 import com.unciv.models.skins.SkinCache
 import com.unciv.models.tilesets.TileSetCache
 import com.unciv.models.translations.Translations
@@ -137,6 +139,10 @@ open class UncivGame(val isConsoleMode: Boolean = false) : Game(), PlatformSpeci
         
         Gdx.graphics.isContinuousRendering = settings.continuousRendering
 
+        if (Gdx.app.type != Application.ApplicationType.WebGL) {
+            RulesetSnapshotCache.folder = files.getLocalFile("RulesetSnapshots")
+            MapPool.folder = files.getLocalFile("MapPool")
+        }
         Concurrency.run("LoadJSON") {
             try {
                 RulesetCache.loadRulesets()
@@ -13,8 +13,11 @@ import com.unciv.logic.BackwardCompatibility.migrateGreatGeneralPools
 import com.unciv.logic.BackwardCompatibility.migrateToTileHistory
 import com.unciv.logic.BackwardCompatibility.removeMissingModReferences
 import com.unciv.logic.automation.civilization.BarbarianManager
+import com.unciv.logic.automation.civilization.CivPairMetrics
+import com.unciv.logic.battle.BattleModifierCache
 import com.unciv.logic.city.City
 import com.unciv.logic.civilization.*
+import com.unciv.logic.civilization.managers.MinorCivTurnAnalysis
 import com.unciv.logic.civilization.managers.TechManager
 import com.unciv.logic.civilization.managers.TurnManager
 import com.unciv.logic.civilization.managers.VictoryManager
@@ -40,6 +43,7 @@ import com.unciv.ui.screens.savescreens.Gzip
 import com.unciv.ui.screens.worldscreen.status.NextTurnProgress
 import com.unciv.utils.DebugUtils
 import com.unciv.utils.debug
+import yairm210.purity.annotations.Cache
 import yairm210.purity.annotations.Readonly
 import java.time.Duration
 import java.time.Instant
@@ -177,6 +181,22 @@ class GameInfo : IsPartOfGameInfoSerialization, HasGameInfoSerializationVersion
     @Transient
     var spaceResources = HashSet<String>()
 
+    /** Modifier tables of [BattleDamage][com.unciv.logic.battle.BattleDamage], kept for this game only */
+    @Transient
+    internal val battleModifierCache = BattleModifierCache()
+
+    @Transient @Cache
+    private var civPairMetricsCache: CivPairMetrics? = null
+
+    @Transient @Cache
+    private var minorCivTurnAnalysisCache: MinorCivTurnAnalysis? = null
+
+    /** Bumped by [onCivStateChanged] whenever any civ gains or loses techs, policies, buildings, units, cities, beliefs,
+     *  a golden age, a diplomatic standing or open borders - the sources of the uniques and countables caches of civ-derived values depend on */
+    @Transient
+    var civStateVersion = 0
+        private set
+
     //endregion
     //region Pure functions
 
@@ -246,6 +266,22 @@ class GameInfo : IsPartOfGameInfoSerialization, HasGameInfoSerializationVersion
      *  with the Uniques of the chosen [speed] and [difficulty][getDifficulty] */
     @Readonly fun getGlobalUniques() = combinedGlobalUniques
 
+    /** Returns the civ-pair values war AI compares civs by, valid while no civ or tile changed this turn */
+    @Readonly
+    fun getCivPairMetrics(): CivPairMetrics {
+        if (civPairMetricsCache?.isValid() != true)
+            civPairMetricsCache = CivPairMetrics(this)
+        return civPairMetricsCache!!
+    }
+
+    /** Returns the quest targets of all city-states for [cityState] taking its turn, gathered when the first of them took theirs */
+    @Readonly
+    fun getMinorCivTurnAnalysis(cityState: Civilization): MinorCivTurnAnalysis {
+        if (minorCivTurnAnalysisCache?.isValidFor(cityState) != true)
+            minorCivTurnAnalysisCache = MinorCivTurnAnalysis(this, cityState)
+        return minorCivTurnAnalysisCache!!
+    }
+
     /** @return Sequence of all cities in game, both major civilizations and city states */
     @Readonly fun getCities() = civilizations.asSequence().flatMap { it.cities }
     @Readonly fun getAliveCityStates() = civilizations.filter { it.isAlive() && it.isCityState }
@@ -335,6 +371,11 @@ class GameInfo : IsPartOfGameInfoSerialization, HasGameInfoSerializationVersion
     //endregion
     //region State changing functions
 
+    /** Called by the managers owning the state behind [civStateVersion] whenever it changes */
+    fun onCivStateChanged() {
+        civStateVersion++
+    }
+
     // Do we automatically simulate until N turn?
     @Readonly
     fun isSimulation(): Boolean = turns < DebugUtils.SIMULATE_UNTIL_TURN
@@ -10,6 +10,7 @@ import com.unciv.logic.files.MapSaver
 import com.unciv.logic.map.HexMath
 import com.unciv.logic.map.TileMap
 import com.unciv.logic.map.mapgenerator.MapGenerator
+import com.unciv.logic.map.mapgenerator.MapPool
 import com.unciv.logic.map.tile.Tile
 import com.unciv.models.metadata.GameParameters
 import com.unciv.models.metadata.GameSetupInfo
@@ -70,7 +71,12 @@ object GameStarter {
             // The MapGen needs to know what civs are in the game to generate regions, starts and resources
             phaseOneChosenCivs = chooseCivilizations(gameSetupInfo.gameParameters, gameInfo, ruleset, existingMap = false)
             addCivilizations(gameSetupInfo.gameParameters, gameInfo, ruleset, phaseOneChosenCivs)
-            tileMap = mapGen.generateMap(gameSetupInfo.mapParameters, gameSetupInfo.gameParameters, gameInfo.civilizations)
+            val pooledMap = MapPool.takeMap(gameSetupInfo.mapParameters, gameSetupInfo.gameParameters, ruleset)
+            if (pooledMap != null) {
+                mapGen.generateFromTerrain(pooledMap, gameSetupInfo.mapParameters, gameSetupInfo.gameParameters, gameInfo.civilizations)
+                tileMap = pooledMap
+            } else
+                tileMap = mapGen.generateMap(gameSetupInfo.mapParameters, gameSetupInfo.gameParameters, gameInfo.civilizations)
             tileMap.mapParameters = gameSetupInfo.mapParameters
             // Now forget them for a moment! MapGen can silently fail to place some city states, so then we'll use the old fallback method to place those.
             gameInfo.civilizations.clear()
@@ -181,6 +181,22 @@ object Automation {
         return yieldStats.values.sum()
     }
 
+    /**
+     * Whether [rankStatsForCityWork] ranks the same for [city] with either surplus food, everything else being equal.
+     * Only starvation, food to production conversion and the human growth weight look at the surplus.
+     */
+    @Readonly
+    fun isSameFoodRanking(city: City, surplusFood: Float, otherSurplusFood: Float): Boolean {
+        if (surplusFood == otherSurplusFood) return true
+        // Starving cities weigh food by how much is missing
+        if (surplusFood < 0 || otherSurplusFood < 0) return false
+        // Food to production conversion isn't linear
+        val currentConstruction = city.cityConstructions.getCurrentConstruction()
+        if (city.cityStats.canConvertFoodToProduction(surplusFood, currentConstruction)
+            || city.cityStats.canConvertFoodToProduction(otherSurplusFood, currentConstruction)) return false
+        return getFoodModWeight(city, surplusFood) == getFoodModWeight(city, otherSurplusFood)
+    }
+
     fun tryTrainMilitaryUnit(city: City) {
         if (city.isPuppet) return
         if ((city.cityConstructions.getCurrentConstruction() as? BaseUnit)?.isMilitary == true)
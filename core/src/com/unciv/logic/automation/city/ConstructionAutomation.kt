@@ -3,7 +3,6 @@ package com.unciv.logic.automation.city
 import com.unciv.GUI
 import com.unciv.UncivGame
 import com.unciv.logic.automation.Automation
-import com.unciv.logic.automation.civilization.NextTurnAutomation
 import com.unciv.logic.automation.unit.WorkerAutomation
 import com.unciv.logic.city.CityConstructions
 import com.unciv.logic.civilization.CityAction
@@ -25,7 +24,6 @@ import com.unciv.models.ruleset.unit.BaseUnit
 import com.unciv.models.stats.Stat
 import com.unciv.models.stats.Stats
 import com.unciv.ui.screens.cityscreen.CityScreen
-import com.unciv.ui.screens.victoryscreen.RankingType
 import yairm210.purity.annotations.Readonly
 import kotlin.math.max
 import kotlin.math.sqrt
@@ -41,6 +39,9 @@ class ConstructionAutomation(val cityConstructions: CityConstructions) {
 
     private val personality = civInfo.getPersonality()
 
+    /** Shared by all cities of the civ */
+    private val civCache = civInfo.getConstructionAutomationCache()
+
     private val constructionsToAvoid = personality.getMatchingUniques(UniqueType.WillNotBuild, cityState)
         .map{ it.params[0] }
     
@@ -106,7 +107,7 @@ class ConstructionAutomation(val cityConstructions: CityConstructions) {
         return this.filter {
             val cache = if (it is Building) buildableBuildings else buildableUnits
             if (cache[it.name] == null) {
-                cache[it.name] = it.isBuildable(cityConstructions)
+                cache[it.name] = civCache.isPossibleForCiv(it) && it.isBuildable(cityConstructions)
             }
             cache[it.name]!!
         }
@@ -274,7 +275,7 @@ class ConstructionAutomation(val cityConstructions: CityConstructions) {
         value += applyBuildingStats(building, localUniqueCache)
         value += getMilitaryBuildingValue(building)
         value += getVictoryBuildingValue(building)
-        value += getOnetimeUniqueBonuses(building)
+        value += civCache.getOneTimeBuildingValue(building) { getOnetimeUniqueBonuses(building) }
         return value
     }
 
@@ -283,7 +284,7 @@ class ConstructionAutomation(val cityConstructions: CityConstructions) {
         var value = 0f
         if (building.isWonder) {
             // Buildings generally don't have these uniques, and Wonders generally only one of these, so we can save some time by not checking every building for every unique
-            if (!building.isNationalWonder) value -= civInfo.gameInfo.getAliveMajorCivs().sortedByDescending { it.getStatForRanking(RankingType.Technologies) }.indexOf(civInfo)
+            if (!building.isNationalWonder) value -= civCache.technologyRankIndex
             // Wonders are a one-time occurence: value less if someone is going to build them before us anyways
             value += when {
                 building.hasUnique(UniqueType.OneTimeFreePolicy) || building.hasUnique(UniqueType.OneTimeAmountFreePolicies) -> civInfo.getPersonality().culture
@@ -323,9 +324,7 @@ class ConstructionAutomation(val cityConstructions: CityConstructions) {
         var value = 0f
         var warModifier = if (isAtWar) 1f else .5f
         // If this city is the closest city to another civ, that makes it a likely candidate for attack
-        if (civInfo.getKnownCivs()
-                    .mapNotNull { NextTurnAutomation.getForeignCityNearCapital(it.getCapital(), civInfo) }
-                    .any { it.city == city })
+        if (city in civCache.citiesClosestToForeignCapitals)
             warModifier *= 2f
         value += warModifier * building.cityHealth.toFloat() / city.getMaxHealth() * personality.inverseModifierFocus(PersonalityValue.Aggressive, .3f)
         value += warModifier * building.cityStrength.toFloat() / (city.getStrength() + 3) * personality.inverseModifierFocus(PersonalityValue.Aggressive, .3f) // The + 3 here is to reduce the priority of building walls immedietly
@@ -0,0 +1,86 @@
+package com.unciv.logic.automation.city
+
+import com.unciv.logic.automation.civilization.NextTurnAutomation
+import com.unciv.logic.city.City
+import com.unciv.logic.civilization.Civilization
+import com.unciv.models.ruleset.Building
+import com.unciv.models.ruleset.INonPerpetualConstruction
+import com.unciv.models.ruleset.unique.GameContext
+import com.unciv.models.ruleset.unique.UniqueType
+import com.unciv.models.ruleset.unit.BaseUnit
+import com.unciv.ui.screens.victoryscreen.RankingType
+import yairm210.purity.annotations.Cache
+import yairm210.purity.annotations.Readonly
+
+/**
+ * Construction choice data that only depends on the civ, shared by the [ConstructionAutomation] of all its cities.
+ *
+ * This is instantiated from [Civilization.getConstructionAutomationCache] and cached there for the turn - or until the civ
+ * researches a tech, the only mid-turn change that makes a construction impossible for the whole civ possible again.
+ */
+class ConstructionAutomationCache(private val civInfo: Civilization) {
+    val cachedForTurn = civInfo.gameInfo.turns
+    private val cachedForTechCount = civInfo.tech.techsResearched.size
+
+    @Readonly
+    fun isValid() = civInfo.gameInfo.turns == cachedForTurn && civInfo.tech.techsResearched.size == cachedForTechCount
+
+    @Cache private val buildingPossibleForCiv = HashMap<String, Boolean>()
+    @Cache private val unitPossibleForCiv = HashMap<String, Boolean>()
+    @Cache private val oneTimeBuildingValues = HashMap<String, Float>()
+
+    /** Position of the civ among the alive major civs, most technologies first */
+    val technologyRankIndex by lazy {
+        civInfo.gameInfo.getAliveMajorCivs().sortedByDescending { it.getStatForRanking(RankingType.Technologies) }.indexOf(civInfo)
+    }
+
+    /** Our cities closest to another civ's capital - the likely targets of an attack */
+    val citiesClosestToForeignCapitals: Set<City> by lazy {
+        civInfo.getKnownCivs()
+            .mapNotNull { NextTurnAutomation.getForeignCityNearCapital(it.getCapital(), civInfo)?.city }
+            .toSet()
+    }
+
+    /**
+     * `false` if [construction] can't be built in any of our cities, for reasons that don't depend on the city.
+     * `true` doesn't mean it's buildable - [INonPerpetualConstruction.isBuildable] still needs to be asked per city.
+     */
+    @Readonly
+    fun isPossibleForCiv(construction: INonPerpetualConstruction): Boolean = when (construction) {
+        is Building -> buildingPossibleForCiv.getOrPut(construction.name) { isBuildingPossibleForCiv(construction) }
+        is BaseUnit -> unitPossibleForCiv.getOrPut(construction.name) { isUnitPossibleForCiv(construction) }
+        else -> true
+    }
+
+    /** @return The one-time value of [building] for the civ, computing it with [getValue] only for the first city asking */
+    @Readonly
+    fun getOneTimeBuildingValue(building: Building, @Readonly getValue: () -> Float): Float =
+        oneTimeBuildingValues.getOrPut(building.name, getValue)
+
+    /** The subset of [Building.getRejectionReasons] that is the same for all cities */
+    @Readonly
+    private fun isBuildingPossibleForCiv(building: Building): Boolean {
+        val gameInfo = civInfo.gameInfo
+        if (building.isUnavailableBySettings(gameInfo)) return false
+        if (building.requiredTechs().any { !civInfo.tech.isResearched(it) }) return false
+        if (building.getMatchingUniques(UniqueType.ObsoleteWith, GameContext.IgnoreConditionals)
+                .any { it.modifiers.isEmpty() && civInfo.tech.isResearched(it.params[0]) }) return false
+        if (civInfo.cache.uniqueBuildings.any { it.replaces == building.name }) return false
+        if (building.isAnyWonder() && civInfo.isCityState) return false
+        if (building.isWonder && gameInfo.getCities().any { it.cityConstructions.isBuilt(building) }) return false
+        if (building.isNationalWonder && civInfo.cities.any { it.cityConstructions.isBuilt(building) }) return false
+        return true
+    }
+
+    /** The subset of [BaseUnit.getRejectionReasons] that is the same for all cities */
+    @Readonly
+    private fun isUnitPossibleForCiv(unit: BaseUnit): Boolean {
+        if (unit.isUnavailableBySettings(civInfo.gameInfo)) return false
+        if (unit.requiredTechs().any { !civInfo.tech.isResearched(it) }) return false
+        if (unit.techsAtWhichNoLongerAvailable().any { civInfo.tech.isResearched(it) }) return false
+        if (civInfo.cache.uniqueUnits.any { it.replaces == unit.name }) return false
+        if ((civInfo.isCityState || civInfo.isOneCityChallenger()) && unit.hasUnique(UniqueType.FoundCity, GameContext.IgnoreConditionals))
+            return false
+        return true
+    }
+}
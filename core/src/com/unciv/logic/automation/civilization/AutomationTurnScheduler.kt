@@ -0,0 +1,90 @@
+package com.unciv.logic.automation.civilization
+
+import com.unciv.UncivGame
+import com.unciv.logic.civilization.Civilization
+
+/**
+ * Runs the phases of one civ's automated turn in [NextTurnAutomation.automateCivMoves], counting the work they do.
+ *
+ * Phases run in the order they are given, since later ones build on earlier ones - units move after war was declared,
+ * beliefs are chosen after prophets moved. What the [workBudget] changes is *whether* they run: once half of it
+ * is spent [PhasePriority.Optional] phases are skipped, once all of it is spent [PhasePriority.Normal] ones are too.
+ * [PhasePriority.Essential] phases always run, so no civ ends its turn without moving units or choosing production,
+ * but long ones can check [isOverBudget] to cut their own low-value work short.
+ *
+ * Work is counted, not timed: every phase that runs costs one unit, and phases report their own work through [spendWork].
+ * That way the same game state always skips the same phases, whatever the speed of the device.
+ *
+ * Runs, skips and work of each phase are summed over all automated turns for profiling, see [getPhaseCounters].
+ *
+ * @param workBudget Work the turn may do, 0 for no limit - see [GameSettings.aiTurnWorkBudget][com.unciv.models.metadata.GameSettings.aiTurnWorkBudget]
+ */
+class AutomationTurnScheduler(private val workBudget: Int) {
+    enum class PhasePriority(val budgetShare: Float) {
+        Essential(Float.POSITIVE_INFINITY),
+        Normal(1f),
+        Optional(0.5f),
+    }
+
+    private var workDone = 0
+
+    private fun isOverBudget(share: Float) = workBudget > 0 && workDone > workBudget * share
+
+    /** `true` once the whole budget of this turn is spent */
+    fun isOverBudget() = isOverBudget(1f)
+
+    /** Counts [amount] units of work against the budget, e.g. one per unit moved */
+    fun spendWork(amount: Int = 1) {
+        workDone += amount
+    }
+
+    fun runPhase(name: String, priority: PhasePriority = PhasePriority.Essential, phase: () -> Unit) {
+        if (isOverBudget(priority.budgetShare)) {
+            recordPhase(name) { it.skips++ }
+            return
+        }
+        val workBefore = workDone
+        spendWork()
+        phase()
+        recordPhase(name) {
+            it.runs++
+            it.work += workDone - workBefore
+        }
+    }
+
+    class PhaseCounters {
+        var runs = 0L
+        var skips = 0L
+        /** Including the unit each run costs by itself */
+        var work = 0L
+
+        override fun toString() = "runs=$runs skips=$skips work=$work"
+    }
+
+    companion object {
+        private val phaseCounters = LinkedHashMap<String, PhaseCounters>()
+
+        private fun recordPhase(name: String, update: (PhaseCounters) -> Unit) = synchronized(phaseCounters) {
+            update(phaseCounters.getOrPut(name) { PhaseCounters() })
+        }
+
+        /** @return a copy of the counters of each phase, in the order they first ran, since the last [resetPhaseCounters] */
+        fun getPhaseCounters(): Map<String, PhaseCounters> = synchronized(phaseCounters) {
+            phaseCounters.mapValuesTo(LinkedHashMap()) { (_, counters) ->
+                PhaseCounters().apply { runs = counters.runs; skips = counters.skips; work = counters.work }
+            }
+        }
+
+        fun resetPhaseCounters() = synchronized(phaseCounters) { phaseCounters.clear() }
+
+        /** A scheduler with the budget from the settings - unlimited in multiplayer, where all clients must automate alike */
+        fun forCiv(civInfo: Civilization): AutomationTurnScheduler {
+            val workBudget = when {
+                civInfo.gameInfo.gameParameters.isOnlineMultiplayer -> 0
+                UncivGame.isCurrentInitialized() -> UncivGame.Current.settings.aiTurnWorkBudget
+                else -> 0
+            }
+            return AutomationTurnScheduler(workBudget)
+        }
+    }
+}
@@ -106,11 +106,8 @@ class BarbarianManager : IsPartOfGameInfoSerialization {
                     if (it.destroyed) 4 else 7
             ) }.toSet()
 
-        val viableTiles = fogTiles.filter {
-            !it.isImpassible()
-                    && it.resource == null
-                    && it.terrainFeatureObjects.none { feature -> feature.hasUnique(UniqueType.RestrictedBuildableImprovements) }
-                    && it.neighbors.any { neighbor -> neighbor.isLand }
+        val viableTiles = findEncampmentSites().filter {
+            it !in allViewableTiles
                     && it !in tooCloseToCapitals
                     && it !in tooCloseToCamps
         }.toMutableList()
@@ -146,6 +143,16 @@ class BarbarianManager : IsPartOfGameInfoSerialization {
         }
     }
 
+    /** Land tiles that could hold an encampment, in map order, before looking at what anyone sees or where capitals and other camps are */
+    @Readonly
+    internal fun findEncampmentSites(): List<Tile> = tileMap.values.filter {
+        it.isLand
+                && !it.isImpassible()
+                && it.resource == null
+                && it.terrainFeatureObjects.none { feature -> feature.hasUnique(UniqueType.RestrictedBuildableImprovements) }
+                && it.neighbors.any { neighbor -> neighbor.isLand }
+    }
+
     /**
      * [CivilizationInfo.addNotification][Add a notification] to every civilization that have
      * adopted Honor policy and have explored the [tile] where the Barbarian Encampment has spawned.
@@ -0,0 +1,64 @@
+package com.unciv.logic.automation.civilization
+
+import com.unciv.logic.GameInfo
+import com.unciv.logic.city.City
+import com.unciv.logic.civilization.Civilization
+import yairm210.purity.annotations.Cache
+import yairm210.purity.annotations.Readonly
+
+/**
+ * The civ-pair values diplomacy AI compares civs by, kept per evaluating civ and evaluated civ, see [GameInfo.getCivPairMetrics].
+ *
+ * War plan motivation asks for the same pair several times a turn - once per evaluation of a possible war, and again
+ * for each trade or declaration it is weighed against - and the bordering cities and attack paths behind it are expensive.
+ * This is a memo of those per ordered pair, not a matrix shared across evaluating civs: both values depend on what the
+ * evaluating civ explored and where it may pass, so row (civ, other) is only ever filled and read by civ itself.
+ * Per-civ values that change as units move and fight - score, production, force - are not kept here, they are read
+ * live through [Civilization.getStatForRanking].
+ *
+ * Values are dropped when the turn ends, when any civ's cities, wars or open borders change
+ * ([GameInfo.civStateVersion]), or when any tile changes terrain, improvement or owner ([TileMap.tileStateVersion][com.unciv.logic.map.TileMap.tileStateVersion]).
+ */
+class CivPairMetrics(private val gameInfo: GameInfo) {
+    val cachedForTurn = gameInfo.turns
+    private val cachedForCivStateVersion = gameInfo.civStateVersion
+    private val cachedForTileStateVersion = gameInfo.tileMap.tileStateVersion
+    private val civs = gameInfo.civilizations.toList()
+    private val civIndex = civs.withIndex().associate { it.value to it.index }
+
+    @Readonly
+    fun isValid() = gameInfo.turns == cachedForTurn && gameInfo.civilizations.size == civs.size
+        && gameInfo.civStateVersion == cachedForCivStateVersion
+        && gameInfo.tileMap.tileStateVersion == cachedForTileStateVersion
+
+    @Cache private val neighboringCityPairs = arrayOfNulls<List<Pair<City, City>>>(civs.size * civs.size)
+    @Cache private val attackPathModifiers = FloatArray(civs.size * civs.size) { Float.NaN }
+
+    @Readonly
+    private fun indexOf(civ: Civilization) = civIndex[civ]
+        ?: throw IllegalStateException("${civ.civName} was not in the game when the metrics were computed")
+
+    @Readonly
+    private fun pairIndex(civ: Civilization, otherCiv: Civilization) = indexOf(civ) * civs.size + indexOf(otherCiv)
+
+    /** Pairs of our city and a neighboring city of [otherCiv] */
+    @Readonly
+    fun getNeighboringCityPairs(civ: Civilization, otherCiv: Civilization): List<Pair<City, City>> {
+        val index = pairIndex(civ, otherCiv)
+        neighboringCityPairs[index]?.let { return it }
+        // Fill the whole row at once, since we're looking at all neighboring cities anyway
+        val pairsByCiv = civ.threatManager.getNeighboringCitiesOfOtherCivs().groupBy { it.second.civ }
+        val rowStart = indexOf(civ) * civs.size
+        for (other in civs.indices)
+            neighboringCityPairs[rowStart + other] = pairsByCiv[civs[other]] ?: emptyList()
+        return neighboringCityPairs[index]!!
+    }
+
+    /** @return The attack path modifier of [civ] against [otherCiv], computing it with [getModifier] only the first time it is asked for */
+    @Readonly
+    fun getAttackPathsModifier(civ: Civilization, otherCiv: Civilization, @Readonly getModifier: () -> Float): Float {
+        val index = pairIndex(civ, otherCiv)
+        if (attackPathModifiers[index].isNaN()) attackPathModifiers[index] = getModifier()
+        return attackPathModifiers[index]
+    }
+}
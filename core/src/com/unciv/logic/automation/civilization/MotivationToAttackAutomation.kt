@@ -28,7 +28,8 @@ object MotivationToAttackAutomation {
         val diplomacyManager = civInfo.getDiplomacyManager(targetCiv)!!
         val personality = civInfo.getPersonality()
 
-        val targetCitiesWithOurCity = civInfo.threatManager.getNeighboringCitiesOfOtherCivs().filter { it.second.civ == targetCiv }.toList()
+        val metrics = civInfo.gameInfo.getCivPairMetrics()
+        val targetCitiesWithOurCity = metrics.getNeighboringCityPairs(civInfo, targetCiv)
         val targetCities = targetCitiesWithOurCity.map { it.second }
 
         if (targetCitiesWithOurCity.isEmpty()) return 0f
@@ -134,7 +135,7 @@ object MotivationToAttackAutomation {
         // Short-circuit to avoid A-star
         if (motivationSoFar < atLeast) return motivationSoFar
 
-        motivationSoFar += getAttackPathsModifier(civInfo, targetCiv, targetCitiesWithOurCity)
+        motivationSoFar += metrics.getAttackPathsModifier(civInfo, targetCiv) { getAttackPathsModifier(civInfo, targetCiv, targetCitiesWithOurCity) }
 
         return motivationSoFar
     }
@@ -3,6 +3,8 @@ package com.unciv.logic.automation.civilization
 import com.unciv.UncivGame
 import com.unciv.logic.automation.Automation
 import com.unciv.logic.automation.ThreatLevel
+import com.unciv.logic.automation.civilization.AutomationTurnScheduler.PhasePriority
+import com.unciv.logic.automation.unit.CityLocationTileRanker
 import com.unciv.logic.automation.unit.CivilianUnitAutomation
 import com.unciv.logic.automation.unit.EspionageAutomation
 import com.unciv.logic.automation.unit.UnitAutomation
@@ -40,58 +42,61 @@ object NextTurnAutomation {
         if (civInfo.isBarbarian) return BarbarianAutomation(civInfo).automate()
         if (civInfo.isSpectator()) return // When there's a spectator in multiplayer games, it's processed automatically, but shouldn't be able to actually do anything
 
-        respondToPopupAlerts(civInfo)
-        TradeAutomation.respondToTradeRequests(civInfo, tradeAndChangeState)
+        val scheduler = AutomationTurnScheduler.forCiv(civInfo)
+        scheduler.runPhase("Popup alerts") { respondToPopupAlerts(civInfo) }
+        scheduler.runPhase("Trade requests") { TradeAutomation.respondToTradeRequests(civInfo, tradeAndChangeState) }
 
         if (tradeAndChangeState && civInfo.isMajorCiv()) {
             if (!civInfo.gameInfo.ruleset.modOptions.hasUnique(UniqueType.DiplomaticRelationshipsCannotChange)) {
-                DiplomacyAutomation.declareWar(civInfo)
-                DiplomacyAutomation.offerPeaceTreaty(civInfo)
-                DiplomacyAutomation.askForHelp(civInfo)
-                DiplomacyAutomation.offerDeclarationOfFriendship(civInfo)
+                scheduler.runPhase("Declare war") { DiplomacyAutomation.declareWar(civInfo) }
+                scheduler.runPhase("Offer peace") { DiplomacyAutomation.offerPeaceTreaty(civInfo) }
+                scheduler.runPhase("Ask for help", PhasePriority.Normal) { DiplomacyAutomation.askForHelp(civInfo) }
+                scheduler.runPhase("Offer friendship", PhasePriority.Normal) { DiplomacyAutomation.offerDeclarationOfFriendship(civInfo) }
             }
             if (civInfo.gameInfo.isReligionEnabled()) {
-                ReligionAutomation.spendFaithOnReligion(civInfo)
+                scheduler.runPhase("Spend faith", PhasePriority.Normal) { ReligionAutomation.spendFaithOnReligion(civInfo) }
             }
 
-            DiplomacyAutomation.offerToEstablishEmbassy(civInfo)
-            DiplomacyAutomation.offerOpenBorders(civInfo)
-            DiplomacyAutomation.offerResearchAgreement(civInfo)
-            DiplomacyAutomation.offerDefensivePact(civInfo)
-            TradeAutomation.exchangeLuxuries(civInfo)
-            
-            issueRequests(civInfo)
-            adoptPolicy(civInfo)  // todo can take a second - why?
-            freeUpSpaceResources(civInfo)
+            scheduler.runPhase("Offer embassy", PhasePriority.Optional) { DiplomacyAutomation.offerToEstablishEmbassy(civInfo) }
+            scheduler.runPhase("Offer open borders", PhasePriority.Optional) { DiplomacyAutomation.offerOpenBorders(civInfo) }
+            scheduler.runPhase("Offer research agreement", PhasePriority.Optional) { DiplomacyAutomation.offerResearchAgreement(civInfo) }
+            scheduler.runPhase("Offer defensive pact", PhasePriority.Optional) { DiplomacyAutomation.offerDefensivePact(civInfo) }
+            scheduler.runPhase("Exchange luxuries", PhasePriority.Normal) { TradeAutomation.exchangeLuxuries(civInfo) }
+
+            scheduler.runPhase("Issue requests", PhasePriority.Optional) { issueRequests(civInfo) }
+            scheduler.runPhase("Adopt policy", PhasePriority.Normal) { adoptPolicy(civInfo) }  // todo can take a second - why?
+            scheduler.runPhase("Free up space resources", PhasePriority.Normal) { freeUpSpaceResources(civInfo) }
         } else if (civInfo.isCityState) {
-            civInfo.cityStateFunctions.getFreeTechForCityState()
-            civInfo.cityStateFunctions.updateDiplomaticRelationshipForCityState()
+            scheduler.runPhase("City-state relationships") {
+                civInfo.cityStateFunctions.getFreeTechForCityState()
+                civInfo.cityStateFunctions.updateDiplomaticRelationshipForCityState()
+            }
         }
 
-        chooseTechToResearch(civInfo)
-        automateCityBombardment(civInfo)
-        if (tradeAndChangeState) UseGoldAutomation.useGold(civInfo)
+        scheduler.runPhase("Choose tech") { chooseTechToResearch(civInfo) }
+        scheduler.runPhase("City bombardment") { automateCityBombardment(civInfo) }
+        if (tradeAndChangeState) scheduler.runPhase("Use gold", PhasePriority.Normal) { UseGoldAutomation.useGold(civInfo) }
         if (tradeAndChangeState && !civInfo.isCityState) {
-            protectCityStates(civInfo)
-            bullyCityStates(civInfo)
+            scheduler.runPhase("Protect city-states", PhasePriority.Optional) { protectCityStates(civInfo) }
+            scheduler.runPhase("Bully city-states", PhasePriority.Optional) { bullyCityStates(civInfo) }
         }
-        automateUnits(civInfo)  // this is the most expensive part
+        scheduler.runPhase("Units") { automateUnits(civInfo, scheduler) }  // this is the most expensive part
 
         if (tradeAndChangeState && civInfo.isMajorCiv()) {
             if (civInfo.gameInfo.isReligionEnabled()) {
                 // Can only be done now, as the prophet first has to decide to found/enhance a religion
-                ReligionAutomation.chooseReligiousBeliefs(civInfo)
+                scheduler.runPhase("Choose beliefs") { ReligionAutomation.chooseReligiousBeliefs(civInfo) }
             }
             if (civInfo.gameInfo.isEspionageEnabled()) {
                 // Do after cities are conquered
-                EspionageAutomation(civInfo).automateSpies()
+                scheduler.runPhase("Spies", PhasePriority.Normal) { EspionageAutomation(civInfo).automateSpies() }
             }
         }
 
-        automateCities(civInfo)  // second most expensive
-        if (tradeAndChangeState) trainSettler(civInfo)
+        scheduler.runPhase("Cities") { automateCities(civInfo) }  // second most expensive
+        if (tradeAndChangeState) scheduler.runPhase("Train settler", PhasePriority.Normal) { trainSettler(civInfo) }
         // I'm not sure what will happen if we *don't* vote when we can, so automate vote even when forced automation
-        tryVoteForDiplomaticVictory(civInfo)
+        scheduler.runPhase("Diplomatic victory vote") { tryVoteForDiplomaticVictory(civInfo) }
     }
 
     fun automateGoldToSciencePercentage(civInfo: Civilization) {
@@ -381,7 +386,7 @@ object NextTurnAutomation {
                 if (city.hasSoldBuildingThisTurn)
                     continue
                 val buildingToSell = civInfo.gameInfo.ruleset.buildings.values.filter {
-                        city.cityConstructions.isBuilt(it.name)
+                        city.cityConstructions.isBuilt(it)
                         && it.requiredResources(city.state).contains(resource)
                         && it.isSellable()
                         && !civInfo.civConstructions.hasFreeBuilding(city, it) }
@@ -395,13 +400,13 @@ object NextTurnAutomation {
     }
 
 
-    private fun automateUnits(civInfo: Civilization) {
+    private fun automateUnits(civInfo: Civilization, scheduler: AutomationTurnScheduler) {
         val isAtWar = civInfo.isAtWar()
         val sortedUnits = civInfo.units.getCivUnits().sortedBy { unit -> getUnitPriority(unit, isAtWar) }
         
         val citiesRequiringManualPlacement = civInfo.getKnownCivs().filter { it.isAtWarWith(civInfo) }
             .flatMap { it.cities }
-            .filter { it.getCenterTile().getTilesInDistance(4).count { it.militaryUnit?.civ == civInfo } > 4 }
+            .filter { city -> civInfo.spatialIndex.getUnitsInDistance(city.getCenterTile(), 4).count { it.currentTile.militaryUnit == it } > 4 }
             .toList()
 
         for (unit in sortedUnits) {
@@ -444,14 +449,19 @@ object NextTurnAutomation {
         
         for (unit in sortedUnits) {
             // spaceship parts and settlers have already moved
-            if (!unit.hasUnique(UniqueType.SpaceshipPart) && !unit.hasUnique(UniqueType.FoundCity)) UnitAutomation.automateUnitMoves(unit)
+            if (unit.hasUnique(UniqueType.SpaceshipPart) || unit.hasUnique(UniqueType.FoundCity)) continue
+            // Exploring can wait for a turn with time to spare
+            if (unit.isExploring() && scheduler.isOverBudget()) continue
+            scheduler.spendWork()
+            UnitAutomation.automateUnitMoves(unit)
         }
     }
     
     /** All units will continue after this to the regular automation, so units not moved in this function will still move */
     private fun automateCityConquer(civInfo: Civilization, city: City){
-        @Readonly fun ourUnitsInRange(range: Int) = city.getCenterTile().getTilesInDistance(range)
-            .mapNotNull { it.militaryUnit }.filter { it.civ == civInfo && (!it.baseUnit.isMelee() || it.health > 30) }.toList()
+        @Readonly fun ourUnitsInRange(range: Int) = civInfo.spatialIndex.getUnitsInDistance(city.getCenterTile(), range)
+            .filter { it.currentTile.militaryUnit == it && (!it.baseUnit.isMelee() || it.health > 30) }
+            .sortedBy { it.currentTile.aerialDistanceTo(city.getCenterTile()) }
         
         
         fun attackIfPossible(unit: MapUnit, tile: Tile){
@@ -495,9 +505,9 @@ object NextTurnAutomation {
     }
     private fun automateSettlerEscorting(civInfo: Civilization){
         val capitalTile = civInfo.getCapital()!!.getCenterTile()
-        @Readonly fun bestUnitInRange(tile: Tile, range: Int) = tile.getTilesInDistance(range)
-            .mapNotNull { it.militaryUnit }.filter {
-                it.civ == civInfo
+        @Readonly fun bestUnitInRange(tile: Tile, range: Int) = civInfo.spatialIndex.getUnitsInDistance(tile, range)
+            .filter {
+                it.currentTile.militaryUnit == it
                     && it.health >= 100
                     // only draft a unit from the core of the empire, or it'll interfere with other anti-barb activities
                     && (it.currentTile.aerialDistanceTo(capitalTile) < tile.aerialDistanceTo(capitalTile))
@@ -597,8 +607,12 @@ object NextTurnAutomation {
             .filterNot { it.isPuppet || it.population.population < 3 }
             .maxByOrNull { it.cityStats.currentCityStats.production }
             ?: return
-        if (bestCity.cityConstructions.getBuiltBuildings().count() > 1) // 2 buildings or more, otherwise focus on self first
-            bestCity.cityConstructions.setCurrentConstruction(settlerUnits.minByOrNull { it.cost }!!.name)
+        if (bestCity.cityConstructions.getBuiltBuildings().count() <= 1) return // 2 buildings or more, otherwise focus on self first
+
+        // Don't train settlers with nowhere to go
+        val minimumTileValue = civInfo.gameInfo.ruleset.modOptions.constants.minimumCityLocationTileValue
+        if (!CityLocationTileRanker.hasCityLocationNearCities(civInfo, minimumTileValue)) return
+        bestCity.cityConstructions.setCurrentConstruction(settlerUnits.minByOrNull { it.cost }!!.name)
     }
 
     // Technically, this function should also check for civs that have liberated one or more cities
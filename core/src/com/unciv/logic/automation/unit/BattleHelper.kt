@@ -18,7 +18,9 @@ object BattleHelper {
     fun tryAttackNearbyEnemy(unit: MapUnit, stayOnTile: Boolean = false): Boolean {
         if (unit.hasUnique(UniqueType.CannotAttack)) return false
         val distanceToTiles = unit.movement.getDistanceToTiles()
-        val attackableEnemies = TargetHelper.getAttackableEnemies(unit, unit.movement.getDistanceToTiles(), stayOnTile=stayOnTile)
+        val enemyReachFilter = unit.civ.getEnemyReachFilter()
+        if (!enemyReachFilter.hasEnemyInReach(unit, distanceToTiles, stayOnTile)) return !unit.hasMovement()
+        val attackableEnemies = TargetHelper.getAttackableEnemies(unit, distanceToTiles, stayOnTile=stayOnTile)
             // Only take enemies we can fight without dying or are made to die
             .filter {
                 val defender = Battle.getMapCombatantOfTile(it.tileToAttack)
@@ -49,6 +51,8 @@ object BattleHelper {
     fun tryDisembarkUnitToAttackPosition(unit: MapUnit): Boolean {
         if (!unit.baseUnit.isMelee() || !unit.baseUnit.isLandUnit || !unit.isEmbarked()) return false
         val unitDistanceToTiles = unit.movement.getDistanceToTiles()
+        val enemyReachFilter = unit.civ.getEnemyReachFilter()
+        if (!enemyReachFilter.hasEnemyInReach(unit, unitDistanceToTiles)) return false
 
         val attackableEnemiesNextTurn = TargetHelper.getAttackableEnemies(unit, unitDistanceToTiles)
                 // Only take enemies we can fight without dying
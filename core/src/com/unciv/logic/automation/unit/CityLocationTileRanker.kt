@@ -1,14 +1,10 @@
 package com.unciv.logic.automation.unit
 
-import com.unciv.logic.automation.Automation
 import com.unciv.logic.city.City
 import com.unciv.logic.civilization.Civilization
 import com.unciv.logic.civilization.diplomacy.DiplomacyFlags
-import com.unciv.logic.map.HexMath
 import com.unciv.logic.map.mapunit.MapUnit
 import com.unciv.logic.map.tile.Tile
-import com.unciv.models.ruleset.tile.ResourceType
-import com.unciv.models.ruleset.tile.TileResource
 import com.unciv.models.ruleset.unique.LocalUniqueCache
 import com.unciv.models.ruleset.unique.GameContext
 import com.unciv.models.ruleset.unique.UniqueType
@@ -42,11 +38,10 @@ object CityLocationTileRanker {
             .filter { canSettleTile(it, unit.civ, nearbyCities) && (unit.getTile() == it || unit.movement.canMoveTo(it)) }
         val uniqueCache = LocalUniqueCache()
         val bestTilesToFoundCity = BestTilesToFoundCity()
-        val baseTileMap = HashMap<Tile, Float>()
 
         val possibleTileLocationsWithRank = possibleCityLocations
             .map {
-                var tileValue = rankTileToSettle(it, unit.civ, nearbyCities, baseTileMap, uniqueCache)
+                var tileValue = unit.civ.settleValueHeatmap.getSettleValue(it, nearbyCities, uniqueCache)
                 val distanceScore = (unit.currentTile.aerialDistanceTo(it) * distanceModifier).coerceIn(0f, 99f)
                 tileValue *= (100 - distanceScore) / 100
                 if (tileValue >= minimumValue)
@@ -65,6 +60,28 @@ object CityLocationTileRanker {
         return bestTilesToFoundCity
     }
 
+    /**
+     * Whether any tile around [civ]'s cities, in reach of a settler trained there, is worth at least [minimumValue] as a city location.
+     * Cheap on repeated calls, as the tile values come from the [SettleValueHeatmap].
+     */
+    fun hasCityLocationNearCities(civ: Civilization, minimumValue: Float): Boolean {
+        val uniqueCache = LocalUniqueCache()
+        val checkedTiles = HashSet<Tile>()
+        for (city in civ.cities) {
+            val cityTile = city.getCenterTile()
+            // The widest range getBestTilesToFoundCity searches, with all cities affecting the values in that range
+            val nearbyCities = civ.gameInfo.getCities()
+                .filter { it.getCenterTile().aerialDistanceTo(cityTile) <= 7 + 5 }
+                .toList().asSequence()
+            for (tile in cityTile.getTilesInDistance(5)) {
+                if (!checkedTiles.add(tile)) continue
+                if (!canSettleTile(tile, civ, nearbyCities)) continue
+                if (civ.settleValueHeatmap.getSettleValue(tile, nearbyCities, uniqueCache) >= minimumValue) return true
+            }
+        }
+        return false
+    }
+
     @Readonly
     private fun canSettleTile(tile: Tile, civ: Civilization, nearbyCities: Sequence<City>): Boolean {
         val modConstants = civ.gameInfo.ruleset.modOptions.constants
@@ -87,122 +104,4 @@ object CityLocationTileRanker {
         }
         return true
     }
-
-    private fun rankTileToSettle(newCityTile: Tile, civ: Civilization, nearbyCities: Sequence<City>,
-                                 baseTileMap: HashMap<Tile, Float>, uniqueCache: LocalUniqueCache): Float {
-        var tileValue = 0f
-        tileValue += getDistanceToCityModifier(newCityTile, nearbyCities, civ)
-
-        val onCoast = newCityTile.isCoastalTile()
-        val onHill = newCityTile.isHill()
-        val isNextToMountain = newCityTile.isAdjacentTo("Mountain")
-        // Only count a luxury resource that we don't have yet as unique once
-        val newUniqueLuxuryResources = HashSet<TileResource>()
-
-        if (onCoast) tileValue += 3
-        // Hills are free production and defence
-        if (onHill) tileValue += 14
-        // Observatories are good, but current implementation not mod-friendly
-        if (isNextToMountain) tileValue += 5
-        // This bonus for settling on river is a bit outsized for the importance, but otherwise they have a habit of settling 1 tile away
-        if (newCityTile.isAdjacentToRiver()) tileValue += 20
-        // We want to found the city on an oasis because it can't be improved otherwise
-        if (newCityTile.terrainHasUnique(UniqueType.Unbuildable)) tileValue += 3
-        val resource = newCityTile.tileResource
-        if (civ.canSeeResource(resource)) {
-            tileValue -= 4
-            // Settling on bonus resources tends to waste a food
-            if (resource.resourceType == ResourceType.Bonus) tileValue -= 8
-            // Build on jungle luxuries for tempo
-            if (resource.resourceType == ResourceType.Luxury &&
-                newCityTile.lastTerrain.hasUnique(UniqueType.Vegetation) &&
-                !newCityTile.lastTerrain.hasUnique(UniqueType.ProductionBonusWhenRemoved)
-                ) tileValue += 10
-        }
-
-        var tiles = 0
-        for (i in 0..2) {
-                //Ideally, we shouldn't really count the center tile, as it's converted into 1 production 2 food anyways with special cases treated above, but doing so can lead to AI moving settler back and forth until forever
-                for (nearbyTile in newCityTile.getTilesAtDistance(i)) {
-                    tiles++
-                    tileValue += rankTile(nearbyTile, civ, onCoast, newUniqueLuxuryResources, baseTileMap, uniqueCache) * (3 / (i + 1))
-                    //Tiles close to the city can be worked more quickly, and thus should gain higher weight.
-                }
-        }
-
-        // Placing cities on the edge of the map is bad, we can't even build improvements on them!
-        tileValue -= (HexMath.getNumberOfTilesInHexagon(2) - tiles) * 2.4f
-        return tileValue
-    }
-
-    @Readonly
-    private fun getDistanceToCityModifier(newCityTile: Tile,nearbyCities: Sequence<City>, civ: Civilization): Float {
-        var modifier = 0f
-        for (city in nearbyCities) {
-            val distanceToCity = newCityTile.aerialDistanceTo(city.getCenterTile())
-            var distanceToCityModifier = when {
-                // NOTE: the line it.getCenterTile().aerialDistanceTo(unit.getTile()) <= X + range
-                // above MUST have the constant X that is added to the range be higher or equal to the highest distance here + 1
-                // If it is not higher the settler may get stuck when it ranks the same tile differently
-                // as it moves away from the city and doesn't include it in the calculation
-                // and values it higher than when it moves closer to the city
-                distanceToCity == 7 -> 2f
-                distanceToCity == 6 -> 4f
-                distanceToCity == 5 -> 8f // Settling further away sacrifices tempo
-                distanceToCity == 4 -> 6f
-                distanceToCity == 3 -> -25f
-                distanceToCity < 3 -> -30f // Even if it is a mod that lets us settle closer, lets still not do it
-                else -> 0f
-            }
-            // We want a defensive ring around our capital
-             if (city.civ == civ) { 
-                distanceToCityModifier *= if (city.isCapital()) 2 else 1
-                modifier += distanceToCityModifier
-            }
-        }
-        return modifier
-    }
-
-    private fun rankTile(rankTile: Tile, civ: Civilization, onCoast: Boolean, newUniqueLuxuryResources: HashSet<TileResource>,
-                         baseTileMap: HashMap<Tile, Float>, uniqueCache: LocalUniqueCache): Float {
-        if (rankTile.getCity() != null) return -1f
-        var locationSpecificTileValue = 0f
-        // Don't settle near but not on the coast
-        if (rankTile.isWater && !onCoast) locationSpecificTileValue -= 1
-        // Check if there are any new unique luxury resources
-        val resource = rankTile.tileResource
-        if (civ.canSeeResource(resource) &&
-            resource.resourceType == ResourceType.Luxury &&
-            !civ.hasResource(resource) &&
-            !newUniqueLuxuryResources.contains(resource)
-        ) {
-            locationSpecificTileValue += 10
-            newUniqueLuxuryResources.add(resource)
-        }
-
-        // Check if everything else has been calculated, if so return it
-        if (baseTileMap.containsKey(rankTile)) return locationSpecificTileValue + baseTileMap[rankTile]!!
-        if (rankTile.getOwner() != null && rankTile.getOwner() != civ) return 0f
-
-        var rankTileValue = Automation.rankStatsValue(rankTile.stats.getTileStats(null, civ, uniqueCache), civ)
-
-        if (civ.canSeeResource(resource)) {
-            rankTileValue += when (resource.resourceType) {
-                ResourceType.Bonus -> 1f
-                ResourceType.Strategic -> 2f
-                ResourceType.Luxury -> 10f //very important for humans who might want to conquer the AI
-            }
-        }
-        if (rankTile.terrainHasUnique(UniqueType.FreshWater)) rankTileValue += 0.5f 
-        //Taking into account freshwater farm food, maybe less important in baseruleset mods
-        if (rankTile.terrainFeatures.isNotEmpty() && rankTile.lastTerrain.hasUnique(UniqueType.ProductionBonusWhenRemoved)) rankTileValue += 0.7f
-        //Taking into account yields from forest chopping
-
-        if (rankTile.isNaturalWonder()) rankTileValue += 4
-
-        baseTileMap[rankTile] = rankTileValue
-
-        return rankTileValue + locationSpecificTileValue
-    }
-
 }
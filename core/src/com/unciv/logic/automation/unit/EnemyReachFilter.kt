@@ -0,0 +1,60 @@
+package com.unciv.logic.automation.unit
+
+import com.unciv.logic.battle.Battle
+import com.unciv.logic.civilization.Civilization
+import com.unciv.logic.civilization.diplomacy.DiplomaticStatus
+import com.unciv.logic.map.mapunit.MapUnit
+import com.unciv.logic.map.mapunit.movement.PathsToTilesWithinTurn
+import com.unciv.logic.map.tile.Tile
+import yairm210.purity.annotations.Cache
+import yairm210.purity.annotations.Readonly
+
+/**
+ * Where the enemies one civ can see are, shared by all its military units during a turn, see [Civilization.getEnemyReachFilter].
+ *
+ * A prefilter only: units with no enemy in reach skip [TargetHelper.getAttackableEnemies][com.unciv.logic.battle.TargetHelper.getAttackableEnemies]
+ * altogether, the others still look for and choose their targets one by one. Damage estimates are not kept here -
+ * [BattleDamage][com.unciv.logic.battle.BattleDamage] keeps the modifier tables behind them, keyed by everything they depend on.
+ */
+class EnemyReachFilter(private val civInfo: Civilization) {
+    val cachedForTurn = civInfo.gameInfo.turns
+
+    @Readonly
+    fun isValid() = civInfo.gameInfo.turns == cachedForTurn
+
+    /** Our units moving changes what we see, and declaring war changes who the enemies are, see [getEnemyTiles] */
+    @Cache private var enemyTilesForViewableTiles: Set<Tile>? = null
+    @Cache private var enemyTilesForWarCount = -1
+    @Cache private var enemyTiles = listOf<Tile>()
+
+    /** Tiles we can see that hold a unit or city of a civ we're at war with - a superset of what any of our units can attack */
+    @Readonly
+    private fun getEnemyTiles(): List<Tile> {
+        val warCount = civInfo.diplomacy.values.count { it.diplomaticStatus == DiplomaticStatus.War }
+        if (civInfo.viewableTiles !== enemyTilesForViewableTiles || warCount != enemyTilesForWarCount) {
+            enemyTiles = civInfo.viewableTiles.filter {
+                val combatant = Battle.getMapCombatantOfTile(it)
+                combatant != null && combatant.getCivInfo() != civInfo && civInfo.isAtWarWith(combatant.getCivInfo())
+            }
+            enemyTilesForViewableTiles = civInfo.viewableTiles
+            enemyTilesForWarCount = warCount
+        }
+        return enemyTiles
+    }
+
+    /**
+     * `false` if no enemy is close enough for [unit] to attack this turn, so there's no point asking [TargetHelper.getAttackableEnemies][com.unciv.logic.battle.TargetHelper.getAttackableEnemies].
+     * `true` doesn't mean there is an attackable enemy.
+     */
+    @Readonly
+    fun hasEnemyInReach(unit: MapUnit, distanceToTiles: PathsToTilesWithinTurn, stayOnTile: Boolean = false): Boolean {
+        if (unit.isPreparingAirSweep()) return true
+        val enemyTiles = getEnemyTiles()
+        if (enemyTiles.isEmpty()) return false
+        val unitTile = unit.getTile()
+        val movementReach = if (stayOnTile || unit.baseUnit.movesLikeAirUnits) 0
+            else distanceToTiles.keys.maxOfOrNull { it.aerialDistanceTo(unitTile) } ?: 0
+        val reach = movementReach + unit.getRange()
+        return enemyTiles.any { it.aerialDistanceTo(unitTile) <= reach }
+    }
+}
@@ -4,6 +4,7 @@ import com.badlogic.gdx.math.Vector2
 import com.unciv.UncivGame
 import com.unciv.logic.city.City
 import com.unciv.logic.civilization.Civilization
+import com.unciv.logic.civilization.transients.TransportNetwork
 import com.unciv.logic.map.BFS
 import com.unciv.logic.map.HexMath
 import com.unciv.logic.map.MapPathing
@@ -136,6 +137,11 @@ class RoadBetweenCitiesAutomation(val civInfo: Civilization, private val cachedF
                 continue
             }
 
+            // Already linked by the best road available - no need to look for a path to improve
+            val bestRoadLayer = if (bestRoadAvailable == RoadStatus.Railroad) TransportNetwork.Layer.Railroad else TransportNetwork.Layer.Road
+            if (civInfo.cache.transportNetwork.areConnected(bestRoadLayer, city.getCenterTile(), closeCity.getCenterTile()))
+                continue
+
             // Try to build a plan for the road to the city
             // TODO: May return inconsistent paths across turns due to worker position, this makes it impossible to plan an exact road resulting in excessive roads built
             val roadPath = if (civInfo.cities.indexOf(city) < civInfo.cities.indexOf(closeCity)) MapPathing.getRoadPath(civInfo, city.getCenterTile(), closeCity.getCenterTile()) ?: continue
@@ -0,0 +1,212 @@
+package com.unciv.logic.automation.unit
+
+import com.unciv.logic.automation.Automation
+import com.unciv.logic.city.City
+import com.unciv.logic.civilization.Civilization
+import com.unciv.logic.map.HexMath
+import com.unciv.logic.map.tile.Tile
+import com.unciv.models.ruleset.tile.ResourceType
+import com.unciv.models.ruleset.tile.TileResource
+import com.unciv.models.ruleset.unique.LocalUniqueCache
+import com.unciv.models.ruleset.unique.UniqueType
+import yairm210.purity.annotations.Cache
+import yairm210.purity.annotations.Readonly
+
+/**
+ * How good each tile is as a city location for [civ], kept across settlers and turns, see [Civilization.settleValueHeatmap].
+ *
+ * The expensive part of a location's value is the yield ranking of the tiles around it. Those are kept per tile together
+ * with the tile state they were computed from - terrain, resource, improvement, road and owning city - and only
+ * recomputed for tiles where that changed. Civ-wide changes that affect yields or their weighing (techs, policies, beliefs,
+ * era, golden age, running out of gold)
+ * drop all of them.
+ *
+ * Also used from the UI thread to highlight suggested city locations, so access is synchronized.
+ */
+class SettleValueHeatmap(private val civ: Civilization) {
+
+    private class BaseTileValue(tile: Tile, val value: Float) {
+        private val baseTerrain = tile.baseTerrain
+        private val terrainFeatures = tile.terrainFeatures
+        private val naturalWonder = tile.naturalWonder
+        private val resource = tile.resource
+        private val improvement = tile.improvement
+        private val improvementIsPillaged = tile.improvementIsPillaged
+        private val roadStatus = tile.roadStatus
+        private val owningCity = tile.owningCity
+
+        /** [Tile.setTerrainFeatures] replaces the list, so the reference comparison catches feature changes */
+        @Readonly
+        fun isValidFor(tile: Tile) = baseTerrain == tile.baseTerrain
+            && terrainFeatures === tile.terrainFeatures
+            && naturalWonder == tile.naturalWonder
+            && resource == tile.resource
+            && improvement == tile.improvement
+            && improvementIsPillaged == tile.improvementIsPillaged
+            && roadStatus == tile.roadStatus
+            && owningCity === tile.owningCity
+    }
+
+    private data class CivKey(
+        val techs: Int,
+        val policies: Int,
+        val beliefs: Int,
+        val era: String,
+        val isGoldenAge: Boolean,
+        /** [Automation.rankStatsValue] weighs gold higher while the civ is in debt */
+        val isInGoldTrouble: Boolean
+    )
+
+    @Cache private val baseTileValues = HashMap<Tile, BaseTileValue>()
+    @Cache private var civKey: CivKey? = null
+
+    @Readonly
+    private fun getCivKey() = CivKey(
+        civ.tech.techsResearched.size,
+        civ.policies.getAdoptedPolicies().size,
+        civ.religionManager.religion?.getAllBeliefsOrdered()?.count() ?: 0,
+        civ.getEra().name,
+        civ.goldenAges.isGoldenAge(),
+        civ.gold < 0 && civ.stats.statsForNextTurn.gold <= 0
+    )
+
+    /**
+     * The value of founding a city on [newCityTile], before accounting for the distance from any settler.
+     * @param nearbyCities Must contain at least all cities within 7 tiles of [newCityTile]
+     */
+    @Readonly
+    fun getSettleValue(newCityTile: Tile, nearbyCities: Sequence<City>, uniqueCache: LocalUniqueCache): Float {
+        synchronized(this) {
+            val currentCivKey = getCivKey()
+            if (currentCivKey != civKey) {
+                baseTileValues.clear()
+                civKey = currentCivKey
+            }
+            return rankTileToSettle(newCityTile, nearbyCities, uniqueCache)
+        }
+    }
+
+    @Readonly
+    private fun rankTileToSettle(newCityTile: Tile, nearbyCities: Sequence<City>, uniqueCache: LocalUniqueCache): Float {
+        var tileValue = 0f
+        tileValue += getDistanceToCityModifier(newCityTile, nearbyCities)
+
+        val onCoast = newCityTile.isCoastalTile()
+        val onHill = newCityTile.isHill()
+        val isNextToMountain = newCityTile.isAdjacentTo("Mountain")
+        // Only count a luxury resource that we don't have yet as unique once
+        val newUniqueLuxuryResources = HashSet<TileResource>()
+
+        if (onCoast) tileValue += 3
+        // Hills are free production and defence
+        if (onHill) tileValue += 14
+        // Observatories are good, but current implementation not mod-friendly
+        if (isNextToMountain) tileValue += 5
+        // This bonus for settling on river is a bit outsized for the importance, but otherwise they have a habit of settling 1 tile away
+        if (newCityTile.isAdjacentToRiver()) tileValue += 20
+        // We want to found the city on an oasis because it can't be improved otherwise
+        if (newCityTile.terrainHasUnique(UniqueType.Unbuildable)) tileValue += 3
+        val resource = newCityTile.tileResource
+        if (civ.canSeeResource(resource)) {
+            tileValue -= 4
+            // Settling on bonus resources tends to waste a food
+            if (resource.resourceType == ResourceType.Bonus) tileValue -= 8
+            // Build on jungle luxuries for tempo
+            if (resource.resourceType == ResourceType.Luxury &&
+                newCityTile.lastTerrain.hasUnique(UniqueType.Vegetation) &&
+                !newCityTile.lastTerrain.hasUnique(UniqueType.ProductionBonusWhenRemoved)
+                ) tileValue += 10
+        }
+
+        var tiles = 0
+        for (i in 0..2) {
+                //Ideally, we shouldn't really count the center tile, as it's converted into 1 production 2 food anyways with special cases treated above, but doing so can lead to AI moving settler back and forth until forever
+                for (nearbyTile in newCityTile.getTilesAtDistance(i)) {
+                    tiles++
+                    tileValue += rankTile(nearbyTile, onCoast, newUniqueLuxuryResources, uniqueCache) * (3 / (i + 1))
+                    //Tiles close to the city can be worked more quickly, and thus should gain higher weight.
+                }
+        }
+
+        // Placing cities on the edge of the map is bad, we can't even build improvements on them!
+        tileValue -= (HexMath.getNumberOfTilesInHexagon(2) - tiles) * 2.4f
+        return tileValue
+    }
+
+    @Readonly
+    private fun getDistanceToCityModifier(newCityTile: Tile, nearbyCities: Sequence<City>): Float {
+        var modifier = 0f
+        for (city in nearbyCities) {
+            val distanceToCity = newCityTile.aerialDistanceTo(city.getCenterTile())
+            var distanceToCityModifier = when {
+                // NOTE: the line it.getCenterTile().aerialDistanceTo(unit.getTile()) <= X + range
+                // in CityLocationTileRanker MUST have the constant X that is added to the range be higher or equal to the highest distance here + 1
+                // If it is not higher the settler may get stuck when it ranks the same tile differently
+                // as it moves away from the city and doesn't include it in the calculation
+                // and values it higher than when it moves closer to the city
+                distanceToCity == 7 -> 2f
+                distanceToCity == 6 -> 4f
+                distanceToCity == 5 -> 8f // Settling further away sacrifices tempo
+                distanceToCity == 4 -> 6f
+                distanceToCity == 3 -> -25f
+                distanceToCity < 3 -> -30f // Even if it is a mod that lets us settle closer, lets still not do it
+                else -> 0f
+            }
+            // We want a defensive ring around our capital
+             if (city.civ == civ) {
+                distanceToCityModifier *= if (city.isCapital()) 2 else 1
+                modifier += distanceToCityModifier
+            }
+        }
+        return modifier
+    }
+
+    @Readonly
+    private fun rankTile(rankTile: Tile, onCoast: Boolean, newUniqueLuxuryResources: HashSet<TileResource>,
+                         uniqueCache: LocalUniqueCache): Float {
+        if (rankTile.getCity() != null) return -1f
+        var locationSpecificTileValue = 0f
+        // Don't settle near but not on the coast
+        if (rankTile.isWater && !onCoast) locationSpecificTileValue -= 1
+        // Check if there are any new unique luxury resources
+        val resource = rankTile.tileResource
+        if (civ.canSeeResource(resource) &&
+            resource.resourceType == ResourceType.Luxury &&
+            !civ.hasResource(resource) &&
+            !newUniqueLuxuryResources.contains(resource)
+        ) {
+            locationSpecificTileValue += 10
+            newUniqueLuxuryResources.add(resource)
+        }
+
+        // Check if everything else has been calculated, if so return it
+        val cached = baseTileValues[rankTile]
+        if (cached != null && cached.isValidFor(rankTile)) return locationSpecificTileValue + cached.value
+        if (rankTile.getOwner() != null && rankTile.getOwner() != civ) return 0f
+
+        val rankTileValue = getBaseTileValue(rankTile, uniqueCache)
+        baseTileValues[rankTile] = BaseTileValue(rankTile, rankTileValue)
+        return rankTileValue + locationSpecificTileValue
+    }
+
+    @Readonly
+    private fun getBaseTileValue(rankTile: Tile, uniqueCache: LocalUniqueCache): Float {
+        var rankTileValue = Automation.rankStatsValue(rankTile.stats.getTileStats(null, civ, uniqueCache), civ)
+
+        val resource = rankTile.tileResource
+        if (civ.canSeeResource(resource)) {
+            rankTileValue += when (resource.resourceType) {
+                ResourceType.Bonus -> 1f
+                ResourceType.Strategic -> 2f
+                ResourceType.Luxury -> 10f //very important for humans who might want to conquer the AI
+            }
+        }
+        if (rankTile.terrainHasUnique(UniqueType.FreshWater)) rankTileValue += 0.5f
+        //Taking into account freshwater farm food, maybe less important in baseruleset mods
+        if (rankTile.terrainFeatures.isNotEmpty() && rankTile.lastTerrain.hasUnique(UniqueType.ProductionBonusWhenRemoved)) rankTileValue += 0.7f
+        //Taking into account yields from forest chopping
+
+        if (rankTile.isNaturalWonder()) rankTileValue += 4
+        return rankTileValue
+    }
+}
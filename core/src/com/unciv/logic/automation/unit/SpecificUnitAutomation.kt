@@ -185,7 +185,7 @@ object SpecificUnitAutomation {
         val relatedStat = improvement.maxByOrNull { it.value }?.key ?: Stat.Culture
 
         val citiesByStatBoost = unit.civ.cities.sortedByDescending {
-            it.cityStats.statPercentBonusTree.totalStats[relatedStat]
+            it.cityStats.statPercentBonuses[relatedStat]
         }
 
         val averageTerrainStatsValue = unit.civ.gameInfo.ruleset.terrains.values.asSequence()
@@ -213,10 +213,9 @@ object SpecificUnitAutomation {
                 // Radius 5 is quite arbitrary. Few units have such a high movement radius although
                 // streets might modify it. Also there might be invisible units, so this is just an
                 // approximation for relative safety and simplicity.
-                val enemyUnitsNearby = unit.getTile().getTilesInDistance(5).any { tileNearby ->
-                    tileNearby.getUnits().any { unitOnTileNearby ->
-                        unitOnTileNearby.isMilitary() && unitOnTileNearby.civ.isAtWarWith(unit.civ)
-                    }
+                val enemyUnitsNearby = unit.civ.gameInfo.civilizations.any { otherCiv ->
+                    otherCiv.isAtWarWith(unit.civ)
+                        && otherCiv.spatialIndex.getUnitsInDistance(unit.getTile(), 5).any { it.isMilitary() }
                 }
                 // Don't move until you're accompanied by a military unit if there are enemies nearby.
                 if (unit.getTile().militaryUnit == null && enemyUnitsNearby) return true
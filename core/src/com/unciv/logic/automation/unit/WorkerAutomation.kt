@@ -46,6 +46,8 @@ class WorkerAutomation(
 
     private val ruleSet = civInfo.gameInfo.ruleset
 
+    /** Work shared between all workers of [civInfo] this turn */
+    val jobBoard = WorkerJobBoard(civInfo)
 
 
     //todo: UnitMovement.canReach still very expensive and could benefit from caching, it's not using BFS
@@ -78,9 +80,11 @@ class WorkerAutomation(
         // Shortcut, we are working a suitable tile, and we're better off minimizing worker-turns by finishing everything on this tile
         if (currentTile.improvementInProgress != null && !dangerousTiles.contains(currentTile)
             && getFullPriority(unit.getTile(), unit, localUniqueCache) >= 2) {
+            jobBoard.claim(currentTile, unit)
             return
         }
         val tileToWork = findTileToWork(unit, dangerousTiles, localUniqueCache)
+        if (tileToWork != null) jobBoard.claim(tileToWork, unit)
 
         if (tileToWork != currentTile && tileToWork != null) {
             headTowardsTileToWork(unit, tileToWork, localUniqueCache)
@@ -201,10 +205,12 @@ class WorkerAutomation(
             && (currentTile.isPillaged() || currentTile.hasFalloutEquivalent() || tileHasWorkToDo(currentTile, unit, localUniqueCache)))
             return currentTile
         
+        // Tiles another worker is already heading for are left to it
         val workableTilesCenterFirst = currentTile.getTilesInDistance(3)
             .filter {
                 (it.getOwner() == null || it.getOwner() == unit.civ || it.getOwner()!!.isCityState)
-                    && isAutomationWorkableTile(it, tilesToAvoid, currentTile, unit) 
+                    && isAutomationWorkableTile(it, tilesToAvoid, currentTile, unit)
+                    && !jobBoard.isClaimedByOther(it, unit)
                     && getBasePriority(it, unit) >= 0
             }
 
@@ -246,13 +252,9 @@ class WorkerAutomation(
             return false
         if (tile.owningCity != null && tile.getOwner() != civInfo) return false
         if (tile.isCityCenter()) return false
+        // The road plans grow during the turn, so they aren't part of the job board's cached verdict
         if (tile in roadBetweenCitiesAutomation.tilesOfRoadsMap) return true
-        // Don't try to improve tiles we can't benefit from at all
-        if (!civInfo.canSeeResource(tile.tileResource) && tile.getTilesInDistance(civInfo.gameInfo.ruleset.modOptions.constants.cityWorkRange)
-                .none { it.isCityCenter() && it.getCity()?.civ == civInfo }
-        ) return false
-        if (tile.getTileImprovement()?.hasUnique(UniqueType.AutomatedUnitsWillNotReplace) == true && !tile.isPillaged()) return false
-        return true
+        return jobBoard.isWorkableForCiv(tile)
     }
 
     /**
@@ -365,7 +367,7 @@ class WorkerAutomation(
         }
         if (potentialTileImprovements.isEmpty()) return null
 
-        val currentTileStats = tile.stats.getTileStats(tile.getCity(), civInfo, localUniqueCache)
+        val currentTileStats = jobBoard.getCurrentTileStats(tile) { tile.stats.getTileStats(tile.getCity(), civInfo, localUniqueCache) }
         var bestBuildableImprovement = potentialTileImprovements.values.asSequence()
             .map { Pair(it, getImprovementRanking(tile, unit, it.name, localUniqueCache, currentTileStats)) }
             .filter { it.second > 0f }
@@ -428,10 +430,27 @@ class WorkerAutomation(
         return ruleSet.tileImprovements[improvementString] // For mods, the tile improvement may not exist, so don't assume.
     }
 
+    /**
+     * Ranks building [improvementName] on [tile] for [civInfo].
+     * Shared between workers via the [jobBoard], except for removals - those look ahead at what [unit] could build afterwards -
+     * and for roads, which depend on the road plans growing during the turn.
+     */
     @Readonly
     private fun getImprovementRanking(tile: Tile, unit: MapUnit, improvementName: String,
                                       localUniqueCache: LocalUniqueCache,
                                       /** Provide for performance */ currentTileStats: Stats? = null): Float {
+        if (improvementName.startsWith(Constants.remove) || ruleSet.tileImprovements[improvementName]!!.isRoad())
+            return rankImprovement(tile, unit, improvementName, localUniqueCache, currentTileStats)
+        return jobBoard.getImprovementRanking(tile, improvementName) {
+            // Shared stats of the tile as it is now, rather than whatever the caller brought along
+            val sharedTileStats = jobBoard.getCurrentTileStats(tile) { tile.stats.getTileStats(tile.getCity(), civInfo, localUniqueCache) }
+            rankImprovement(tile, unit, improvementName, localUniqueCache, sharedTileStats)
+        }
+    }
+
+    @Readonly
+    private fun rankImprovement(tile: Tile, unit: MapUnit, improvementName: String,
+                                localUniqueCache: LocalUniqueCache, currentTileStats: Stats?): Float {
         val improvement = ruleSet.tileImprovements[improvementName]!!
 
         // Add the value of roads if we want to build it here
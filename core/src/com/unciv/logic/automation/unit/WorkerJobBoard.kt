@@ -0,0 +1,107 @@
+package com.unciv.logic.automation.unit
+
+import com.unciv.logic.civilization.Civilization
+import com.unciv.logic.map.mapunit.MapUnit
+import com.unciv.logic.map.tile.Tile
+import com.unciv.models.ruleset.unique.UniqueType
+import com.unciv.models.stats.Stats
+import yairm210.purity.annotations.Cache
+import yairm210.purity.annotations.Readonly
+
+/**
+ * The work all automated workers of one civ share during a turn, owned by the [WorkerAutomation] of that turn.
+ *
+ * - Whether a tile is worth working at all for the civ, independent of the worker asking
+ * - The improvement rankings per tile, which only depend on the civ, the tile and the tiles around it
+ * - Which worker is heading for which tile, so workers spread over the available jobs instead of all racing for the best one
+ *
+ * Entries are filled lazily, as workers look at the tiles around them, since a civ's tiles are usually only partially in reach.
+ */
+class WorkerJobBoard(private val civInfo: Civilization) {
+
+    /** Founding or conquering a city mid-turn changes ownership and city ranges, see [isWorkableForCiv] and [getTileRankings] */
+    @Cache private var cityCount = civInfo.cities.size
+    @Cache private val workableForCiv = HashMap<Tile, Boolean>()
+
+    /**
+     * The rankings are keyed by improvement name. They also depend on the improvements, terrain and owners of the
+     * neighboring tiles (adjacency bonuses), so they are only valid while neither the tile nor its neighbors changed -
+     * see [TileMap.getTileStateVersionAround][com.unciv.logic.map.TileMap.getTileStateVersionAround] - and while the tile keeps its owner.
+     */
+    private class TileRankings(val tileStateVersion: Int, val owner: Civilization?) : HashMap<String, Float>() {
+        /** The stats of the tile as it is, which every ranking compares against */
+        var currentTileStats: Stats? = null
+    }
+    @Cache private val improvementRankings = HashMap<Tile, TileRankings>()
+
+    private val claimedTiles = HashMap<Tile, MapUnit>()
+    private val claimsByUnit = HashMap<MapUnit, Tile>()
+
+    /** The part of [WorkerAutomation]'s tile filter that doesn't depend on the worker, nor on the road plans */
+    @Readonly
+    fun isWorkableForCiv(tile: Tile): Boolean {
+        checkCityCount()
+        return workableForCiv.getOrPut(tile) {
+            when {
+                tile.owningCity != null && tile.getOwner() != civInfo -> false
+                tile.isCityCenter() -> false
+                // Don't try to improve tiles we can't benefit from at all
+                !civInfo.canSeeResource(tile.tileResource)
+                    && tile.getTilesInDistance(civInfo.gameInfo.ruleset.modOptions.constants.cityWorkRange)
+                        .none { it.isCityCenter() && it.getCity()?.civ == civInfo } -> false
+                tile.getTileImprovement()?.hasUnique(UniqueType.AutomatedUnitsWillNotReplace) == true && !tile.isPillaged() -> false
+                else -> true
+            }
+        }
+    }
+
+    @Readonly
+    private fun checkCityCount() {
+        if (civInfo.cities.size == cityCount) return
+        workableForCiv.clear()
+        improvementRankings.clear()
+        cityCount = civInfo.cities.size
+    }
+
+    @Readonly
+    private fun getTileRankings(tile: Tile): TileRankings {
+        checkCityCount()
+        val tileStateVersion = tile.tileMap.getTileStateVersionAround(tile)
+        val owner = tile.getOwner()
+        var rankings = improvementRankings[tile]
+        if (rankings == null || rankings.tileStateVersion != tileStateVersion || rankings.owner != owner) {
+            rankings = TileRankings(tileStateVersion, owner)
+            improvementRankings[tile] = rankings
+        }
+        return rankings
+    }
+
+    /** @return the stats [tile] yields now, computing them with [getStats] only the first time they are asked for */
+    @Readonly @Suppress("purity") // Sets currentTileStats on a TileRankings kept in improvementRankings
+    fun getCurrentTileStats(tile: Tile, @Readonly getStats: () -> Stats): Stats {
+        val rankings = getTileRankings(tile)
+        return rankings.currentTileStats ?: getStats().also { rankings.currentTileStats = it }
+    }
+
+    /** @return the ranking of [improvementName] on [tile], computing it with [rank] only the first time it is asked for */
+    @Readonly @Suppress("purity") // Adds to a TileRankings kept in improvementRankings
+    fun getImprovementRanking(tile: Tile, improvementName: String, @Readonly rank: () -> Float): Float =
+        getTileRankings(tile).getOrPut(improvementName, rank)
+
+    /** @return `true` if another worker is already on its way to work [tile] */
+    @Readonly
+    fun isClaimedByOther(tile: Tile, unit: MapUnit): Boolean {
+        val claimant = claimedTiles[tile] ?: return false
+        return claimant != unit && !claimant.isDestroyed && claimant.civ == civInfo
+    }
+
+    /** Records that [unit] is going to work [tile], releasing its previous claim */
+    fun claim(tile: Tile, unit: MapUnit) {
+        val previousTile = claimsByUnit.put(unit, tile)
+        if (previousTile != null && previousTile != tile && claimedTiles[previousTile] == unit)
+            claimedTiles.remove(previousTile)
+        val previousClaimant = claimedTiles.put(tile, unit)
+        if (previousClaimant != null && previousClaimant != unit)
+            claimsByUnit.remove(previousClaimant)
+    }
+}
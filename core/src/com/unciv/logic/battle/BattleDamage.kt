@@ -135,7 +135,12 @@ object BattleDamage {
     fun getAttackModifiers(
         attacker: ICombatant,
         defender: ICombatant, tileToAttackFrom: Tile
-    ): Counter<String> {
+    ): Counter<String> = attacker.getCivInfo().gameInfo.battleModifierCache.getModifiers(CombatAction.Attack, attacker, defender, tileToAttackFrom) {
+        computeAttackModifiers(attacker, defender, tileToAttackFrom)
+    }
+
+    @Readonly
+    private fun computeAttackModifiers(attacker: ICombatant, defender: ICombatant, tileToAttackFrom: Tile): Counter<String> {
         @LocalState val modifiers = getGeneralModifiers(attacker, defender, CombatAction.Attack, tileToAttackFrom)
 
         if (attacker is MapUnitCombatant) {
@@ -224,7 +229,13 @@ object BattleDamage {
     }
 
     @Readonly
-    fun getDefenceModifiers(attacker: ICombatant, defender: ICombatant, tileToAttackFrom: Tile): Counter<String> {
+    fun getDefenceModifiers(attacker: ICombatant, defender: ICombatant, tileToAttackFrom: Tile): Counter<String> =
+        defender.getCivInfo().gameInfo.battleModifierCache.getModifiers(CombatAction.Defend, defender, attacker, tileToAttackFrom) {
+            computeDefenceModifiers(attacker, defender, tileToAttackFrom)
+        }
+
+    @Readonly
+    private fun computeDefenceModifiers(attacker: ICombatant, defender: ICombatant, tileToAttackFrom: Tile): Counter<String> {
         @LocalState val modifiers = getGeneralModifiers(defender, attacker, CombatAction.Defend, tileToAttackFrom)
         val tile = defender.getTile()
 
@@ -0,0 +1,120 @@
+package com.unciv.logic.battle
+
+import com.unciv.logic.civilization.Civilization
+import com.unciv.logic.map.tile.Tile
+import com.unciv.models.Counter
+import yairm210.purity.annotations.Cache
+import yairm210.purity.annotations.Readonly
+
+/**
+ * Keeps the modifier tables of [BattleDamage.getAttackModifiers] and [BattleDamage.getDefenceModifiers].
+ *
+ * AI target evaluation asks for the same attacker and defender many times per turn, and the battle preview asks again
+ * each frame it is shown, while matching the uniques behind the modifiers is the expensive part of a damage estimate.
+ *
+ * Tables are keyed on the versions the game bumps for everything they can depend on - techs, policies, buildings,
+ * units, beliefs and diplomacy of any civ ([GameInfo.civStateVersion][com.unciv.logic.GameInfo.civStateVersion]),
+ * terrain, improvements, roads and owners of any tile ([TileMap.tileStateVersion][com.unciv.logic.map.TileMap.tileStateVersion])
+ * and where units stand, for flanking, great generals and adjacent enemies ([TileMap.unitPositionsVersion][com.unciv.logic.map.TileMap.unitPositionsVersion]) -
+ * plus the few values that change without those: the combatants' health, promotions and fortification, and their civs'
+ * happiness, resources and stockpiles, which "when above [N] [stat]" conditionals read.
+ *
+ * One per game, see [GameInfo.battleModifierCache][com.unciv.logic.GameInfo.battleModifierCache], so the tables go
+ * away with the game whose units and tiles they refer to.
+ */
+internal class BattleModifierCache {
+    private data class CivSignature(
+        val civ: Civilization,
+        val happiness: Int,
+        /** Replaced whenever the civ's resources change, so compared by identity */
+        val resources: Any,
+        val temporaryUniques: Int,
+        val gold: Int,
+        val culture: Int,
+        val faith: Int,
+        val resourceStockpiles: Map<String, Int>
+    ) {
+        override fun equals(other: Any?) = other is CivSignature && civ === other.civ && happiness == other.happiness
+            && resources === other.resources && temporaryUniques == other.temporaryUniques && gold == other.gold
+            && culture == other.culture && faith == other.faith && resourceStockpiles == other.resourceStockpiles
+        override fun hashCode() = System.identityHashCode(civ) * 31 + gold
+    }
+
+    private data class CombatantSignature(
+        /** The unit or city itself - never equal for different ones */
+        val combatant: Any,
+        val tile: Tile,
+        val health: Int,
+        val promotions: Int,
+        val action: String?,
+        val fortificationTurns: Int,
+        val civ: CivSignature
+    )
+
+    private data class Key(
+        val combatAction: CombatAction,
+        val combatant: CombatantSignature,
+        val enemy: CombatantSignature,
+        val tileToAttackFrom: Tile,
+        val turn: Int,
+        val civStateVersion: Int,
+        val tileStateVersion: Int,
+        val unitPositionsVersion: Int
+    )
+
+    @Cache private val tables = object : LinkedHashMap<Key, Counter<String>>(256, 0.75f, true) {
+        override fun removeEldestEntry(eldest: MutableMap.MutableEntry<Key, Counter<String>>?) = size > maxEntries
+    }
+
+    @Readonly
+    private fun getCivSignature(civ: Civilization) = CivSignature(
+        civ,
+        civ.getHappiness(),
+        civ.detailedCivResources,
+        civ.temporaryUniques.size,
+        civ.gold,
+        civ.policies.storedCulture,
+        civ.religionManager.storedFaith,
+        if (civ.resourceStockpiles.isEmpty()) emptyMap() else HashMap(civ.resourceStockpiles)
+    )
+
+    @Readonly
+    private fun getCombatantSignature(combatant: ICombatant) = when (combatant) {
+        is MapUnitCombatant -> CombatantSignature(
+            combatant.unit, combatant.getTile(), combatant.unit.health,
+            combatant.unit.promotions.promotions.size, combatant.unit.action, combatant.unit.getFortificationTurns(),
+            getCivSignature(combatant.getCivInfo())
+        )
+        else -> CombatantSignature(
+            (combatant as CityCombatant).city, combatant.getTile(), combatant.getHealth(),
+            0, null, 0, getCivSignature(combatant.getCivInfo())
+        )
+    }
+
+    /**
+     * @return A copy of the modifiers of [combatant] fighting [enemy], computing them with [getModifiers] only if nothing
+     *   they depend on changed since they were last asked for
+     */
+    @Readonly
+    fun getModifiers(
+        combatAction: CombatAction,
+        combatant: ICombatant,
+        enemy: ICombatant,
+        tileToAttackFrom: Tile,
+        @Readonly getModifiers: () -> Counter<String>
+    ): Counter<String> {
+        val gameInfo = combatant.getCivInfo().gameInfo
+        val tileMap = tileToAttackFrom.tileMap
+        val key = Key(
+            combatAction, getCombatantSignature(combatant), getCombatantSignature(enemy), tileToAttackFrom,
+            gameInfo.turns, gameInfo.civStateVersion, tileMap.tileStateVersion, tileMap.unitPositionsVersion
+        )
+        val cached = synchronized(tables) { tables[key] }
+        val modifiers = cached ?: getModifiers().also { synchronized(tables) { tables[key] = it } }
+        return Counter(modifiers)
+    }
+
+    companion object {
+        private const val maxEntries = 4096
+    }
+}
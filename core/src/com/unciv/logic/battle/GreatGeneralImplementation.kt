@@ -86,8 +86,9 @@ object GreatGeneralImplementation {
         // Send generals to the same place as our units, so they don't get stuck at the wrong side of our empire. Update this when changing global unit movement
 
         val militaryUnitTile = militaryUnitTilesInDistance.maxByOrNull { unitTile ->
-            (2 * unitTile.getTilesInDistance(2).count { it.militaryUnit?.civ == general.civ }
-                - unitTile.getTilesInDistance(2).count { it.militaryUnit?.civ != general.civ }
+            val ourUnitTiles = general.civ.spatialIndex.getUnitsInDistance(unitTile, 2).count { it.currentTile.militaryUnit == it }
+            (2 * ourUnitTiles
+                - (unitTile.getTilesInDistance(2).count() - ourUnitTiles)
                 - if (closestReachableEnemyCity != null) 3 * unitTile.aerialDistanceTo(closestReachableEnemyCity.getCenterTile()) else 0)
             // Scoring here is found to help AI defeat former AI,
             // a more robust scoring may be necessary to avoid leaving generals en-prise,
@@ -40,6 +40,7 @@ import com.unciv.utils.withoutItem
 import yairm210.purity.annotations.Cache
 import yairm210.purity.annotations.LocalState
 import yairm210.purity.annotations.Readonly
+import java.util.BitSet
 import kotlin.math.ceil
 import kotlin.math.min
 import kotlin.math.roundToInt
@@ -64,6 +65,10 @@ class CityConstructions : IsPartOfGameInfoSerialization {
     @Transient
     private var builtBuildingObjects = ArrayList<Building>()
 
+    /** [ids][com.unciv.models.ruleset.IRulesetObject.id] of [builtBuildingObjects], replaced rather than changed like the list */
+    @Transient
+    private var builtBuildingIds = BitSet()
+
     @Transient @Cache
     private val containedBuildingFiltersCache = HashMap<String, Boolean>()
 
@@ -113,13 +118,13 @@ class CityConstructions : IsPartOfGameInfoSerialization {
         .asSequence().filter { it.isBuildable(this) }
 
     /**
-     * @return [Stats] provided by all built buildings in city
+     * @return [Stats] provided by all built buildings in city, by building name
      */
     @Readonly
-    fun getStats(localUniqueCache: LocalUniqueCache): StatTreeNode {
-        @LocalState val stats = StatTreeNode()
+    fun getStats(localUniqueCache: LocalUniqueCache): StatAccumulator {
+        @LocalState val stats = StatAccumulator()
         for (building in getBuiltBuildings())
-            stats.addStats(building.getStats(city, localUniqueCache), building.name)
+            stats.add(building.name, building.getStats(city, localUniqueCache))
         return stats
     }
 
@@ -209,6 +214,7 @@ class CityConstructions : IsPartOfGameInfoSerialization {
     @Readonly fun getCurrentConstruction(): IConstruction = getConstruction( currentConstructionName())
 
     @Readonly fun isBuilt(buildingName: String): Boolean = builtBuildings.contains(buildingName)
+    @Readonly fun isBuilt(building: Building): Boolean = builtBuildingIds[building.id]
 
     // Note: There was a isEnqueued here functionally identical to isBeingConstructedOrEnqueued,
     // which was calling both isEnqueued and isBeingConstructed - BUT:  currentConstructionName() is just a
@@ -342,6 +348,7 @@ class CityConstructions : IsPartOfGameInfoSerialization {
             city.getRuleset().buildings[it]
                     ?: throw java.lang.Exception("Building $it is not found!")
         })
+        builtBuildingIds = BitSet().apply { for (building in builtBuildingObjects) set(building.id) }
         updateUniques(true)
     }
 
@@ -601,6 +608,7 @@ class CityConstructions : IsPartOfGameInfoSerialization {
             city.health += (building.cityHealth.toFloat() * city.health.toFloat() / city.getMaxHealth().toFloat()).toInt()
         }
         builtBuildingObjects = builtBuildingObjects.withItem(building)
+        builtBuildingIds = (builtBuildingIds.clone() as BitSet).apply { set(building.id) }
         builtBuildings.add(buildingName)
 
         updateUniques()
@@ -660,6 +668,7 @@ class CityConstructions : IsPartOfGameInfoSerialization {
 
     fun removeBuilding(building: Building) {
         builtBuildingObjects = builtBuildingObjects.withoutItem(building)
+        builtBuildingIds = (builtBuildingIds.clone() as BitSet).apply { clear(building.id) }
         builtBuildings.remove(building.name)
         
         if (building.hasCreateOneImprovementUnique()){
@@ -678,6 +687,7 @@ class CityConstructions : IsPartOfGameInfoSerialization {
         for (building in getBuiltBuildings())
             builtBuildingUniqueMap.addUniques(building.uniqueObjects)
         if (!onLoadGame) {
+            city.civ.gameInfo.onCivStateChanged()
             city.civ.cache.updateCitiesConnectedToCapital(false) // could be a connecting building, like a harbor
             city.cityStats.update()
             city.civ.cache.updateCivResources()
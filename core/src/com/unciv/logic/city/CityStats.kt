@@ -1,5 +1,6 @@
 package com.unciv.logic.city
 
+import com.unciv.logic.city.CityStatsStageTracker.Stage
 import com.unciv.logic.map.tile.RoadStatus
 import com.unciv.models.Counter
 import com.unciv.models.ruleset.Building
@@ -81,9 +82,21 @@ class StatTreeNode {
 class CityStats(val city: City) {
     //region Fields, Transient
 
-    var baseStatTree = StatTreeNode()
+    /** Base stats by source, see [baseStatTree] for the displayable breakdown */
+    var baseStats = StatAccumulator()
+        private set
 
-    var statPercentBonusTree = StatTreeNode()
+    /** Percentage bonuses by source, see [statPercentBonusTree] for the displayable breakdown */
+    var statPercentBonuses = StatAccumulator()
+        private set
+
+    /** Materialized on each access - only meant for displaying a breakdown, hot paths should use [baseStats] */
+    val baseStatTree: StatTreeNode
+        get() = baseStats.toStatTreeNode()
+
+    /** Materialized on each access - only meant for displaying a breakdown, hot paths should use [statPercentBonuses] */
+    val statPercentBonusTree: StatTreeNode
+        get() = statPercentBonuses.toStatTreeNode()
 
     // Computed from baseStatList and statPercentBonusList - this is so the players can see a breakdown
     var finalStatList = LinkedHashMap<String, Stats>()
@@ -94,6 +107,14 @@ class CityStats(val city: City) {
 
     var currentCityStats: Stats = Stats()  // This is so we won't have to calculate this multiple times - takes a lot of time, especially on phones
 
+    /** Decides which stages of [update] can reuse their previous output */
+    val stageTracker = CityStatsStageTracker(city)
+
+    // Outputs of the stages tracked by stageTracker - only ever replaced, never mutated, so they can be shared
+    private var statsFromBuildings = StatAccumulator()
+    private var statsFromUniques = StatAccumulator()
+    private var statPercentBonusesFromUniquesAndBuildings = StatAccumulator()
+
     //endregion
     //region Pure Functions
 
@@ -201,8 +222,8 @@ class CityStats(val city: City) {
 
 
     @Readonly
-    private fun getStatsFromUniquesBySource(): StatTreeNode {
-        val sourceToStats = StatTreeNode()
+    private fun getStatsFromUniquesBySource(): StatAccumulator {
+        val sourceToStats = StatAccumulator()
 
         val cityStateStatsMultipliers = city.civ.getMatchingUniques(UniqueType.BonusStatsFromCityStates).toList()
 
@@ -211,7 +232,7 @@ class CityStats(val city: City) {
             if (unique.sourceObjectType==UniqueTarget.CityState)
                 for (multiplierUnique in cityStateStatsMultipliers)
                     stats[Stat.valueOf(multiplierUnique.params[1])] *= multiplierUnique.params[0].toPercent()
-            sourceToStats.addStats(stats, unique.getSourceNameForUser(), unique.sourceObjectName ?: "")
+            sourceToStats.add(unique.getSourceNameForUser(), unique.sourceObjectName ?: "", stats)
         }
 
         for (unique in city.getMatchingUniques(UniqueType.StatsPerCity))
@@ -222,7 +243,7 @@ class CityStats(val city: City) {
         for (unique in city.getMatchingUniques(UniqueType.StatsPerPopulation))
             if (city.matchesFilter(unique.params[2])) {
                 val amountOfEffects = (city.population.population / unique.params[1].toInt()).toFloat()
-                sourceToStats.addStats(unique.stats.times(amountOfEffects), unique.getSourceNameForUser(), unique.sourceObjectName ?: "")
+                sourceToStats.add(unique.getSourceNameForUser(), unique.sourceObjectName ?: "", unique.stats.times(amountOfEffects))
             }
 
         for (unique in city.getMatchingUniques(UniqueType.StatsFromCitiesOnSpecificTiles))
@@ -241,13 +262,11 @@ class CityStats(val city: City) {
     }
 
     @Readonly
-    private fun getStatsPercentBonusesFromUniquesBySource(currentConstruction: IConstruction): StatTreeNode {
-        val sourceToStats = StatTreeNode()
+    private fun getStatsPercentBonusesFromUniquesBySource(currentConstruction: IConstruction): StatAccumulator {
+        val sourceToStats = StatAccumulator()
 
         fun addUniqueStats(unique: Unique, stat: Stat, amount: Float) {
-            val stats = Stats()
-            stats.add(stat, amount)
-            sourceToStats.addStats(stats, unique.getSourceNameForUser(), unique.sourceObjectName ?: "")
+            sourceToStats.add(unique.getSourceNameForUser(), unique.sourceObjectName ?: "", stat, amount)
         }
 
         for (unique in city.getMatchingUniques(UniqueType.StatPercentBonus)) {
@@ -371,7 +390,10 @@ class CityStats(val city: City) {
 
     // needs to be a separate function because we need to know the global happiness state
     // in order to determine how much food is produced in a city!
-    fun updateCityHappiness(statsFromBuildings: StatTreeNode) {
+    fun updateCityHappiness(
+        statsFromBuildings: StatAccumulator,
+        statsFromUniques: StatAccumulator = getStatsFromUniquesBySource()
+    ) {
         val civInfo = city.civ
         val newHappinessList = LinkedHashMap<String, Float>()
         // This calculation seems weird to me.
@@ -416,71 +438,62 @@ class CityStats(val city: City) {
                 .toFloat()
         if (happinessFromSpecialists > 0) newHappinessList["Specialists"] = happinessFromSpecialists
 
-        newHappinessList["Buildings"] = statsFromBuildings.totalStats.happiness.toInt().toFloat()
+        newHappinessList["Buildings"] = statsFromBuildings[Stat.Happiness].toInt().toFloat()
 
         newHappinessList["Tile yields"] = statsFromTiles.happiness
 
-        val happinessBySource = getStatsFromUniquesBySource()
-        for ((source, stats) in happinessBySource.children)
-            if (stats.totalStats.happiness != 0f) {
-                if (!newHappinessList.containsKey(source)) newHappinessList[source] = 0f
-                newHappinessList[source] = newHappinessList[source]!! + stats.totalStats.happiness
-            }
+        for (source in statsFromUniques.getSources()) {
+            val happiness = statsFromUniques.getForSource(source, Stat.Happiness)
+            if (happiness != 0f)
+                newHappinessList[source] = (newHappinessList[source] ?: 0f) + happiness
+        }
 
         // we don't want to modify the existing happiness list because that leads
         // to concurrency problems if we iterate on it while changing
         happinessList = newHappinessList
     }
 
-    private fun updateBaseStatList(statsFromBuildings: StatTreeNode) {
-        val newBaseStatTree = StatTreeNode()
-
-        // We don't edit the existing baseStatList directly, in order to avoid concurrency exceptions
-        val newBaseStatList = StatMap()
-
-        newBaseStatTree.addStats(Stats(
-            science = city.population.population.toFloat(),
-            production = city.population.getFreePopulation().toFloat()
-        ), "Population")
-        newBaseStatList["Tile yields"] = statsFromTiles
-        newBaseStatList["Specialists"] =
-            getStatsFromSpecialists(city.population.getNewSpecialists())
-        newBaseStatList["Trade routes"] = getStatsFromTradeRoute()
-        newBaseStatTree.children["Buildings"] = statsFromBuildings
+    // We don't edit the existing baseStats directly, in order to avoid concurrency exceptions
+    @Readonly
+    private fun getBaseStats(statsFromBuildings: StatAccumulator, statsFromUniques: StatAccumulator): StatAccumulator {
+        val newBaseStats = StatAccumulator()
 
-        for ((source, stats) in newBaseStatList)
-            newBaseStatTree.addStats(stats, source)
+        newBaseStats.add("Population", null, Stat.Science, city.population.population.toFloat())
+        newBaseStats.add("Population", null, Stat.Production, city.population.getFreePopulation().toFloat())
+        newBaseStats.addAsChildren("Buildings", statsFromBuildings)
+        newBaseStats.add("Tile yields", statsFromTiles)
+        newBaseStats.add("Specialists", getStatsFromSpecialists(city.population.getNewSpecialists()))
+        newBaseStats.add("Trade routes", getStatsFromTradeRoute())
 
-        newBaseStatTree.add(getStatsFromUniquesBySource())
-        baseStatTree = newBaseStatTree
+        newBaseStats.add(statsFromUniques)
+        return newBaseStats
     }
     
     @Readonly
-    private fun getStatPercentBonusList(currentConstruction: IConstruction): StatTreeNode {
-        val newStatsBonusTree = StatTreeNode()
-
-        newStatsBonusTree.addStats(getStatPercentBonusesFromGoldenAge(city.civ.goldenAges.isGoldenAge()),"Golden Age")
-        newStatsBonusTree.addStats(getStatPercentBonusesFromRailroad(), "Railroad")
-        newStatsBonusTree.addStats(getStatPercentBonusesFromPuppetCity(), "Puppet City")
-        newStatsBonusTree.addStats(getStatPercentBonusesFromUnitSupply(), "Unit Supply")
-        newStatsBonusTree.add(getStatsPercentBonusesFromUniquesBySource(currentConstruction))
-        
+    private fun getStatPercentBonusesFromUniquesAndBuildings(currentConstruction: IConstruction): StatAccumulator {
+        val newStatPercentBonuses = getStatsPercentBonusesFromUniquesBySource(currentConstruction)
+
         val localUniqueCache = LocalUniqueCache()
         for (building in city.cityConstructions.getBuiltBuildings())
-            newStatsBonusTree.addStats(building.getStatPercentageBonuses(city, localUniqueCache),
-                "Buildings", building.name)
+            newStatPercentBonuses.add("Buildings", building.name,
+                building.getStatPercentageBonuses(city, localUniqueCache))
+        return newStatPercentBonuses
+    }
 
+    @Readonly
+    private fun getStatPercentBonuses(statPercentBonusesFromUniquesAndBuildings: StatAccumulator): StatAccumulator {
+        val newStatPercentBonuses = StatAccumulator()
+
+        newStatPercentBonuses.add("Golden Age", getStatPercentBonusesFromGoldenAge(city.civ.goldenAges.isGoldenAge()))
+        newStatPercentBonuses.add("Railroad", getStatPercentBonusesFromRailroad())
+        newStatPercentBonuses.add("Puppet City", getStatPercentBonusesFromPuppetCity())
+        newStatPercentBonuses.add("Unit Supply", getStatPercentBonusesFromUnitSupply())
+        newStatPercentBonuses.add(statPercentBonusesFromUniquesAndBuildings)
 
         if (DebugUtils.SUPERCHARGED) {
-            val stats = Stats()
-            for (stat in Stat.entries) stats[stat] = 10000f
-            newStatsBonusTree.addStats(stats, "Supercharged")
+            for (stat in Stat.entries) newStatPercentBonuses.add("Supercharged", null, stat, 10000f)
         }
-        return newStatsBonusTree
-    }
-    
-    private fun updateStatPercentBonusList(currentConstruction: IConstruction){
-        statPercentBonusTree = getStatPercentBonusList(currentConstruction)
+        return newStatPercentBonuses
     }
 
     fun update(currentConstruction: IConstruction = city.cityConstructions.getCurrentConstruction(),
@@ -489,16 +502,35 @@ class CityStats(val city: City) {
                localUniqueCache:LocalUniqueCache = LocalUniqueCache(),
                calculateGrowthModifiers:Boolean = true) {
 
-        if (updateTileStats) updateTileStats(localUniqueCache)
+        stageTracker.captureInputs(currentConstruction.name)
+
+        if (updateTileStats && stageTracker.needsUpdate(Stage.TileStats)) {
+            updateTileStats(localUniqueCache)
+            stageTracker.recordUpdate(Stage.TileStats)
+        }
 
         // We need to compute Tile yields before happiness
 
-        val statsFromBuildings = city.cityConstructions.getStats(localUniqueCache) // this is performance heavy, so calculate once
-        updateBaseStatList(statsFromBuildings)
-        updateCityHappiness(statsFromBuildings)
-        updateStatPercentBonusList(currentConstruction)
+        if (stageTracker.needsUpdate(Stage.BuildingStats)) {
+            statsFromBuildings = city.cityConstructions.getStats(localUniqueCache) // this is performance heavy, so calculate once
+            stageTracker.recordUpdate(Stage.BuildingStats)
+        }
+        if (stageTracker.needsUpdate(Stage.UniqueStats)) {
+            statsFromUniques = getStatsFromUniquesBySource() // needed for both base stats and happiness
+            stageTracker.recordUpdate(Stage.UniqueStats)
+        }
+        if (stageTracker.needsUpdate(Stage.PercentBonuses)) {
+            statPercentBonusesFromUniquesAndBuildings = getStatPercentBonusesFromUniquesAndBuildings(currentConstruction)
+            stageTracker.recordUpdate(Stage.PercentBonuses)
+        }
+
+        val newBaseStats = getBaseStats(statsFromBuildings, statsFromUniques)
+        updateCityHappiness(statsFromBuildings, statsFromUniques)
+        val newStatPercentBonuses = getStatPercentBonuses(statPercentBonusesFromUniquesAndBuildings)
 
-        updateFinalStatList(currentConstruction, calculateGrowthModifiers) // again, we don't edit the existing currentCityStats directly, in order to avoid concurrency exceptions
+        updateFinalStatList(newBaseStats, newStatPercentBonuses, currentConstruction, calculateGrowthModifiers) // again, we don't edit the existing currentCityStats directly, in order to avoid concurrency exceptions
+        baseStats = newBaseStats
+        statPercentBonuses = newStatPercentBonuses
 
         val newCurrentCityStats = Stats()
         for (stat in finalStatList.values) newCurrentCityStats.add(stat)
@@ -507,13 +539,17 @@ class CityStats(val city: City) {
         if (updateCivStats) city.civ.updateStatsForNextTurn()
     }
 
-    private fun updateFinalStatList(currentConstruction: IConstruction, calculateGrowthModifiers: Boolean = true) {
-        val newFinalStatList = StatMap() // again, we don't edit the existing currentCityStats directly, in order to avoid concurrency exceptions
-
-        for ((key, value) in baseStatTree.children)
-            newFinalStatList[key] = value.totalStats.clone()
+    /** Note: adds the stats converted from production to [baseStats], which is why it must not be published yet */
+    private fun updateFinalStatList(
+        baseStats: StatAccumulator,
+        statPercentBonuses: StatAccumulator,
+        currentConstruction: IConstruction,
+        calculateGrowthModifiers: Boolean = true
+    ) {
+        // again, we don't edit the existing currentCityStats directly, in order to avoid concurrency exceptions
+        val newFinalStatList = baseStats.toStatMapBySource()
 
-        val statPercentBonusesSum = statPercentBonusTree.totalStats
+        val statPercentBonusesSum = statPercentBonuses.getTotalStats()
 
         for (entry in newFinalStatList.values)
             entry.production *= statPercentBonusesSum.production.toPercent()
@@ -521,10 +557,7 @@ class CityStats(val city: City) {
         // We only add the 'extra stats from production' AFTER we calculate the production INCLUDING BONUSES
         val statsFromProduction = getStatsFromProduction(newFinalStatList.values.map { it.production }.sum())
         if (statsFromProduction != null && !statsFromProduction.isEmpty()) {
-            baseStatTree = StatTreeNode().apply {
-                children.putAll(baseStatTree.children)
-                addStats(statsFromProduction, "Production")
-            } // concurrency-safe addition
+            baseStats.add("Production", statsFromProduction)
             newFinalStatList["Construction"] = statsFromProduction
         }
 
@@ -0,0 +1,200 @@
+package com.unciv.logic.city
+
+import com.unciv.logic.map.HexCoord
+import com.unciv.logic.map.tile.RoadStatus
+import yairm210.purity.annotations.Readonly
+import java.util.concurrent.atomic.AtomicLongArray
+
+/**
+ * Dependency tracking for the expensive stages of [CityStats.update].
+ *
+ * Each [Stage] records the [inputs][Inputs] it was last computed from, and is only re-run when one of them changed -
+ * otherwise [CityStats] reuses the stage's previous output. The cheap stages (assembling base stats, happiness,
+ * final stats) always run.
+ *
+ * Uniques and countables can read nearly anything about any civ, so civ-wide state is not listed here but taken from the
+ * versions the game already bumps when it changes: [GameInfo.civStateVersion][com.unciv.logic.GameInfo.civStateVersion]
+ * for techs, policies, buildings, units, cities, beliefs, golden ages and diplomatic standing of every civ,
+ * [TileMap.tileStateVersion][com.unciv.logic.map.TileMap.tileStateVersion] for terrain, resources, improvements, roads
+ * and owners of every tile, and [TileMap.unitPositionsVersion][com.unciv.logic.map.TileMap.unitPositionsVersion] for
+ * blockades of worked tiles. What remains are the few values that change without going through those: stockpiles,
+ * happiness, resources, capital connections, and the city's own population, specialists and status.
+ *
+ * The [Companion] counts computed vs. reused stages over all cities, see [getRecomputationRates].
+ */
+class CityStatsStageTracker(private val city: City) {
+
+    enum class Stage(val dependsOnWorkedTiles: Boolean, val dependsOnConstruction: Boolean) {
+        /** [CityStats.statsFromTiles] */
+        TileStats(true, false),
+        /** Stats of built buildings */
+        BuildingStats(false, false),
+        /** Stats from uniques by source, used for both base stats and happiness */
+        UniqueStats(false, false),
+        /** Percentage bonuses from uniques and buildings */
+        PercentBonuses(false, true),
+    }
+
+    /** The values a stage depends on. Collections are only copied when recording, and compared in place otherwise. */
+    private class Inputs {
+        var turn = -1
+        var civ: Any? = null
+        var civStateVersion = -1
+        var tileStateVersion = -1
+        /** Only for stages that depend on worked tiles, which enemy units can blockade */
+        var unitPositionsVersion = -1
+        /** How many of the happiness levels used by conditionals the civ is below */
+        var happinessLevel = 0
+        /** Replaced whenever the civ's resources change - compared by identity, as are capital connections */
+        var civResources: Any? = null
+        var capitalConnections: Any? = null
+        var temporaryUniqueCount = -1
+        var gold = 0
+        var storedCulture = 0
+        var storedFaith = 0
+        var population = -1
+        var connectionToCapital = RoadStatus.None
+        var majorityReligion: String? = null
+        var followersOfMajorityReligion = 0
+        var isPuppet = false
+        var isInResistance = false
+        var isBeingRazed = false
+        var isWeLoveTheKingDayActive = false
+        var garrison: Any? = null
+        var currentConstruction = ""
+        val resourceStockpiles = HashMap<String, Int>()
+        val specialists = HashMap<String, Int>()
+        val workedTiles = HashSet<HexCoord>()
+
+        fun copyFrom(other: Inputs, city: City, stage: Stage) {
+            turn = other.turn
+            civ = other.civ
+            civStateVersion = other.civStateVersion
+            tileStateVersion = other.tileStateVersion
+            unitPositionsVersion = other.unitPositionsVersion
+            happinessLevel = other.happinessLevel
+            civResources = other.civResources
+            capitalConnections = other.capitalConnections
+            temporaryUniqueCount = other.temporaryUniqueCount
+            gold = other.gold
+            storedCulture = other.storedCulture
+            storedFaith = other.storedFaith
+            population = other.population
+            connectionToCapital = other.connectionToCapital
+            majorityReligion = other.majorityReligion
+            followersOfMajorityReligion = other.followersOfMajorityReligion
+            isPuppet = other.isPuppet
+            isInResistance = other.isInResistance
+            isBeingRazed = other.isBeingRazed
+            isWeLoveTheKingDayActive = other.isWeLoveTheKingDayActive
+            garrison = other.garrison
+            currentConstruction = other.currentConstruction
+            resourceStockpiles.clear()
+            resourceStockpiles.putAll(city.civ.resourceStockpiles)
+            specialists.clear()
+            specialists.putAll(city.population.specialistAllocations)
+            workedTiles.clear()
+            if (stage.dependsOnWorkedTiles) workedTiles.addAll(city.workedTiles)
+        }
+
+        /** Whether these recorded inputs of [stage] match the [current] ones, and the live collections of [city] */
+        @Readonly
+        fun matches(current: Inputs, city: City, stage: Stage): Boolean =
+            turn == current.turn
+                && civ === current.civ
+                && civStateVersion == current.civStateVersion
+                && tileStateVersion == current.tileStateVersion
+                && (!stage.dependsOnWorkedTiles || unitPositionsVersion == current.unitPositionsVersion)
+                && happinessLevel == current.happinessLevel
+                && civResources === current.civResources
+                && capitalConnections === current.capitalConnections
+                && temporaryUniqueCount == current.temporaryUniqueCount
+                && gold == current.gold
+                && storedCulture == current.storedCulture
+                && storedFaith == current.storedFaith
+                && population == current.population
+                && connectionToCapital == current.connectionToCapital
+                && majorityReligion == current.majorityReligion
+                && followersOfMajorityReligion == current.followersOfMajorityReligion
+                && isPuppet == current.isPuppet
+                && isInResistance == current.isInResistance
+                && isBeingRazed == current.isBeingRazed
+                && isWeLoveTheKingDayActive == current.isWeLoveTheKingDayActive
+                && garrison === current.garrison
+                && (!stage.dependsOnConstruction || currentConstruction == current.currentConstruction)
+                && resourceStockpiles == city.civ.resourceStockpiles
+                && specialists == city.population.specialistAllocations
+                && (!stage.dependsOnWorkedTiles || workedTiles == city.workedTiles)
+    }
+
+    private val current = Inputs()
+    private val recorded = Array(Stage.entries.size) { Inputs() }
+    private val isRecorded = BooleanArray(Stage.entries.size)
+
+    /** Reads the current scalar inputs - to be called once at the start of each [CityStats.update] */
+    fun captureInputs(currentConstructionName: String) {
+        val civ = city.civ
+        current.turn = civ.gameInfo.turns
+        current.civ = civ
+        current.civStateVersion = civ.gameInfo.civStateVersion
+        current.tileStateVersion = city.tileMap.tileStateVersion
+        current.unitPositionsVersion = city.tileMap.unitPositionsVersion
+        val happiness = civ.getHappiness()
+        current.happinessLevel = civ.gameInfo.ruleset.allHappinessLevelsThatAffectUniques.count { happiness < it }
+        current.civResources = civ.detailedCivResources
+        current.capitalConnections = civ.cache.citiesConnectedToCapitalToMediums
+        current.temporaryUniqueCount = civ.temporaryUniques.size
+        current.gold = civ.gold
+        current.storedCulture = civ.policies.storedCulture
+        current.storedFaith = civ.religionManager.storedFaith
+        current.population = city.population.population
+        current.connectionToCapital =
+            if (city.isConnectedToCapital()) city.cityStats.getRoadTypeOfConnectionToCapital() else RoadStatus.None
+        current.majorityReligion = city.religion.getMajorityReligionName()
+        current.followersOfMajorityReligion = city.religion.getFollowersOfMajorityReligion()
+        current.isPuppet = city.isPuppet
+        current.isInResistance = city.isInResistance()
+        current.isBeingRazed = city.isBeingRazed
+        current.isWeLoveTheKingDayActive = city.isWeLoveTheKingDayActive()
+        current.garrison = city.getCenterTile().militaryUnit
+        current.currentConstruction = currentConstructionName
+    }
+
+    /** @return `true` if [stage] must be re-run for the inputs from the last [captureInputs], and counts the outcome */
+    fun needsUpdate(stage: Stage): Boolean {
+        val needsUpdate = !isRecorded[stage.ordinal] || !recorded[stage.ordinal].matches(current, city, stage)
+        (if (needsUpdate) computedCount else reusedCount).incrementAndGet(stage.ordinal)
+        return needsUpdate
+    }
+
+    /** Records that [stage] was just re-run with the inputs from the last [captureInputs] */
+    fun recordUpdate(stage: Stage) {
+        recorded[stage.ordinal].copyFrom(current, city, stage)
+        isRecorded[stage.ordinal] = true
+    }
+
+    companion object {
+        private val computedCount = AtomicLongArray(Stage.entries.size)
+        private val reusedCount = AtomicLongArray(Stage.entries.size)
+
+        /** @return for each [Stage], the share of [CityStats.update] calls that actually re-ran it since the last [resetCounters] */
+        @Readonly
+        fun getRecomputationRates(): Map<Stage, Float> = Stage.entries.associateWith {
+            val computed = computedCount[it.ordinal]
+            val total = computed + reusedCount[it.ordinal]
+            if (total == 0L) 0f else computed.toFloat() / total
+        }
+
+        @Readonly
+        fun getCounters(): Map<Stage, Pair<Long, Long>> = Stage.entries.associateWith {
+            computedCount[it.ordinal] to reusedCount[it.ordinal]
+        }
+
+        fun resetCounters() {
+            for (i in Stage.entries.indices) {
+                computedCount[i] = 0
+                reusedCount[i] = 0
+            }
+        }
+    }
+}
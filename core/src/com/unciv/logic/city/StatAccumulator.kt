@@ -0,0 +1,161 @@
+package com.unciv.logic.city
+
+import com.unciv.models.stats.Stat
+import com.unciv.models.stats.StatMap
+import com.unciv.models.stats.Stats
+import yairm210.purity.annotations.InternalState
+import yairm210.purity.annotations.Readonly
+
+/**
+ * Flat accumulator of [Stats] by source, used by [CityStats] instead of building [StatTreeNode] graphs on every update.
+ *
+ * Every row is one [Stat.ordinal]-indexed slice of a single [FloatArray], and its attribution is kept in the parallel
+ * [sources]/[subSources] arrays - so a row is the equivalent of a [StatTreeNode] leaf at most two levels deep.
+ * Rows with the same attribution are merged, as [StatTreeNode.addStats] would.
+ *
+ * The tree view is only built when a breakdown is actually displayed, see [toStatTreeNode].
+ */
+@InternalState
+class StatAccumulator(initialRows: Int = 16) {
+    private var values = FloatArray(initialRows * statCount)
+    private var sources = arrayOfNulls<String>(initialRows)
+    /** `null` for stats attributed to the source itself rather than to one of its children */
+    private var subSources = arrayOfNulls<String>(initialRows)
+
+    var rowCount = 0
+        private set
+
+    private fun ensureCapacity(rows: Int) {
+        if (rows <= sources.size) return
+        val newSize = maxOf(rows, sources.size * 2)
+        values = values.copyOf(newSize * statCount)
+        sources = sources.copyOf(newSize)
+        subSources = subSources.copyOf(newSize)
+    }
+
+    private fun getOrAddRow(source: String, subSource: String?): Int {
+        for (row in 0 until rowCount)
+            if (sources[row] == source && subSources[row] == subSource) return row
+        ensureCapacity(rowCount + 1)
+        sources[rowCount] = source
+        subSources[rowCount] = subSource
+        values.fill(0f, rowCount * statCount, (rowCount + 1) * statCount)
+        return rowCount++
+    }
+
+    /** Makes sure [source] is listed by [toStatMapBySource] even when nothing is ever added to it */
+    fun ensureSource(source: String) {
+        getOrAddRow(source, null)
+    }
+
+    /** Adds [amount] of [stat] attributed to [source] and optionally its child [subSource]. Zero amounts are ignored. */
+    fun add(source: String, subSource: String?, stat: Stat, amount: Float) {
+        if (amount == 0f) return
+        values[getOrAddRow(source, subSource) * statCount + stat.ordinal] += amount
+    }
+
+    /** Adds [stats] attributed to [source] and optionally its child [subSource]. Null or empty [stats] are ignored. */
+    fun add(source: String, subSource: String?, stats: Stats?) {
+        if (stats == null || stats.isEmpty()) return
+        val offset = getOrAddRow(source, subSource) * statCount
+        for (stat in statEntries)
+            values[offset + stat.ordinal] += stats[stat]
+    }
+
+    fun add(source: String, stats: Stats?) = add(source, null, stats)
+
+    /** Adds all rows of [other], keeping their attribution */
+    fun add(other: StatAccumulator) {
+        for (otherRow in 0 until other.rowCount)
+            addRow(other, otherRow, other.sources[otherRow]!!, other.subSources[otherRow])
+    }
+
+    /** Adds all rows of a single-level [other] as children of [source] - e.g. each building's stats below "Buildings" */
+    fun addAsChildren(source: String, other: StatAccumulator) {
+        ensureSource(source)
+        for (otherRow in 0 until other.rowCount)
+            addRow(other, otherRow, source, other.sources[otherRow])
+    }
+
+    private fun addRow(other: StatAccumulator, otherRow: Int, source: String, subSource: String?) {
+        val offset = getOrAddRow(source, subSource) * statCount
+        val otherOffset = otherRow * statCount
+        for (i in 0 until statCount)
+            values[offset + i] += other.values[otherOffset + i]
+    }
+
+    /** @return the sum of [stat] over all sources */
+    @Readonly
+    operator fun get(stat: Stat): Float {
+        var total = 0f
+        for (row in 0 until rowCount) total += values[row * statCount + stat.ordinal]
+        return total
+    }
+
+    /** @return the sum of [stat] over all rows attributed to [source] */
+    @Readonly
+    fun getForSource(source: String, stat: Stat): Float {
+        var total = 0f
+        for (row in 0 until rowCount)
+            if (sources[row] == source) total += values[row * statCount + stat.ordinal]
+        return total
+    }
+
+    /** @return a new [Stats] instance with the sum over all sources */
+    @Readonly
+    fun getTotalStats(): Stats {
+        val stats = Stats()
+        for (stat in statEntries) stats[stat] = get(stat)
+        return stats
+    }
+
+    /** @return the distinct top-level sources in insertion order */
+    @Readonly
+    fun getSources(): List<String> {
+        val list = ArrayList<String>()
+        for (row in 0 until rowCount) {
+            val source = sources[row]!!
+            if (source !in list) list.add(source)
+        }
+        return list
+    }
+
+    /** @return a new [StatMap] with one independently mutable [Stats] per top-level source, in insertion order */
+    @Readonly
+    fun toStatMapBySource(): StatMap {
+        val statMap = StatMap()
+        for (row in 0 until rowCount) {
+            val source = sources[row]!!
+            val existing = statMap[source]
+            if (existing == null) statMap[source] = getRowStats(row)
+            else existing.add(getRowStats(row))
+        }
+        return statMap
+    }
+
+    /** Materializes the equivalent [StatTreeNode] - only meant for displaying a breakdown */
+    @Readonly
+    fun toStatTreeNode(): StatTreeNode {
+        val tree = StatTreeNode()
+        for (row in 0 until rowCount) {
+            val source = sources[row]!!
+            val subSource = subSources[row]
+            if (subSource == null) tree.addStats(getRowStats(row), source)
+            else tree.addStats(getRowStats(row), source, subSource)
+        }
+        return tree
+    }
+
+    @Readonly
+    private fun getRowStats(row: Int): Stats {
+        val stats = Stats()
+        val offset = row * statCount
+        for (stat in statEntries) stats[stat] = values[offset + stat.ordinal]
+        return stats
+    }
+
+    private companion object {
+        val statEntries = Stat.entries.toTypedArray()
+        val statCount = statEntries.size
+    }
+}
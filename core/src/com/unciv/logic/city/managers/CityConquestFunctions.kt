@@ -283,8 +283,10 @@ class CityConquestFunctions(val city: City) {
 
         oldCiv.cities = oldCiv.cities.withoutItem(city)
         newCiv.cities = newCiv.cities.withItem(city)
+        newCiv.gameInfo.onCivStateChanged()
         city.civ = newCiv
         city.state = GameContext(city)
+        for (tile in city.getTiles()) city.tileMap.onTileChanged(tile) // the tiles keep their city, but their owner changed
         city.hasJustBeenConquered = false
         city.turnAcquired = city.civ.gameInfo.turns
         city.previousOwner = oldCiv.civID
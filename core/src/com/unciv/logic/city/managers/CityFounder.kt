@@ -38,6 +38,7 @@ class CityFounder {
         civInfo.citiesCreated++
 
         civInfo.cities = civInfo.cities.withItem(city)
+        civInfo.gameInfo.onCivStateChanged()
 
         val startingEra = civInfo.gameInfo.gameParameters.startingEra
 
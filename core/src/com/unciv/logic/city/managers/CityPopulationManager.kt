@@ -137,6 +137,7 @@ class CityPopulationManager : IsPartOfGameInfoSerialization {
     fun addPopulation(count: Int) {
         val changedAmount = count.coerceAtLeast(1 - population)
         population += changedAmount
+        city.civ.onPopulationChanged()
         val freePopulation = getFreePopulation()
         if (freePopulation < 0) {
             unassignExtraPopulation()
@@ -176,34 +177,24 @@ class CityPopulationManager : IsPartOfGameInfoSerialization {
                 .filterNot { it.providesYield() }
                 .associateWith { it.stats.getTileStats(city, city.civ, localUniqueCache)}
 
-        val maxSpecialists = getMaxSpecialists().asSequence()
+        val specialistSlots = if (city.manualSpecialists) emptyMap() else getMaxSpecialists()
+        val assigner = PopulationAssigner(city, tileStats, specialistSlots, localUniqueCache)
 
         repeat(freePopulation) {
             //evaluate tiles
-            val bestTileAndRank = tilesToEvaluate
-                .filterNot { it.providesYield() } // Changes with every tile assigned
-                .associateWith { Automation.rankStatsForCityWork(tileStats[it]!!, city, false, localUniqueCache) }
-                // We need to make sure that we work the same tiles as last turn on a tile
-                // so that our workers know to prioritize this tile and don't move to the other tile
-                // This was just the easiest way I could think of.
-                .maxWithOrNull( compareBy({ it.value }, { it.key.longitude }, { it.key.latitude }))
-            val bestTile = bestTileAndRank?.key
-            val valueBestTile = bestTileAndRank?.value ?: 0f
-
-            val bestJobAndRank = if (city.manualSpecialists) null
-                else maxSpecialists
-                    .filter { specialistAllocations[it.key] < it.value }
-                    .map { it.key }
-                    .associateWith { Automation.rankSpecialist(it, city, localUniqueCache) }
-                    .maxByOrNull { it.value }
-            val bestJob = bestJobAndRank?.key
-            val valueBestSpecialist = bestJobAndRank?.value ?: 0f
+            val bestTile = assigner.getBestTile()
+            val valueBestTile = bestTile?.rank ?: 0f
+
+            val bestJobAndRank = assigner.getBestSpecialist(specialistAllocations)
+            val bestJob = bestJobAndRank?.first
+            val valueBestSpecialist = bestJobAndRank?.second ?: 0f
 
             //assign population
             if (valueBestTile > valueBestSpecialist) {
                 if (bestTile != null) {
-                    city.workedTiles = city.workedTiles.withItem(bestTile.position)
-                    cityStats.food += tileStats[bestTile]!!.food
+                    city.workedTiles = city.workedTiles.withItem(bestTile.tile.position)
+                    cityStats.food += tileStats[bestTile.tile]!!.food
+                    assigner.onBestTileAssigned()
                 }
             } else if (bestJob != null) {
                 specialistAllocations.add(bestJob, 1)
@@ -0,0 +1,73 @@
+package com.unciv.logic.city.managers
+
+import com.unciv.logic.automation.Automation
+import com.unciv.logic.city.City
+import com.unciv.logic.map.tile.Tile
+import com.unciv.models.ruleset.unique.LocalUniqueCache
+import com.unciv.models.stats.Stats
+import java.util.PriorityQueue
+
+/**
+ * Finds the best tile and specialist for each free population point assigned by [CityPopulationManager.autoAssignPopulation].
+ *
+ * Of everything assigning population changes, the rankings only depend on the city's surplus food - and only on a few
+ * thresholds of it, see [Automation.isSameFoodRanking]. So the ranked tiles are kept in a priority queue and the ranked
+ * specialists in a map, and all are only re-ranked when an assignment crosses one of those thresholds.
+ *
+ * @param tileStats The tiles to choose from, with their stats
+ * @param specialistSlots The specialists to choose from in order of preference on equal rank, with the number of slots for each
+ */
+internal class PopulationAssigner(
+    private val city: City,
+    private val tileStats: Map<Tile, Stats>,
+    private val specialistSlots: Map<String, Int>,
+    private val localUniqueCache: LocalUniqueCache
+) {
+    class RankedTile(val tile: Tile, val rank: Float)
+
+    // Equal ranks prefer the same tiles every time, so workers know which tiles will be worked
+    private val tiles = PriorityQueue(tileStats.size.coerceAtLeast(1),
+        compareByDescending<RankedTile> { it.rank }.thenByDescending { it.tile.longitude }.thenByDescending { it.tile.latitude })
+    private val specialistRanks = LinkedHashMap<String, Float>()
+    private var rankedForSurplusFood = 0f
+    private var isRanked = false
+
+    private fun rankIfNeeded() {
+        val surplusFood = city.cityStats.currentCityStats.food
+        if (isRanked && Automation.isSameFoodRanking(city, rankedForSurplusFood, surplusFood)) return
+
+        val remainingTiles = if (isRanked) tiles.map { it.tile } else tileStats.keys
+        tiles.clear()
+        for (tile in remainingTiles)
+            tiles.add(RankedTile(tile, Automation.rankStatsForCityWork(tileStats[tile]!!, city, false, localUniqueCache)))
+
+        specialistRanks.clear()
+        for (specialist in specialistSlots.keys)
+            specialistRanks[specialist] = Automation.rankSpecialist(specialist, city, localUniqueCache)
+
+        rankedForSurplusFood = surplusFood
+        isRanked = true
+    }
+
+    /** @return The best tile not yet worked, or `null` if none are left */
+    fun getBestTile(): RankedTile? {
+        rankIfNeeded()
+        return tiles.peek()
+    }
+
+    /** @return The best specialist with a free slot and its rank, or `null` if all slots are taken */
+    fun getBestSpecialist(allocations: Map<String, Int>): Pair<String, Float>? {
+        rankIfNeeded()
+        var best: Pair<String, Float>? = null
+        for ((specialist, rank) in specialistRanks) {
+            if ((allocations[specialist] ?: 0) >= specialistSlots[specialist]!!) continue
+            if (best == null || rank > best.second) best = specialist to rank
+        }
+        return best
+    }
+
+    /** To be called once the tile from [getBestTile] is worked */
+    fun onBestTileAssigned() {
+        tiles.poll()
+    }
+}
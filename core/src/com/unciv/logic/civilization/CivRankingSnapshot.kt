@@ -0,0 +1,62 @@
+package com.unciv.logic.civilization
+
+import yairm210.purity.annotations.Cache
+import yairm210.purity.annotations.Readonly
+
+/**
+ * The ranking stats of a civ that walk all its units or tiles, kept until [reset] at the end of its turn.
+ * AI diplomacy, victory checks and the overview and victory screens ask for them for every civ, many times per turn.
+ *
+ * - Military might is kept for the whole turn, units bought or lost mid-turn only count from the next one
+ * - The score is recomputed when anything it reads changed mid-turn. Cities, wonders and techs are covered by
+ *   [GameInfo.civStateVersion][com.unciv.logic.GameInfo.civStateVersion], owned land tiles by
+ *   [TileMap.tileStateVersion][com.unciv.logic.map.TileMap.tileStateVersion], and population drops the score through
+ *   [onPopulationChanged] - so checking it costs two comparisons, not a walk over the cities.
+ */
+class CivRankingSnapshot(private val civInfo: Civilization) {
+
+    private data class ScoreKey(
+        val civStateVersion: Int,
+        val tileStateVersion: Int
+    )
+
+    @Cache private var militaryMight = -1
+    @Cache private var scoreBreakdown: Map<String, Double> = emptyMap()
+    @Cache private var totalScore = 0.0
+    @Cache private var scoreKey: ScoreKey? = null
+
+    @Readonly
+    private fun getScoreKey() = ScoreKey(civInfo.gameInfo.civStateVersion, civInfo.gameInfo.tileMap.tileStateVersion)
+
+    @Readonly
+    fun getMilitaryMight(@Readonly calculate: () -> Int): Int {
+        if (militaryMight < 0) militaryMight = calculate()
+        return militaryMight
+    }
+
+    @Readonly
+    fun getScoreBreakdown(@Readonly calculate: () -> Map<String, Double>): Map<String, Double> {
+        val currentKey = getScoreKey()
+        if (currentKey != scoreKey) {
+            scoreBreakdown = calculate()
+            totalScore = scoreBreakdown.values.sum()
+            scoreKey = currentKey
+        }
+        return scoreBreakdown
+    }
+
+    @Readonly
+    fun getTotalScore(@Readonly calculate: () -> Map<String, Double>): Double {
+        getScoreBreakdown(calculate)
+        return totalScore
+    }
+
+    fun onPopulationChanged() {
+        scoreKey = null
+    }
+
+    fun reset() {
+        militaryMight = -1
+        scoreKey = null
+    }
+}
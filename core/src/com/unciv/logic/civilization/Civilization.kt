@@ -4,6 +4,9 @@ import com.unciv.Constants
 import com.unciv.UncivGame
 import com.unciv.json.LastSeenImprovement
 import com.unciv.logic.*
+import com.unciv.logic.automation.city.ConstructionAutomationCache
+import com.unciv.logic.automation.unit.EnemyReachFilter
+import com.unciv.logic.automation.unit.SettleValueHeatmap
 import com.unciv.logic.automation.unit.WorkerAutomation
 import com.unciv.logic.city.City
 import com.unciv.logic.city.managers.CityFounder
@@ -67,6 +70,28 @@ class Civilization : IsPartOfGameInfoSerialization {
         return workerAutomationCache!!
     }
 
+    @Transient @Cache
+    private var constructionAutomationCache: ConstructionAutomationCache? = null
+    /** Returns an instance of ConstructionAutomationCache valid for the current turn and researched techs
+     * This instance carries construction choice data common for all cities of this civ */
+    @Readonly
+    fun getConstructionAutomationCache(): ConstructionAutomationCache {
+        if (constructionAutomationCache?.isValid() != true)
+            constructionAutomationCache = ConstructionAutomationCache(this)
+        return constructionAutomationCache!!
+    }
+
+    @Transient @Cache
+    private var enemyReachFilterCache: EnemyReachFilter? = null
+    /** Returns an instance of EnemyReachFilter valid for the duration of the current turn
+     * This instance carries the enemy positions common for all military units of this civ */
+    @Readonly
+    fun getEnemyReachFilter(): EnemyReachFilter {
+        if (enemyReachFilterCache?.isValid() != true)
+            enemyReachFilterCache = EnemyReachFilter(this)
+        return enemyReachFilterCache!!
+    }
+
     @Transient
     lateinit var gameInfo: GameInfo
 
@@ -79,6 +104,9 @@ class Civilization : IsPartOfGameInfoSerialization {
     @Transient
     val units = UnitManager(this)
 
+    @Transient
+    val spatialIndex = CivSpatialIndex(this)
+
     @Transient
     var threatManager = ThreatManager(this)
 
@@ -430,6 +458,10 @@ class Civilization : IsPartOfGameInfoSerialization {
     @Transient
     val cache = CivInfoTransientCache(this)
 
+    /** City location values for the AI, kept across settlers and turns */
+    @Transient
+    val settleValueHeatmap = SettleValueHeatmap(this)
+
     fun updateStatsForNextTurn() {
         val previousHappiness = stats.happiness
         stats.happiness = stats.getHappinessBreakdown().values.sum().roundToInt()
@@ -782,17 +814,17 @@ class Civilization : IsPartOfGameInfoSerialization {
         }
     }
 
-    @Transient @Cache
-    private var cachedMilitaryMight = -1
-    
+    @Transient
+    private val rankingSnapshot = CivRankingSnapshot(this)
+
     @Readonly
-    private fun getMilitaryMight(): Int {
-        if (cachedMilitaryMight < 0)
-            cachedMilitaryMight = calculateMilitaryMight()
-        return  cachedMilitaryMight
-    }
-    
-    fun resetMilitaryMightCache() { cachedMilitaryMight = -1 }
+    private fun getMilitaryMight(): Int = rankingSnapshot.getMilitaryMight(::calculateMilitaryMight)
+
+    /** Drops the kept ranking stats, see [CivRankingSnapshot] */
+    fun resetRankingSnapshot() = rankingSnapshot.reset()
+
+    /** Called by [CityPopulationManager][com.unciv.logic.city.managers.CityPopulationManager] when a city of ours grows or shrinks */
+    fun onPopulationChanged() = rankingSnapshot.onPopulationChanged()
 
     @Readonly
     private fun calculateMilitaryMight(): Int {
@@ -820,7 +852,10 @@ class Civilization : IsPartOfGameInfoSerialization {
     @Readonly fun isLongCountDisplay() = hasLongCountDisplayUnique && isLongCountActive()
 
     @Readonly
-    fun calculateScoreBreakdown(): HashMap<String,Double> {
+    fun calculateScoreBreakdown(): HashMap<String,Double> = HashMap(rankingSnapshot.getScoreBreakdown(::computeScoreBreakdown))
+
+    @Readonly
+    private fun computeScoreBreakdown(): HashMap<String,Double> {
         val scoreBreakdown = hashMapOf<String,Double>()
         // 1276 is the number of tiles in a medium sized map. The original uses 4160 for this,
         // but they have bigger maps
@@ -842,7 +877,7 @@ class Civilization : IsPartOfGameInfoSerialization {
         return scoreBreakdown
     }
 
-    @Readonly fun calculateTotalScore() = calculateScoreBreakdown().values.sum()
+    @Readonly fun calculateTotalScore() = rankingSnapshot.getTotalScore(::computeScoreBreakdown)
 
     //endregion
 
@@ -864,6 +899,7 @@ class Civilization : IsPartOfGameInfoSerialization {
     }
 
     fun setTransients() {
+        spatialIndex.clear()
         goldenAges.civInfo = this
         greatPeople.civInfo = this
         civConstructions.setTransients(civInfo = this)
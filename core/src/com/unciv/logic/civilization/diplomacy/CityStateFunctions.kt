@@ -293,6 +293,7 @@ class CityStateFunctions(val civInfo: Civilization) {
         
         if (oldAlly == newAlly) return
         civInfo.allyCiv = newAlly
+        civInfo.gameInfo.onCivStateChanged()
 
         if (newAlly != null) {
             val text = "We have allied with [${civInfo.civName}]."
@@ -177,6 +177,10 @@ class DiplomacyManager() : IsPartOfGameInfoSerialization {
 
     var trades = ArrayList<Trade>()
     var diplomaticStatus = DiplomaticStatus.War
+        set(value) {
+            if (value != field && ::civInfo.isInitialized) civInfo.gameInfo.onCivStateChanged()
+            field = value
+        }
 
     /** Contains various flags (declared war, promised to not settle, declined luxury trade) and the number of turns in which they will expire.
      *  The JSON serialize/deserialize REFUSES to deserialize hashmap keys as Enums, so I'm forced to use strings instead =(
@@ -193,6 +197,11 @@ class DiplomacyManager() : IsPartOfGameInfoSerialization {
      * Note that not using the setter skips recalculating the ally and bounds checks,
      * and skipping the getter bypasses the modified value when at war */
     internal var influence = 0f
+        set(value) {
+            // Friendship with a city-state starts at 30, see CityStateFunctions.getUniquesProvidedByCityStates
+            if ((value >= 30f) != (field >= 30f) && ::civInfo.isInitialized) civInfo.gameInfo.onCivStateChanged()
+            field = value
+        }
 
     /** Total of each turn Science during Research Agreement */
     internal var totalOfScienceDuringRA = 0
@@ -510,6 +519,7 @@ class DiplomacyManager() : IsPartOfGameInfoSerialization {
                 || trades.flatMap { it.theirOffers }.any { it.name == Constants.openBorders && it.duration > 0 }
 
         val bordersWereClosed = hasOpenBorders && !newHasOpenBorders
+        if (newHasOpenBorders != hasOpenBorders) civInfo.gameInfo.onCivStateChanged()
         hasOpenBorders = newHasOpenBorders
 
         if (bordersWereClosed) { // borders were closed, get out!
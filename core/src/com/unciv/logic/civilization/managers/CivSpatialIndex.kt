@@ -0,0 +1,173 @@
+package com.unciv.logic.civilization.managers
+
+import com.unciv.logic.city.City
+import com.unciv.logic.civilization.Civilization
+import com.unciv.logic.map.MapShape
+import com.unciv.logic.map.mapunit.MapUnit
+import com.unciv.logic.map.tile.Tile
+import yairm210.purity.annotations.Cache
+import yairm210.purity.annotations.Pure
+import yairm210.purity.annotations.Readonly
+
+/**
+ *  Where the units and cities of [civ] are, bucketed by square blocks of hex coordinates, for "what's near this tile" queries.
+ *
+ *  Finding units or cities around a tile by scanning [Tile.getTilesInDistance] costs the area of the circle, mostly
+ *  empty tiles. Here a query only looks at the blocks overlapping the circle, so its cost follows the number of
+ *  units or cities near it. World wrap is handled by also looking at the wrapped copies of the circle.
+ *
+ *  Built on first query. Units are then kept up to date by [MapUnit.putInTile], [MapUnit.removeFromTile] and the
+ *  [UnitManager] adding and removing units, cities are rebuilt whenever [Civilization.cities] is replaced.
+ */
+class CivSpatialIndex(private val civ: Civilization) {
+
+    private class Buckets<T> {
+        val contents = HashMap<Long, ArrayList<T>>()
+        val keys = HashMap<T, Long>()
+
+        fun add(item: T, tile: Tile) {
+            remove(item)
+            val key = getBucketKey(tile.position.x.floorDiv(bucketSize), tile.position.y.floorDiv(bucketSize))
+            keys[item] = key
+            contents.getOrPut(key) { ArrayList() }.add(item)
+        }
+
+        fun remove(item: T) {
+            val key = keys.remove(item) ?: return
+            val bucket = contents[key]!!
+            bucket.remove(item)
+            if (bucket.isEmpty()) contents.remove(key)
+        }
+    }
+
+    @Cache private var units: Buckets<MapUnit>? = null
+    @Cache private var cities: Buckets<City>? = null
+    /** The [Civilization.cities] list [cities] was built from - it is replaced, never changed, when cities change */
+    @Cache private var indexedCityList: List<City>? = null
+
+    //region Queries
+
+    /** Units of [civ] within [distance] of [center] */
+    @Readonly
+    @Synchronized
+    fun getUnitsInDistance(center: Tile, distance: Int): List<MapUnit> =
+        getInDistance(getUnits(), center, distance) { it.currentTile }
+
+    /** Up to [count] units of [civ] matching [predicate], closest to [center] first */
+    @Readonly
+    @Synchronized
+    fun getClosestUnits(center: Tile, count: Int, @Readonly predicate: (MapUnit) -> Boolean = { true }): List<MapUnit> =
+        getClosest(getUnits(), center, count, predicate) { it.currentTile }
+
+    /** Cities of [civ] whose center is within [distance] of [center] */
+    @Readonly
+    @Synchronized
+    fun getCitiesInDistance(center: Tile, distance: Int): List<City> =
+        getInDistance(getCities(), center, distance) { it.getCenterTile() }
+
+    /** Up to [count] cities of [civ] matching [predicate], closest to [center] first */
+    @Readonly
+    @Synchronized
+    fun getClosestCities(center: Tile, count: Int, @Readonly predicate: (City) -> Boolean = { true }): List<City> =
+        getClosest(getCities(), center, count, predicate) { it.getCenterTile() }
+
+    //endregion
+    //region Maintenance
+
+    /** [unit] now stands on [tile] */
+    @Synchronized
+    fun onUnitPlaced(unit: MapUnit, tile: Tile) {
+        val units = units ?: return
+        // Units of cloned maps, e.g. in simulations, are not ours to index
+        val tileMap = civ.gameInfo.tileMap
+        if (tile.tileMap !== tileMap || tileMap.tileList.getOrNull(tile.zeroBasedIndex) !== tile) return
+        units.add(unit, tile)
+    }
+
+    /** [unit] left the map or [civ] */
+    @Synchronized
+    fun onUnitRemoved(unit: MapUnit) {
+        units?.remove(unit)
+    }
+
+    /** Drops everything, to be rebuilt from the units and cities of [civ] on the next query */
+    @Synchronized
+    fun clear() {
+        units = null
+        cities = null
+        indexedCityList = null
+    }
+
+    //endregion
+
+    @Readonly @Suppress("purity") // Fills a new Buckets through its add, and MapUnit.hasTile is not marked
+    private fun getUnits(): Buckets<MapUnit> {
+        units?.let { return it }
+        val newUnits = Buckets<MapUnit>()
+        for (unit in civ.units.getCivUnits())
+            if (unit.hasTile()) newUnits.add(unit, unit.currentTile)
+        units = newUnits
+        return newUnits
+    }
+
+    @Readonly @Suppress("purity") // Fills a new Buckets through its add
+    private fun getCities(): Buckets<City> {
+        val cityList = civ.cities
+        if (cityList === indexedCityList) return cities!!
+        val newCities = Buckets<City>()
+        for (city in cityList) newCities.add(city, city.getCenterTile())
+        cities = newCities
+        indexedCityList = cityList
+        return newCities
+    }
+
+    @Readonly
+    private fun <T> getInDistance(buckets: Buckets<T>, center: Tile, distance: Int, @Readonly tileOf: (T) -> Tile): List<T> {
+        val result = ArrayList<T>()
+        if (buckets.keys.isEmpty()) return result
+        val tileMap = center.tileMap
+        val position = center.position
+        val visitedKeys = HashSet<Long>()
+
+        fun addBucketsAround(x: Int, y: Int) {
+            for (bucketX in (x - distance).floorDiv(bucketSize)..(x + distance).floorDiv(bucketSize))
+                for (bucketY in (y - distance).floorDiv(bucketSize)..(y + distance).floorDiv(bucketSize)) {
+                    val key = getBucketKey(bucketX, bucketY)
+                    if (!visitedKeys.add(key)) continue
+                    for (item in buckets.contents[key] ?: continue)
+                        if (tileOf(item).aerialDistanceTo(center) <= distance) result.add(item)
+                }
+        }
+
+        addBucketsAround(position.x, position.y)
+        if (tileMap.mapParameters.worldWrap) {
+            // Same offsets as TileMap.getIfTileExistsOrNull uses to wrap around
+            val radius = if (tileMap.mapParameters.shape == MapShape.rectangular)
+                tileMap.mapParameters.mapSize.width / 2
+            else tileMap.mapParameters.mapSize.radius
+            addBucketsAround(position.x + radius, position.y - radius)
+            addBucketsAround(position.x - radius, position.y + radius)
+        }
+        return result
+    }
+
+    @Readonly
+    private fun <T> getClosest(buckets: Buckets<T>, center: Tile, count: Int, @Readonly predicate: (T) -> Boolean, @Readonly tileOf: (T) -> Tile): List<T> {
+        // Widen the circle until it holds enough matches, or everything - the closest ones are then all inside it
+        var distance = bucketSize
+        while (true) {
+            val inDistance = getInDistance(buckets, center, distance, tileOf)
+            val matching = inDistance.filter(predicate)
+            if (matching.size >= count || inDistance.size == buckets.keys.size)
+                return matching.sortedBy { tileOf(it).aerialDistanceTo(center) }.take(count)
+            distance *= 2
+        }
+    }
+
+    companion object {
+        /** Edge length of the blocks of hex coordinates - a block is about as big as a circle of radius 4 */
+        private const val bucketSize = 8
+
+        @Pure private fun getBucketKey(bucketX: Int, bucketY: Int): Long = (bucketX.toLong() shl 32) or (bucketY.toLong() and 0xffffffffL)
+    }
+}
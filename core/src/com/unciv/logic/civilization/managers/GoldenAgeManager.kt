@@ -52,6 +52,7 @@ class GoldenAgeManager : IsPartOfGameInfoSerialization {
 
     fun enterGoldenAge(unmodifiedNumberOfTurns: Int = 10) {
         turnsLeftForCurrentGoldenAge += calculateGoldenAgeLength(unmodifiedNumberOfTurns)
+        civInfo.gameInfo.onCivStateChanged()
         civInfo.addNotification("You have entered a Golden Age!",
             CivilopediaAction("Tutorial/Golden Age"),
             NotificationCategory.General, "StatIcons/Happiness")
@@ -0,0 +1,115 @@
+package com.unciv.logic.civilization.managers
+
+import com.unciv.UncivGame
+import com.unciv.logic.GameInfo
+import com.unciv.logic.city.CityConstructions
+import com.unciv.logic.civilization.Civilization
+import com.unciv.logic.map.tile.Tile
+import com.unciv.models.ruleset.Building
+import com.unciv.models.ruleset.tile.TileResource
+import com.unciv.models.ruleset.unit.BaseUnit
+import com.unciv.platform.PlatformCapabilities
+import com.unciv.utils.Concurrency
+import yairm210.purity.annotations.Readonly
+
+/**
+ * The quest targets city-states look at when they start quests, gathered for all of them in one pass when the first one
+ * takes its turn, see [GameInfo.getMinorCivTurnAnalysis].
+ *
+ * City-states take their turns one after another once the major civs have moved, and gathering targets only reads the
+ * map and the major civs, so:
+ * - The map-wide parts are computed once, instead of once per city-state and major civ
+ * - The per-city-state parts are computed on worker threads when [parallelMinorCivAnalysis][com.unciv.models.metadata.GameSettings.parallelMinorCivAnalysis] is on
+ *
+ * Each city-state still picks from its own results in its turn, in civ order and with its usual seeded randomness,
+ * so the outcome does not depend on how the threads ran. What city-state moves can change since, like cleared camps,
+ * is checked again when the results are used. Once a major civ takes its turn after [firstCityState], the results
+ * are no longer valid, see [isValidFor].
+ */
+class MinorCivTurnAnalysis(
+    private val gameInfo: GameInfo,
+    firstCityState: Civilization,
+    parallel: Boolean = isParallelModeOn()
+) {
+    val cachedForTurn = gameInfo.turns
+    private val firstCivIndex = gameInfo.civilizations.indexOf(firstCityState)
+
+    /** Whether the results are still current for [cityState] taking its turn: same turn, and no major civ moved in between */
+    @Readonly
+    fun isValidFor(cityState: Civilization): Boolean {
+        if (gameInfo.turns != cachedForTurn || firstCivIndex < 0) return false
+        val index = gameInfo.civilizations.indexOf(cityState)
+        if (index < firstCivIndex) return false
+        return (firstCivIndex..index).none { gameInfo.civilizations[it].isMajorCiv() }
+    }
+
+    /** Candidate targets for the quests a city-state could give */
+    class QuestTargets(
+        /** Encampments near the capital */
+        val encampments: List<Tile>,
+        /** For every major civ the city-state could give quests to */
+        val forChallenger: Map<Civilization, ChallengerQuestTargets>
+    )
+
+    /** Candidate targets for the quests a city-state could give one major civ */
+    class ChallengerQuestTargets(
+        val resources: List<TileResource>,
+        val wonders: List<Building>,
+        val greatPeople: List<BaseUnit>,
+        val civsToFind: List<Civilization>,
+        val naturalWonders: List<String>,
+        val cityStateTargets: List<Civilization>
+    )
+
+    /** Every resource on the map, in map order */
+    val resourcesOnMap: List<TileResource> = findResourcesOnMap(gameInfo)
+
+    /** Wonders a quest may ask for, if researched: not built nor more than a quarter done anywhere */
+    val unclaimedWonders: List<Building> = findUnclaimedWonders(gameInfo)
+
+    private val questTargets = HashMap<Civilization, QuestTargets>()
+
+    init {
+        val cityStates = gameInfo.civilizations.filter { it.isCityState && it.questManager.mayStartQuestsThisTurn() }
+        val results = arrayOfNulls<QuestTargets>(cityStates.size)
+        val tasks = cityStates.indices.map { index ->
+            { results[index] = cityStates[index].questManager.gatherQuestTargets(resourcesOnMap, unclaimedWonders) }
+        }
+
+        Concurrency.parallelize(tasks, parallelize = parallel && tasks.size >= minTasksToParallelize)
+        // Applied in civ order, whichever task finished first.
+        // A task that failed on its thread was reported by the crash handler - gather its targets again here.
+        for ((index, cityState) in cityStates.withIndex())
+            questTargets[cityState] = results[index] ?: cityState.questManager.gatherQuestTargets(resourcesOnMap, unclaimedWonders)
+    }
+
+    /** @return The quest targets gathered for [cityState], or null if it did not expect to give quests this turn */
+    @Readonly
+    fun getQuestTargets(cityState: Civilization): QuestTargets? = questTargets[cityState]
+
+    companion object {
+        /** Below this, handing the work to other threads costs more than it saves */
+        private const val minTasksToParallelize = 4
+
+        private fun isParallelModeOn() =
+            PlatformCapabilities.current.backgroundThreadPools
+                && UncivGame.isCurrentInitialized() && UncivGame.Current.settings.parallelMinorCivAnalysis
+
+        @Readonly
+        fun findResourcesOnMap(gameInfo: GameInfo): List<TileResource> =
+            gameInfo.tileMap.values.asSequence().mapNotNull { it.tileResource }.distinct().toList()
+
+        @Readonly
+        fun findUnclaimedWonders(gameInfo: GameInfo): List<Building> {
+            @Readonly fun isMoreThanAQuarterDone(constructions: CityConstructions, buildingName: String) =
+                constructions.getWorkDone(buildingName) * 3 > constructions.getRemainingWork(buildingName)
+            val cities = gameInfo.getCities().toList()
+            return gameInfo.ruleset.buildings.values.filter { building ->
+                building.isWonder
+                    && !building.isUnavailableBySettings(gameInfo)
+                    && building.uniqueTo == null
+                    && cities.none { it.cityConstructions.isBuilt(building) || isMoreThanAQuarterDone(it.cityConstructions, building.name) }
+            }
+        }
+    }
+}
@@ -263,6 +263,7 @@ class PolicyManager : IsPartOfGameInfoSerialization {
 
         adoptedPolicies.add(policy.name)
         addPolicyToTransients(policy)
+        civInfo.gameInfo.onCivStateChanged()
 
         if (!branchCompletion) {
             val branch = policy.branch
@@ -311,6 +312,7 @@ class PolicyManager : IsPartOfGameInfoSerialization {
         }
 
         removePolicyFromTransients(policy)
+        civInfo.gameInfo.onCivStateChanged()
 
         // if a branch is already marked as complete, revert it to incomplete
         if (!branchCompletion) {
@@ -7,7 +7,6 @@ import com.unciv.Constants
 import com.unciv.GUI
 import com.unciv.logic.GameInfo
 import com.unciv.logic.IsPartOfGameInfoSerialization
-import com.unciv.logic.city.City
 import com.unciv.logic.civilization.CivFlags
 import com.unciv.logic.civilization.Civilization
 import com.unciv.logic.civilization.DiplomacyAction
@@ -64,6 +63,10 @@ class QuestManager : IsPartOfGameInfoSerialization {
     @Transient
     private lateinit var civ: Civilization
 
+    /** Quest targets of all city-states, available while [civ] takes its turn in [endTurn] - other quest starts gather their own */
+    @Transient
+    private var turnAnalysis: MinorCivTurnAnalysis? = null
+
     /** Readability helper to access the Ruleset through [civ] */
     private val ruleset get() = civ.gameInfo.ruleset
 
@@ -142,19 +145,24 @@ class QuestManager : IsPartOfGameInfoSerialization {
 
         if (civ.cities.isEmpty()) return // don't assign quests until we have a city
 
-        seedGlobalQuestCountdown()
-        seedIndividualQuestsCountdowns()
+        turnAnalysis = if (mayStartQuestsThisTurn()) civ.gameInfo.getMinorCivTurnAnalysis(civ) else null
+        try {
+            seedGlobalQuestCountdown()
+            seedIndividualQuestsCountdowns()
 
-        decrementQuestCountdowns()
+            decrementQuestCountdowns()
 
-        handleGlobalQuests()
-        handleIndividualQuests()
+            handleGlobalQuests()
+            handleIndividualQuests()
 
-        tryStartNewGlobalQuest()
-        tryStartNewIndividualQuests()
+            tryStartNewGlobalQuest()
+            tryStartNewIndividualQuests()
 
-        tryBarbarianInvasion()
-        tryEndWarWithMajorQuests()
+            tryBarbarianInvasion()
+            tryEndWarWithMajorQuests()
+        } finally {
+            turnAnalysis = null
+        }
     }
 
     private fun decrementQuestCountdowns() {
@@ -768,18 +776,60 @@ class QuestManager : IsPartOfGameInfoSerialization {
     }
 
     //region get-quest-target
+    /** Whether [civ] may start a quest at the end of this turn, and will be looking for quest targets */
+    @Readonly
+    internal fun mayStartQuestsThisTurn(): Boolean {
+        if (civ.isDefeated() || civ.getCapital() == null) return false
+        if (civ.gameInfo.turns < minOf(GLOBAL_QUEST_FIRST_POSSIBLE_TURN, INDIVIDUAL_QUEST_FIRST_POSSIBLE_TURN)) return false
+        // Countdowns are decremented before quests are started, and unset ones may be seeded to 0
+        return globalQuestCountdown <= 1
+            || individualQuestCountdown.values.any { it <= 1 }
+            || civ.gameInfo.getAliveMajorCivs().any { it.civID !in individualQuestCountdown }
+    }
+
+    /** Gathers the candidate targets for the quests [civ] could give. Only reads, so this can run for all city-states at once. */
+    @Readonly
+    internal fun gatherQuestTargets(resourcesOnMap: List<TileResource>, unclaimedWonders: List<Building>) = MinorCivTurnAnalysis.QuestTargets(
+        getEncampmentCandidates(),
+        civ.getKnownCivs().filter { canAssignAQuestTo(it) }.associateWith { gatherChallengerTargets(it, resourcesOnMap, unclaimedWonders) }
+    )
+
+    @Readonly
+    private fun gatherChallengerTargets(challenger: Civilization, resourcesOnMap: List<TileResource>, unclaimedWonders: List<Building>) =
+        MinorCivTurnAnalysis.ChallengerQuestTargets(
+            getResourceCandidates(challenger, resourcesOnMap),
+            unclaimedWonders.filter { challenger.tech.isResearched(it) },
+            getGreatPersonCandidates(challenger),
+            getCivilizationToFindCandidates(challenger),
+            getNaturalWonderCandidates(challenger),
+            getCityStateTargetCandidates(challenger)
+        )
+
+    /** The quest targets for [challenger] gathered when the city-states started their turns, or gathered now outside our turn */
+    @Readonly
+    private fun getTargetsFor(challenger: Civilization): MinorCivTurnAnalysis.ChallengerQuestTargets {
+        turnAnalysis?.getQuestTargets(civ)?.forChallenger?.get(challenger)?.let { return it }
+        val gameInfo = civ.gameInfo
+        return gatherChallengerTargets(challenger,
+            MinorCivTurnAnalysis.findResourcesOnMap(gameInfo), MinorCivTurnAnalysis.findUnclaimedWonders(gameInfo))
+    }
+
     /**
      * Returns a random [Tile] containing a Barbarian encampment within 8 tiles of [civ]
      * to be destroyed
      */
     @Readonly
     private fun getBarbarianEncampmentForQuest(): Tile? {
-        val encampments = civ.getCapital()!!.getCenterTile().getTilesInDistance(8)
-                .filter { it.improvement == Constants.barbarianEncampment }.toList()
+        val encampments = (turnAnalysis?.getQuestTargets(civ)?.encampments ?: getEncampmentCandidates())
+            .filter { it.improvement == Constants.barbarianEncampment } // Not cleared since
 
         return encampments.randomOrNull(getRandom())
     }
 
+    @Readonly
+    private fun getEncampmentCandidates() = civ.getCapital()!!.getCenterTile().getTilesInDistance(8)
+        .filter { it.improvement == Constants.barbarianEncampment }.toList()
+
     /**
      * Returns a random resource to be connected to the [challenger]'s trade route as a quest.
      * The resource must be a [ResourceType.Luxury] or [ResourceType.Strategic], must not be owned
@@ -787,42 +837,28 @@ class QuestManager : IsPartOfGameInfoSerialization {
      * if none exists, it returns null.
      */
     @Readonly
-    private fun getResourceForQuest(challenger: Civilization): TileResource? {
+    private fun getResourceForQuest(challenger: Civilization): TileResource? =
+        getTargetsFor(challenger).resources.randomOrNull(getRandom())
+
+    @Readonly
+    private fun getResourceCandidates(challenger: Civilization, resourcesOnMap: List<TileResource>): List<TileResource> {
         val ownedByCityStateResources = civ.detailedCivResources.map { it.resource }
         val ownedByMajorResources = challenger.detailedCivResources.map { it.resource }
 
-        val resourcesOnMap = civ.gameInfo.tileMap.values.asSequence().mapNotNull { it.tileResource }.distinct()
         val viewableResourcesForChallenger = resourcesOnMap.filter { challenger.canSeeResource(it) }
 
-        val notOwnedResources = viewableResourcesForChallenger.filter {
+        return viewableResourcesForChallenger.filter {
             it.resourceType != ResourceType.Bonus &&
                     !ownedByCityStateResources.contains(it) &&
                     !ownedByMajorResources.contains(it)
-        }.toList()
-
-        return notOwnedResources.randomOrNull(getRandom())
-    }
-
-    @Readonly
-    private fun getWonderToBuildForQuest(challenger: Civilization): Building? {
-        @Readonly fun isMoreThanAQuarterDone(city: City, buildingName: String) =
-            city.cityConstructions.getWorkDone(buildingName) * 3 > city.cityConstructions.getRemainingWork(buildingName)
-        val wonders = ruleset.buildings.values
-                .filter { building ->
-                    // Buildable wonder
-                    building.isWonder
-                    && challenger.tech.isResearched(building)
-                    // Can't be disabled
-                    && !building.isUnavailableBySettings(civ.gameInfo)
-                    // Can't be a unique wonder
-                    && building.uniqueTo == null
-                    // Big loop last: Exists or more than 25% built anywhere
-                    && civ.gameInfo.getCities().none { it.cityConstructions.isBuilt(building.name) || isMoreThanAQuarterDone(it, building.name) }
-                }
-
-        return wonders.randomOrNull(getRandom())
+        }
     }
 
+    /** Returns a random researched wonder that isn't built or more than a quarter done anywhere, see [MinorCivTurnAnalysis.unclaimedWonders] */
+    @Readonly
+    private fun getWonderToBuildForQuest(challenger: Civilization): Building? =
+        getTargetsFor(challenger).wonders.randomOrNull(getRandom())
+
     /**
      * Returns a random Natural Wonder not yet discovered by [challenger], or the [civ] dispatching the quest.
      *
@@ -830,16 +866,24 @@ class QuestManager : IsPartOfGameInfoSerialization {
      */
     @Readonly
     private fun getNaturalWonderToFindForQuest(challenger: Civilization): String? =
+        getTargetsFor(challenger).naturalWonders.randomOrNull(getRandom())
+
+    @Readonly
+    private fun getNaturalWonderCandidates(challenger: Civilization): List<String> =
         civ.gameInfo.tileMap.naturalWonders
             .subtract(challenger.naturalWonders)
             .subtract(civ.naturalWonders)
-            .randomOrNull(getRandom())
+            .toList()
 
     /**
      * Returns a Great Person [BaseUnit] that is not owned by both the [challenger] and the [civ]
      */
     @Readonly
-    private fun getGreatPersonForQuest(challenger: Civilization): BaseUnit? {
+    private fun getGreatPersonForQuest(challenger: Civilization): BaseUnit? =
+        getTargetsFor(challenger).greatPeople.randomOrNull(getRandom())
+
+    @Readonly
+    private fun getGreatPersonCandidates(challenger: Civilization): List<BaseUnit> {
         val ruleset = ruleset // omit if the accessor should be converted to a transient field
 
         val existingGreatPeople =
@@ -847,15 +891,13 @@ class QuestManager : IsPartOfGameInfoSerialization {
             (challenger.units.getCivGreatPeople() + civ.units.getCivGreatPeople())
             .map { it.baseUnit.getReplacedUnit(ruleset) }.toSet()
 
-        val greatPeople = challenger.greatPeople.getGreatPeople()
+        return challenger.greatPeople.getGreatPeople()
                 .map { it.getReplacedUnit(ruleset) }
                 .distinct()
                 // The hidden test is already done by getGreatPeople for the civ-specific units,
                 // repeat for the replaced one we'll be asking for
                 .filterNot { it in existingGreatPeople || it.isUnavailableBySettings(civ.gameInfo) }
                 .toList()
-
-        return greatPeople.randomOrNull(getRandom())
     }
 
     /**
@@ -863,29 +905,32 @@ class QuestManager : IsPartOfGameInfoSerialization {
      * cannot see; if none exists, it returns null.
      */
     @Readonly
-    private fun getCivilizationToFindForQuest(challenger: Civilization): Civilization? {
-        val civilizationsToFind = challenger.getKnownCivs()
+    private fun getCivilizationToFindForQuest(challenger: Civilization): Civilization? =
+        getTargetsFor(challenger).civsToFind.randomOrNull(getRandom())
+
+    @Readonly
+    private fun getCivilizationToFindCandidates(challenger: Civilization): List<Civilization> =
+        challenger.getKnownCivs()
             .filter { it.isAlive() && it.isMajorCiv() && !challenger.hasMetCivTerritory(it) }
             .toList()
 
-        return civilizationsToFind.randomOrNull(getRandom())
-    }
-
     /**
      * Returns a city-state [Civilization] that [civ] wants to target for hostile quests
      */
     @Readonly
-    private fun getCityStateTarget(challenger: Civilization): Civilization? {
+    private fun getCityStateTarget(challenger: Civilization): Civilization? =
+        getTargetsFor(challenger).cityStateTargets.randomOrNull(getRandom())
+
+    @Readonly
+    private fun getCityStateTargetCandidates(challenger: Civilization): List<Civilization> {
         val closestProximity = civ.gameInfo.getAliveCityStates()
             .mapNotNull { civ.proximity[it.civID] }.filter { it != Proximity.None }.minByOrNull { it.ordinal }
 
         if (closestProximity == null || closestProximity == Proximity.Distant) // None close enough
-            return null
-
-        val validTargets = civ.getKnownCivs().filter { it.isCityState && challenger.knows(it)
-                && civ.proximity[it.civID] == closestProximity }
+            return emptyList()
 
-        return validTargets.toList().randomOrNull(getRandom())
+        return civ.getKnownCivs().filter { it.isCityState && challenger.knows(it)
+                && civ.proximity[it.civID] == closestProximity }.toList()
     }
 
     /** Returns a [Civilization] of the civ that most recently bullied [civ].
@@ -304,6 +304,7 @@ class TechManager : IsPartOfGameInfoSerialization {
         techsInProgress.remove(techName)
         researchedTechnologies = researchedTechnologies.withItem(newTech)
         addTechToTransients(newTech)
+        civInfo.gameInfo.onCivStateChanged()
 
         moveToNewEra(showNotification)
 
@@ -62,18 +62,13 @@ class ThreatManager(val civInfo: Civilization) {
 
 
         if (tileData != null && tileData.tilesWithEnemies.isNotEmpty()) throw IllegalStateException("There must be no elements in tile.data.tilesWithEnemies at this point")
-        val tilesWithEnemyAtDistance: MutableList<Pair<Tile,Int>> = mutableListOf()
-        // Search for nearby enemies and store the results
-        for (i in minDistanceToSearch..maxDist) {
-            for (searchTile in tile.getTilesAtDistance(i)) {
-                if (doesTileHaveMilitaryEnemy(searchTile)) {
-                    tilesWithEnemyAtDistance.add(Pair(searchTile, i))
-                }
-            }
-            if (tilesWithEnemyAtDistance.isNotEmpty()) {
-                distanceToClosestEnemyTiles[tile] = ClosestEnemyTileData(i, tilesWithEnemyAtDistance)
-                return i
-            }
+        // Search for nearby enemies and store the results - only the closest ones, as if we stopped searching there
+        val tilesWithEnemies = findTilesWithEnemies(tile, minDistanceToSearch, maxDist)
+        if (tilesWithEnemies.isNotEmpty()) {
+            val closestDistance = tilesWithEnemies.first().second
+            val tilesWithEnemyAtDistance = tilesWithEnemies.filter { it.second == closestDistance }.toMutableList()
+            distanceToClosestEnemyTiles[tile] = ClosestEnemyTileData(closestDistance, tilesWithEnemyAtDistance)
+            return closestDistance
         }
         distanceToClosestEnemyTiles[tile] = ClosestEnemyTileData(maxDist, mutableListOf())
         return notFoundDistance
@@ -115,13 +110,9 @@ class ThreatManager(val civInfo: Civilization) {
         // Search all tiles that haven't been searched yet up until madDist
         val minDistanceToSearch = (tileData?.distanceSearched?.coerceAtLeast(0) ?: 0) + 1
 
-        for (i in minDistanceToSearch..maxDist) {
-            for (searchTile in tile.getTilesAtDistance(i)) {
-                if (doesTileHaveMilitaryEnemy(searchTile)) {
-                    tilesWithEnemies.add(searchTile)
-                    tileDataTilesWithEnemies.add(Pair(searchTile, i))
-                }
-            }
+        for (tileWithDistance in findTilesWithEnemies(tile, minDistanceToSearch, maxDist)) {
+            tilesWithEnemies.add(tileWithDistance.first)
+            tileDataTilesWithEnemies.add(tileWithDistance)
         }
         if (tileData != null) {
             tileData.distanceSearched = maxOf(tileData.distanceSearched, maxDist)
@@ -132,6 +123,26 @@ class ThreatManager(val civInfo: Civilization) {
         return tilesWithEnemies
     }
 
+    /**
+     * Returns the tiles at a distance of [minDist] to [maxDist] from [tile] that have a military enemy, with their distance, closest first.
+     * Only looks at where the units and cities of civs at war with us are, see [CivSpatialIndex].
+     */
+    @Readonly
+    private fun findTilesWithEnemies(tile: Tile, minDist: Int, maxDist: Int): MutableList<Pair<Tile,Int>> {
+        val candidateTiles = HashSet<Tile>()
+        for (enemyCiv in civInfo.gameInfo.civilizations) {
+            if (enemyCiv == civInfo || !enemyCiv.isAtWarWith(civInfo)) continue
+            for (unit in enemyCiv.spatialIndex.getUnitsInDistance(tile, maxDist)) candidateTiles.add(unit.currentTile)
+            for (city in enemyCiv.spatialIndex.getCitiesInDistance(tile, maxDist)) candidateTiles.add(city.getCenterTile())
+        }
+        return candidateTiles.asSequence()
+            .map { Pair(it, it.aerialDistanceTo(tile)) }
+            .filter { it.second >= minDist && doesTileHaveMilitaryEnemy(it.first) }
+            // Tiles hash by identity, so break ties by map index to keep the order the same from run to run
+            .sortedWith(compareBy({ it.second }, { it.first.zeroBasedIndex }))
+            .toMutableList()
+    }
+
     /**
      * Returns all enemy military units on tiles
      */
@@ -337,7 +337,7 @@ class TurnManager(val civInfo: Civilization) {
             stage = "cache-reset-winning-civ"
             civInfo.cache.updateHasActiveEnemyMovementPenalty()
 
-            civInfo.resetMilitaryMightCache()
+            civInfo.resetRankingSnapshot()
 
             updateWinningCiv() // Maybe we did something this turn to win
         } catch (ex: Throwable) {
@@ -163,10 +163,12 @@ class UnitManager(val civInfo: Civilization) {
         newList.add(mapUnit)
         unitList = newList
         nextPotentiallyDueAt = 0
+        if (mapUnit.hasTile()) civInfo.spatialIndex.onUnitPlaced(mapUnit, mapUnit.currentTile)
 
         if (updateCivInfo) {
             // Not relevant when updating Tile transients, since some info of the civ itself isn't yet available,
             // and in any case it'll be updated once civ info transients are
+            civInfo.gameInfo.onCivStateChanged() // unit counts
             civInfo.updateStatsForNextTurn() // unit upkeep
             if (mapUnit.getResourceRequirementsPerTurn().isNotEmpty())
                 civInfo.cache.updateCivResources()
@@ -179,7 +181,9 @@ class UnitManager(val civInfo: Civilization) {
         newList.remove(mapUnit)
         unitList = newList
         nextPotentiallyDueAt = 0
+        civInfo.spatialIndex.onUnitRemoved(mapUnit)
 
+        civInfo.gameInfo.onCivStateChanged() // unit counts
         civInfo.updateStatsForNextTurn() // unit upkeep
         if (mapUnit.getResourceRequirementsPerTurn().isNotEmpty())
             civInfo.cache.updateCivResources()
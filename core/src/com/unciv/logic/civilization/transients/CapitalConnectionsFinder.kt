@@ -2,10 +2,7 @@ package com.unciv.logic.civilization.transients
 
 import com.unciv.logic.city.City
 import com.unciv.logic.civilization.Civilization
-import com.unciv.logic.civilization.diplomacy.DiplomaticStatus
-import com.unciv.logic.map.BFS
 import com.unciv.logic.map.tile.RoadStatus
-import com.unciv.logic.map.tile.Tile
 import com.unciv.models.ruleset.unique.UniqueType
 import yairm210.purity.annotations.Readonly
 import java.util.EnumSet
@@ -31,7 +28,8 @@ class CapitalConnectionsFinder(private val civInfo: Civilization) {
     ) { city -> EnumSet.of(CapitalConnectionMedium.Start) }
     private lateinit var newCitiesToCheck: MutableList<City>
 
-    private val openBordersCivCities = civInfo.gameInfo.getCities().filter { canEnterBordersOf(it.civ) }
+    private val transportNetwork = civInfo.cache.transportNetwork
+    private val openBordersCivCities = civInfo.gameInfo.getCities().filter { transportNetwork.canEnterBordersOf(it.civ) }
 
     private val ruleset = civInfo.gameInfo.ruleset
     private val roadIsResearched = ruleset.tileImprovements[RoadStatus.Road.name].let {
@@ -70,7 +68,7 @@ class CapitalConnectionsFinder(private val civInfo: Civilization) {
             cityToConnectFrom,
             transportType = CapitalConnectionMedium.Road,
             overridingTransportType = CapitalConnectionMedium.Railroad,
-            tileFilter = { tile -> tile.hasConnection(civInfo) }
+            layer = TransportNetwork.Layer.Road
         )
     }
 
@@ -78,7 +76,7 @@ class CapitalConnectionsFinder(private val civInfo: Civilization) {
         check(
             cityToConnectFrom,
             transportType = CapitalConnectionMedium.Railroad,
-            tileFilter = { tile -> tile.getUnpillagedRoad() == RoadStatus.Railroad }
+            layer = TransportNetwork.Layer.Railroad
         )
     }
 
@@ -88,7 +86,7 @@ class CapitalConnectionsFinder(private val civInfo: Civilization) {
             transportType = if (cityToConnectFrom.wasPreviouslyReached(CapitalConnectionMedium.Railroad,null))
                 CapitalConnectionMedium.HarborFromRailroad else CapitalConnectionMedium.HarborFromRoad,
             overridingTransportType = CapitalConnectionMedium.HarborFromRailroad,
-            tileFilter = { tile -> tile.isWater },
+            layer = TransportNetwork.Layer.Water,
             cityFilter = { city -> city.civ == civInfo && city.containsHarbor() && !city.isBlockaded() } // use only own harbors
         )
     }
@@ -100,20 +98,16 @@ class CapitalConnectionsFinder(private val civInfo: Civilization) {
     private fun check(cityToConnectFrom: City,
                       transportType: CapitalConnectionMedium,
                       overridingTransportType: CapitalConnectionMedium? = null,
-                      tileFilter: (Tile) -> Boolean,
+                      layer: TransportNetwork.Layer,
                       cityFilter: (City) -> Boolean = { true }) {
-        // This is the time-saving mechanism we discussed earlier - If I arrived at this city via a certain BFS,
-        // then obviously I already have all the cities that can be reached via that BFS so I don't need to run it again.
+        // This is the time-saving mechanism we discussed earlier - If I arrived at this city via a certain network,
+        // then obviously I already have all the cities that can be reached via that network so I don't need to check it again.
         if (cityToConnectFrom.wasPreviouslyReached(transportType, overridingTransportType))
             return
 
-        val bfs = BFS(cityToConnectFrom.getCenterTile()) {
-              val owner = it.getOwner()
-              (it.isCityCenter() || tileFilter(it)) && (owner == null || canEnterBordersOf(owner))
-        }
-        bfs.stepToEnd()
+        val fromTile = cityToConnectFrom.getCenterTile()
         val reachedCities = openBordersCivCities.filter {
-            bfs.hasReachedTile(it.getCenterTile()) && cityFilter(it)
+            transportNetwork.areConnected(layer, fromTile, it.getCenterTile()) && cityFilter(it)
         }
         for (reachedCity in reachedCities) {
             addCityIfFirstEncountered(reachedCity)
@@ -142,14 +136,4 @@ class CapitalConnectionsFinder(private val civInfo: Civilization) {
         citiesReachedToMediums[this]!!.add(transportType)
     }
 
-    @Readonly
-    private fun canEnterBordersOf(otherCiv: Civilization): Boolean {
-        if (otherCiv == civInfo) return true // own borders are always open
-        if (otherCiv.isBarbarian || civInfo.isBarbarian) return false // barbarians blocks the routes
-        val diplomacyManager = civInfo.getDiplomacyManager(otherCiv)
-            ?: return false // not encountered yet
-        if (otherCiv.isCityState && diplomacyManager.diplomaticStatus != DiplomaticStatus.War) return true
-        return diplomacyManager.hasOpenBorders
-    }
-
 }
@@ -45,6 +45,10 @@ class CivInfoTransientCache(val civInfo: Civilization) {
     @Transient
     var citiesConnectedToCapitalToMediums = mapOf<City, EnumSet<CapitalConnectionMedium>>()
 
+    /** Road, railroad and sea links between tiles, for [CapitalConnectionsFinder] and road planning */
+    @Transient
+    val transportNetwork = TransportNetwork(civInfo)
+
     fun updateState() {
         civInfo.state = GameContext(civInfo)
     }
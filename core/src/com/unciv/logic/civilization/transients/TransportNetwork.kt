@@ -0,0 +1,158 @@
+package com.unciv.logic.civilization.transients
+
+import com.unciv.logic.city.City
+import com.unciv.logic.civilization.Civilization
+import com.unciv.logic.civilization.diplomacy.DiplomaticStatus
+import com.unciv.logic.map.TileMap
+import com.unciv.logic.map.tile.RoadStatus
+import com.unciv.logic.map.tile.Tile
+import yairm210.purity.annotations.Cache
+import yairm210.purity.annotations.Readonly
+
+/**
+ *  The roads, railroads and sea lanes [civInfo] can use to connect cities, kept as connected components of tiles,
+ *  so "are these two cities connected" is a lookup instead of a search over the map.
+ *
+ *  Each [Layer] is a union-find over the tiles [civInfo] may use for it. Tiles report their changes through
+ *  [TileMap.onTileChanged]: a tile joining a layer is merged with its neighbors on the spot, a tile leaving one
+ *  (pillaged road, lost borders) drops the layer, as a union-find can't split components - it is rebuilt on the
+ *  next query. Changes that affect many tiles at once - diplomacy opening or closing borders, cities changing
+ *  hands - are noticed on the next query and drop all layers.
+ *
+ *  Layers are built on first query, so civs that never ask never pay for them.
+ */
+class TransportNetwork(private val civInfo: Civilization) {
+    enum class Layer {
+        /** Any unpillaged road or railroad, or whatever counts as one for [civInfo] */
+        Road,
+        /** Unpillaged railroads only */
+        Railroad,
+        /** Water, for connections between harbors */
+        Water
+    }
+
+    /** Union-find forest by [Tile.zeroBasedIndex]: each tile points to a tile of its component with a lower index, -1 for tiles not in the layer */
+    private class Components(size: Int) {
+        val parent = IntArray(size) { -1 }
+
+        fun contains(index: Int) = parent[index] != -1
+
+        fun find(index: Int): Int {
+            var current = index
+            while (parent[current] != current) {
+                parent[current] = parent[parent[current]] // path halving
+                current = parent[current]
+            }
+            return current
+        }
+
+        fun add(index: Int) {
+            parent[index] = index
+        }
+
+        fun union(first: Int, second: Int) {
+            val firstRoot = find(first)
+            val secondRoot = find(second)
+            if (firstRoot < secondRoot) parent[secondRoot] = firstRoot
+            else if (secondRoot < firstRoot) parent[firstRoot] = secondRoot
+        }
+    }
+
+    @Cache private val layers = arrayOfNulls<Components>(Layer.entries.size)
+
+    /** What the layers were built for - when any of it changed, they are all dropped */
+    @Cache private var tileMap: TileMap? = null
+    @Cache private var cityLists = emptyArray<List<City>>()
+    @Cache private var relations = IntArray(0)
+
+    /** Whether [from] and [to] are linked by [layer]. Tiles not usable by [civInfo] for [layer] are never connected. */
+    @Readonly @Suppress("purity") // Builds the layers on first use, and Components.find halves paths as it goes
+    @Synchronized
+    fun areConnected(layer: Layer, from: Tile, to: Tile): Boolean {
+        validate()
+        val components = getComponents(layer)
+        val fromIndex = from.zeroBasedIndex
+        val toIndex = to.zeroBasedIndex
+        return components.contains(fromIndex) && components.contains(toIndex)
+            && components.find(fromIndex) == components.find(toIndex)
+    }
+
+    /** Called for every change of a [tile] that could affect whether it's part of a layer */
+    @Synchronized
+    fun onTileChanged(tile: Tile) {
+        val tileMap = tileMap ?: return
+        val index = tile.zeroBasedIndex
+        if (tile.tileMap !== tileMap || tileMap.tileList.getOrNull(index) !== tile) return
+        for (layer in Layer.entries) {
+            val components = layers[layer.ordinal] ?: continue
+            val isInLayer = isInLayer(layer, tile)
+            if (isInLayer == components.contains(index)) continue
+            if (isInLayer) {
+                components.add(index)
+                for (neighbor in tile.neighbors)
+                    if (components.contains(neighbor.zeroBasedIndex)) components.union(index, neighbor.zeroBasedIndex)
+            } else layers[layer.ordinal] = null
+        }
+    }
+
+    @Readonly
+    fun canEnterBordersOf(otherCiv: Civilization): Boolean {
+        if (otherCiv == civInfo) return true // own borders are always open
+        if (otherCiv.isBarbarian || civInfo.isBarbarian) return false // barbarians blocks the routes
+        val diplomacyManager = civInfo.getDiplomacyManager(otherCiv)
+            ?: return false // not encountered yet
+        if (otherCiv.isCityState && diplomacyManager.diplomaticStatus != DiplomaticStatus.War) return true
+        return diplomacyManager.hasOpenBorders
+    }
+
+    @Readonly
+    private fun isInLayer(layer: Layer, tile: Tile): Boolean {
+        val owner = tile.getOwner()
+        if (owner != null && !canEnterBordersOf(owner)) return false
+        if (tile.isCityCenter()) return true
+        return when (layer) {
+            Layer.Road -> tile.hasConnection(civInfo)
+            Layer.Railroad -> tile.getUnpillagedRoad() == RoadStatus.Railroad
+            Layer.Water -> tile.isWater
+        }
+    }
+
+    /** What about [otherCiv] decides which of its tiles are in the layers, besides the tiles themselves */
+    @Readonly
+    private fun getRelation(otherCiv: Civilization): Int {
+        var relation = if (canEnterBordersOf(otherCiv)) 1 else 0
+        // Forests and jungles count as roads in friendly territory for some nations
+        if (civInfo.nation.forestsAndJunglesAreRoads && (otherCiv == civInfo
+                || civInfo.knows(otherCiv) && otherCiv.getDiplomacyManager(civInfo)!!.isConsideredFriendlyTerritory()))
+            relation += 2
+        return relation
+    }
+
+    private fun validate() {
+        val tileMap = civInfo.gameInfo.tileMap
+        val civilizations = civInfo.gameInfo.civilizations
+        if (tileMap === this.tileMap && civilizations.size == cityLists.size
+            && civilizations.indices.all { cityLists[it] === civilizations[it].cities && relations[it] == getRelation(civilizations[it]) })
+            return
+        layers.fill(null)
+        this.tileMap = tileMap
+        cityLists = Array(civilizations.size) { civilizations[it].cities }
+        relations = IntArray(civilizations.size) { getRelation(civilizations[it]) }
+    }
+
+    private fun getComponents(layer: Layer): Components {
+        layers[layer.ordinal]?.let { return it }
+        val tiles = tileMap!!.tileList
+        val components = Components(tiles.size)
+        for (tile in tiles) {
+            if (!isInLayer(layer, tile)) continue
+            val index = tile.zeroBasedIndex
+            components.add(index)
+            for (neighbor in tile.neighbors) // neighbors with a higher index are merged when their turn comes
+                if (neighbor.zeroBasedIndex < index && components.contains(neighbor.zeroBasedIndex))
+                    components.union(index, neighbor.zeroBasedIndex)
+        }
+        layers[layer.ordinal] = components
+        return components
+    }
+}
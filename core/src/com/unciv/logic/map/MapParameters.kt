@@ -71,6 +71,9 @@ class MapParameters : IsPartOfGameInfoSerialization {
     var createdWithVersion = ""
 
     var seed: Long = System.currentTimeMillis()
+    /** Whether the user typed in [seed] - such maps are generated, never taken from the [MapPool][com.unciv.logic.map.mapgenerator.MapPool] */
+    @Transient
+    var seedChosenByUser = false
     var tilesPerBiomeArea = 6
     var maxCoastExtension = 2
     var elevationExponent = 0.7f
@@ -98,6 +101,7 @@ class MapParameters : IsPartOfGameInfoSerialization {
         toReturn.mods = LinkedHashSet(mods)
         toReturn.baseRuleset = baseRuleset
         toReturn.seed = seed
+        toReturn.seedChosenByUser = seedChosenByUser
         toReturn.tilesPerBiomeArea = tilesPerBiomeArea
         toReturn.maxCoastExtension = maxCoastExtension
         toReturn.elevationExponent = elevationExponent
@@ -113,6 +117,7 @@ class MapParameters : IsPartOfGameInfoSerialization {
 
     fun reseed() {
         seed = System.currentTimeMillis()
+        seedChosenByUser = false
     }
 
     fun resetAdvancedSettings() {
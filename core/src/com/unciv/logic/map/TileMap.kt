@@ -19,6 +19,8 @@ import com.unciv.models.ruleset.unique.UniqueType
 import com.unciv.models.ruleset.unit.BaseUnit
 import com.unciv.utils.addToMapOfSets
 import com.unciv.utils.contains
+import yairm210.purity.annotations.Cache
+import yairm210.purity.annotations.LocalState
 import yairm210.purity.annotations.Readonly
 import java.util.concurrent.ConcurrentHashMap
 import kotlin.math.abs
@@ -122,6 +124,23 @@ class TileMap(initialCapacity: Int = 10) : IsPartOfGameInfoSerialization {
     /** Continent ID to Continent size */
     val continentSizes = HashMap<Int, Int>()
 
+    /** Bumped whenever a unit enters or leaves a tile, for caches that depend on where units stand */
+    @Transient
+    var unitPositionsVersion = 0
+
+    /** Bumped by [onTileChanged] whenever a tile's terrain, resource, improvement or road changes, for caches that depend on tile yields */
+    @Transient
+    var tileStateVersion = 0
+        private set
+
+    /** [tileStateVersion] right after the last change of each tile, by [Tile.zeroBasedIndex] - see [getTileStateVersionAround] */
+    @Transient
+    private var tileChangedAtVersion = IntArray(0)
+
+    /** Built by [getTileOwnership] on first use, dropped when [setTransients] runs again */
+    @Transient @Cache
+    private var tileOwnership: TileOwnership? = null
+
     //endregion
     //region Constructors
 
@@ -488,14 +507,42 @@ class TileMap(initialCapacity: Int = 10) : IsPartOfGameInfoSerialization {
         return largestContinent / totalLand < 0.25f
     }
 
+    /** Which owned tiles lie on a border, see [TileOwnership]. Needs [setTransients] to have run. */
+    @Readonly
+    fun getTileOwnership(): TileOwnership {
+        if (tileOwnership == null) tileOwnership = TileOwnership(this)
+        return tileOwnership!!
+    }
+
+    /** The [tileStateVersion] of the last change to [tile] or its neighbors, for caches that depend on adjacency but not on the whole map */
+    @Readonly
+    fun getTileStateVersionAround(tile: Tile): Int {
+        var version = tileChangedAtVersion.getOrElse(tile.zeroBasedIndex) { 0 }
+        for (neighbor in tile.neighbors)
+            version = maxOf(version, tileChangedAtVersion.getOrElse(neighbor.zeroBasedIndex) { 0 })
+        return version
+    }
+
     //endregion
     //region State-Changing Methods
 
+    /** Called by [Tile] whenever its terrain, resource, improvement, road or owner changes - state behind [tileStateVersion], [TileOwnership] and each [TransportNetwork][com.unciv.logic.civilization.transients.TransportNetwork] */
+    internal fun onTileChanged(tile: Tile) {
+        if (tileList.getOrNull(tile.zeroBasedIndex) !== tile) return // Clones, e.g. for stat diffs, share the map but are not part of it
+        tileStateVersion++
+        if (tileChangedAtVersion.size != tileList.size) tileChangedAtVersion = IntArray(tileList.size)
+        tileChangedAtVersion[tile.zeroBasedIndex] = tileStateVersion
+        tileOwnership?.update(tile)
+        if (hasGameInfo())
+            for (civ in gameInfo.civilizations) civ.cache.transportNetwork.onTileChanged(tile)
+    }
+
     /** Initialize transients - without, most operations, like [get] from coordinates, will fail.
      * @param ruleset Required unless this is a clone of an initialized TileMap including one
      * @param setUnitCivTransients when false Civ-specific parts of unit initialization are skipped, for the map editor.
      */
     fun setTransients(ruleset: Ruleset? = null, setUnitCivTransients: Boolean = true) {
+        tileOwnership = null
         if (ruleset != null) this.ruleset = ruleset
         check(this.ruleset != null) { "TileMap.setTransients called without ruleset" }
         check(tileList.isNotEmpty()) { "No tiles were found in the save?!" }
@@ -776,25 +823,74 @@ class TileMap(initialCapacity: Int = 10) : IsPartOfGameInfoSerialization {
             if (continentSizes.isNotEmpty()) return
         }
 
-        var landTiles = values.filter { it.isLand && !it.isImpassible() }
-        var currentContinent = 0
         continentSizes.clear()
 
         if (mode == AssignContinentsMode.Reassign)
             values.forEach { it.clearContinent() }
 
-        while (landTiles.any()) {
-            val bfs = BFS(landTiles.random()) { it.isLand && !it.isImpassible() }
-            bfs.stepToEnd()
-            bfs.getReachedTiles().forEach {
-                it.setContinent(currentContinent)
+        val continents = labelComponents { it.isLand && !it.isImpassible() }
+        for ((continent, tiles) in continents.components.withIndex()) {
+            for (tile in tiles) tile.setContinent(continent)
+            continentSizes[continent] = tiles.size
+        }
+    }
+
+    /** Connected groups of tiles, see [labelComponents] */
+    class ComponentLabels(
+        /** Component ID of each tile by [Tile.zeroBasedIndex], -1 for tiles not in any component */
+        val labels: IntArray,
+        /** Tiles of each component by component ID, each in [values] order */
+        val components: List<List<Tile>>
+    ) {
+        @Readonly fun getComponent(tile: Tile) = labels[tile.zeroBasedIndex]
+    }
+
+    /**
+     * Labels the groups of neighboring tiles matching [predicate] (continents, lakes, ...) in one pass, using a union-find over the neighbors.
+     * Components are numbered in order of their first tile in [values], so the result only depends on the map.
+     */
+    @Readonly
+    fun labelComponents(predicate: (Tile) -> Boolean): ComponentLabels {
+        val tiles = tileList
+        // Union-find forest: each tile points to a tile of its component with a lower index, the root is its first tile
+        @LocalState val parent = IntArray(tiles.size) { if (predicate(tiles[it])) it else -1 }
+
+        fun findRoot(index: Int): Int {
+            var root = index
+            while (parent[root] != root) root = parent[root]
+            var current = index
+            while (parent[current] != root) { // compress the path walked
+                val next = parent[current]
+                parent[current] = root
+                current = next
+            }
+            return root
+        }
+
+        for (index in tiles.indices) {
+            if (parent[index] == -1) continue
+            for (neighbor in tiles[index].neighbors) {
+                val neighborIndex = neighbor.zeroBasedIndex
+                if (neighborIndex > index || parent[neighborIndex] == -1) continue // every edge is seen from both ends
+                val root = findRoot(index)
+                val neighborRoot = findRoot(neighborIndex)
+                if (root < neighborRoot) parent[neighborRoot] = root
+                else if (neighborRoot < root) parent[root] = neighborRoot
             }
-            val continent = bfs.getReachedTiles()
-            continentSizes[currentContinent] = continent.size
+        }
 
-            currentContinent++
-            landTiles = landTiles.filter { it !in continent }
+        @LocalState val labels = IntArray(tiles.size) { -1 }
+        @LocalState val components = ArrayList<ArrayList<Tile>>()
+        for (index in tiles.indices) {
+            if (parent[index] == -1) continue
+            val root = findRoot(index)
+            if (root == index) { // roots are the first tile of their component
+                labels[index] = components.size
+                components.add(ArrayList())
+            } else labels[index] = labels[root]
+            components[labels[index]].add(tiles[index])
         }
+        return ComponentLabels(labels, components)
     }
     //endregion
 
@@ -0,0 +1,56 @@
+package com.unciv.logic.map
+
+import com.unciv.logic.civilization.Civilization
+import com.unciv.logic.map.tile.Tile
+import yairm210.purity.annotations.Readonly
+
+/**
+ *  Which owned tiles of [tileMap] lie on a border, and with which neighbors, indexed by [Tile.zeroBasedIndex].
+ *
+ *  Drawing borders compares the owner of each tile with those of its six neighbors, and [Tile.getOwner] goes through
+ *  the owning city on every call. Here each tile keeps a bit per neighbor whose owner differs, so tiles inside a
+ *  civ's territory are skipped with one array read, and border tiles know their border neighbors without asking.
+ *
+ *  [Tile] reports owner changes through [update] - from [Tile.setOwningCity], and for every tile of a city that
+ *  changes hands. Built on first use by [TileMap.getTileOwnership].
+ */
+class TileOwnership(private val tileMap: TileMap) {
+    private val tileCount = tileMap.tileList.size
+    /** The owners the masks were computed for */
+    private val owners = arrayOfNulls<Civilization>(tileCount)
+    /** Bit i is set when the owner of neighbor i, in [Tile.neighbors] order, differs - always 0 for unowned tiles */
+    private val borderMasks = ByteArray(tileCount)
+
+    init {
+        for (tile in tileMap.tileList) owners[tile.zeroBasedIndex] = tile.getOwner()
+        for (tile in tileMap.tileList) updateBorderMask(tile)
+    }
+
+    /** Picks up a new owner of [tile]. Ignores tiles that are not part of the map, like clones. */
+    @Synchronized
+    fun update(tile: Tile) {
+        val index = tile.zeroBasedIndex
+        if (index !in 0 until tileCount || tileMap.tileList[index] !== tile) return
+        val owner = tile.getOwner()
+        if (owners[index] == owner) return
+        owners[index] = owner
+        updateBorderMask(tile)
+        for (neighbor in tile.neighbors) updateBorderMask(neighbor)
+    }
+
+    private fun updateBorderMask(tile: Tile) {
+        val index = tile.zeroBasedIndex
+        val owner = owners[index]
+        var mask = 0
+        if (owner != null)
+            for ((direction, neighbor) in tile.neighbors.withIndex())
+                if (owners[neighbor.zeroBasedIndex] != owner) mask = mask or (1 shl direction)
+        borderMasks[index] = mask.toByte()
+    }
+
+    /** Bit i is set when neighbor i of [tile], in [Tile.neighbors] order, has another owner than [tile] - 0 for unowned tiles */
+    @Readonly fun getBorderMask(tile: Tile): Int = borderMasks[tile.zeroBasedIndex].toInt() and 0xff
+
+    /** Whether [tile] is owned and has a neighbor with another owner, or none */
+    @Readonly fun isBorderTile(tile: Tile) = borderMasks[tile.zeroBasedIndex].toInt() != 0
+}
@@ -57,9 +57,10 @@ class MapElevationGenerator(
 
         tileMap.setTransients(ruleset)
 
+        val noise = randomness.getPerlinNoiseField(tileMap, elevationSeed, scale = 2.0)
         for (tile in tileMap.values) {
             if (tile.isWater) continue
-            val elevation = randomness.getPerlinNoise(tile, elevationSeed, scale = 2.0).powSigned(exponent)
+            val elevation = noise[tile.zeroBasedIndex].powSigned(exponent)
             tile.baseTerrain = flat // in case both mutators are TileFeatureMutator
             hillMutator.setElevated(tile, elevation > 0.5 && elevation <= 0.7)
             mountainMutator.setElevated(tile, elevation > 0.7)
@@ -1,8 +1,12 @@
 package com.unciv.logic.map.mapgenerator
 
 import com.unciv.logic.map.HexMath
+import com.unciv.logic.map.TileMap
 import com.unciv.logic.map.tile.Tile
+import com.unciv.utils.Concurrency
 import com.unciv.utils.debug
+import org.jetbrains.annotations.VisibleForTesting
+import kotlin.math.min
 import kotlin.math.pow
 import kotlin.math.roundToInt
 import kotlin.random.Random
@@ -10,6 +14,25 @@ import kotlin.random.Random
 class MapGenerationRandomness {
     var RNG = Random(42)
 
+    /** Key of a noise field in [noiseFieldCache] - everything the noise depends on besides the tile coordinates */
+    private data class NoiseFieldKey(
+        val ridged: Boolean,
+        val seed: Double,
+        val nOctaves: Int,
+        val persistence: Double,
+        val lacunarity: Double,
+        val scale: Double
+    )
+
+    /** Noise fields already computed for [noiseFieldCacheMap], so steps re-run with the same seed (e.g. from the map editor) skip the noise */
+    private val noiseFieldCache = LinkedHashMap<NoiseFieldKey, DoubleArray>()
+    private var noiseFieldCacheMap: TileMap? = null
+
+    /** How many noise fields were computed rather than taken from the cache */
+    @VisibleForTesting
+    var noiseFieldsComputed = 0
+        private set
+
     fun seedRNG(seed: Long = 42) {
         RNG = Random(seed)
     }
@@ -38,6 +61,64 @@ class MapGenerationRandomness {
         return Perlin.noise3d(worldCoords.x.toDouble(), worldCoords.y.toDouble(), seed, nOctaves, persistence, lacunarity, scale)
     }
 
+    /**
+     * [getPerlinNoise] for every tile of [tileMap], in [TileMap.values] order - that is, indexed by [Tile.zeroBasedIndex].
+     *
+     * Noise only depends on the coordinates, so large maps compute it in parallel chunks, giving the same values as tile by tile.
+     * Callers consuming [RNG] per tile must still do so in their own sequential loop, to keep maps identical for a seed.
+     */
+    fun getPerlinNoiseField(
+        tileMap: TileMap,
+        seed: Double,
+        nOctaves: Int = 6,
+        persistence: Double = 0.5,
+        lacunarity: Double = 2.0,
+        scale: Double = 30.0
+    ): DoubleArray = getNoiseField(tileMap, NoiseFieldKey(false, seed, nOctaves, persistence, lacunarity, scale)) { x, y ->
+        Perlin.noise3d(x, y, seed, nOctaves, persistence, lacunarity, scale)
+    }
+
+    /** Ridged variant of [getPerlinNoiseField], see [Perlin.ridgedNoise3d] */
+    fun getRidgedPerlinNoiseField(
+        tileMap: TileMap,
+        seed: Double,
+        nOctaves: Int = 10,
+        persistence: Double = 0.5,
+        lacunarity: Double = 2.0,
+        scale: Double = 10.0
+    ): DoubleArray = getNoiseField(tileMap, NoiseFieldKey(true, seed, nOctaves, persistence, lacunarity, scale)) { x, y ->
+        Perlin.ridgedNoise3d(x, y, seed, nOctaves, persistence, lacunarity, scale)
+    }
+
+    /** @return A copy of the cached field for [key] if there is one, callers may modify it */
+    private fun getNoiseField(tileMap: TileMap, key: NoiseFieldKey, noise: (x: Double, y: Double) -> Double): DoubleArray {
+        if (noiseFieldCacheMap !== tileMap) {
+            noiseFieldCache.clear()
+            noiseFieldCacheMap = tileMap
+        }
+        noiseFieldCache[key]?.let { return it.copyOf() }
+
+        val field = computeNoiseField(tileMap, noise)
+        noiseFieldsComputed++
+        if (noiseFieldCache.size >= maxCachedNoiseFields)
+            noiseFieldCache.remove(noiseFieldCache.keys.first())
+        noiseFieldCache[key] = field
+        return field.copyOf()
+    }
+
+    private fun computeNoiseField(tileMap: TileMap, noise: (x: Double, y: Double) -> Double): DoubleArray {
+        val tiles = tileMap.tileList
+        val field = DoubleArray(tiles.size)
+        val chunks = (tiles.indices step noiseChunkSize).map { chunkStart -> {
+            for (index in chunkStart until min(chunkStart + noiseChunkSize, tiles.size)) {
+                val worldCoords = HexMath.hex2WorldCoords(tiles[index].position)
+                field[index] = noise(worldCoords.x.toDouble(), worldCoords.y.toDouble())
+            }
+        } }
+        Concurrency.parallelize(chunks, parallelize = chunks.size > 1)
+        return field
+    }
+
     fun chooseSpreadOutLocations(number: Int, suitableTiles: List<Tile>, mapRadius: Int): ArrayList<Tile> {
         if (number <= 0) return ArrayList(0)
 
@@ -100,4 +181,11 @@ class MapGenerationRandomness {
         // unreachable due to last loop iteration always returning and initialDistance >= 1
         throw Exception("Unreachable code reached!")
     }
+
+    companion object {
+        /** Tiles per parallel noise task - smaller maps are done in one go */
+        private const val noiseChunkSize = 4096
+        /** A full generation uses about this many fields, at 8 bytes per tile each */
+        private const val maxCachedNoiseFields = 8
+    }
 }
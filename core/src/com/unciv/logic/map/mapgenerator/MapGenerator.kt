@@ -22,6 +22,7 @@ import com.unciv.models.ruleset.unique.GameContext
 import com.unciv.utils.debug
 import kotlinx.coroutines.CoroutineScope
 import kotlinx.coroutines.isActive
+import org.jetbrains.annotations.VisibleForTesting
 import kotlin.math.abs
 import kotlin.math.pow
 import kotlin.math.roundToInt
@@ -33,6 +34,8 @@ import kotlin.math.ulp
 /** Map generator, used by new game, map editor and main menu background
  *
  *  Class instance only keeps [ruleset] and [coroutineScope] for easier access, input and output are through methods, namely [generateMap] and [generateSingleStep].
+ *  It also keeps the noise fields it computed for the last map, so reusing one instance for several [generateSingleStep] on the same map
+ *  skips recomputing them, and the [stepTimings] of its last run.
  *
  *  @param ruleset The Ruleset supplying terrain and resource definitions
  *  @param coroutineScope Enables early abort if this returns `isActive == false`
@@ -51,7 +54,16 @@ class MapGenerator(val ruleset: Ruleset, private val coroutineScope: CoroutineSc
         landTerrainName
     }
 
-    private var randomness = MapGenerationRandomness()
+    @VisibleForTesting
+    val randomness = MapGenerationRandomness()
+
+    /** How long one step of [generateMap] or [generateSingleStep] took */
+    class StepTiming(val step: String, val nanos: Long) {
+        override fun toString() = "$step: ${nanos / 1000000L}.${(nanos / 10000L).rem(100)}ms"
+    }
+
+    /** Timings of every step of the last [generateMap], [generateTerrain], [generateFromTerrain] or [generateSingleStep], in order - for benchmarks and profiling */
+    val stepTimings = ArrayList<StepTiming>()
     private val firstLandTerrain = ruleset.terrains.values.first { it.type==TerrainType.Land }
 
     /** Associates [terrain] with a range of temperatures and a range of humidities (both open to closed) */
@@ -89,8 +101,17 @@ class MapGenerator(val ruleset: Ruleset, private val coroutineScope: CoroutineSc
             .map { unique -> TerrainOccursRange(this, unique) }
 
     fun generateMap(mapParameters: MapParameters, gameParameters: GameParameters = GameParameters(), civilizations: List<Civilization> = emptyList()): TileMap {
+        val map = generateTerrain(mapParameters) // Clears the stepTimings
+        generateCivDependentFeatures(map, gameParameters, civilizations)
+        return map
+    }
+
+    /** Runs the first part of [generateMap], which does not depend on the civilizations in the game: landmass to rivers.
+     *  The result can be stored, see [MapPool], and later completed with [generateFromTerrain]. */
+    fun generateTerrain(mapParameters: MapParameters): TileMap {
         val mapSize = mapParameters.mapSize
         val mapType = mapParameters.type
+        stepTimings.clear()
 
         if (mapParameters.seed == 0L)
             mapParameters.seed = System.currentTimeMillis()
@@ -143,6 +164,24 @@ class MapGenerator(val ruleset: Ruleset, private val coroutineScope: CoroutineSc
             RiverGenerator(map, randomness, ruleset).spawnRivers()
         }
         convertTerrains(map.values)
+        return map
+    }
+
+    /** Runs the rest of [generateMap] on a [map] from [generateTerrain] made earlier, like one taken from [MapPool].
+     *  [mapParameters] replace those of the map, except for the seed and version the terrain was generated with.
+     *  The random generator is reseeded from the map's seed, so the same stored terrain always gets the same regions
+     *  and resources - though not the ones [generateMap] would give it, which carries on with the terrain's random sequence. */
+    fun generateFromTerrain(map: TileMap, mapParameters: MapParameters, gameParameters: GameParameters, civilizations: List<Civilization>) {
+        mapParameters.seed = map.mapParameters.seed
+        mapParameters.createdWithVersion = map.mapParameters.createdWithVersion
+        map.mapParameters = mapParameters
+        randomness.seedRNG(map.mapParameters.seed)
+        stepTimings.clear()
+        generateCivDependentFeatures(map, gameParameters, civilizations)
+    }
+
+    private fun generateCivDependentFeatures(map: TileMap, gameParameters: GameParameters, civilizations: List<Civilization>) {
+        if (map.mapParameters.type == MapType.empty) return
 
         // Region based map generation - not used when generating maps in map editor
         if (civilizations.isNotEmpty()) {
@@ -174,8 +213,6 @@ class MapGenerator(val ruleset: Ruleset, private val coroutineScope: CoroutineSc
         // Map generation may generate incompatible terrain/feature combinations
         for (tile in map.values)
             TileNormalizer.normalizeToRuleset(tile, ruleset)
-
-        return map
     }
     
     private fun flipTopBottom(vector: Vector2): Vector2 = Vector2(-vector.y, -vector.x)
@@ -224,6 +261,7 @@ class MapGenerator(val ruleset: Ruleset, private val coroutineScope: CoroutineSc
     }
 
     fun generateSingleStep(map: TileMap, step: MapGeneratorSteps) {
+        stepTimings.clear()
         if (map.mapParameters.seed == 0L)
             map.mapParameters.seed = System.currentTimeMillis()
 
@@ -256,11 +294,11 @@ class MapGenerator(val ruleset: Ruleset, private val coroutineScope: CoroutineSc
 
     private fun runAndMeasure(text: String, action: ()->Unit) {
         if (coroutineScope?.isActive == false) return
-        if (!consoleTimings) return action()
         val startNanos = System.nanoTime()
         action()
         val delta = System.nanoTime() - startNanos
-        debug("MapGenerator.%s took %s.%sms", text, delta/1000000L, (delta/10000L).rem(100))
+        stepTimings += StepTiming(text, delta)
+        if (consoleTimings) debug("MapGenerator.%s took %s.%sms", text, delta/1000000L, (delta/10000L).rem(100))
     }
 
     fun convertTerrains(tiles: Iterable<Tile>) = Helpers.convertTerrains(ruleset, tiles)
@@ -312,37 +350,14 @@ class MapGenerator(val ruleset: Ruleset, private val coroutineScope: CoroutineSc
 
         if (ruleset.terrains.containsKey(Constants.lakes)) {
             //define lakes
-            val waterTiles = map.values.filter { it.isWater }.toMutableList()
-
-            val tilesInArea = ArrayList<Tile>()
-            val tilesToCheck = ArrayList<Tile>()
-
             val maxLakeSize = ruleset.modOptions.constants.maxLakeSize
 
-            while (waterTiles.isNotEmpty()) {
-                val initialWaterTile = waterTiles.removeAt(0)
-                tilesInArea += initialWaterTile
-                tilesToCheck += initialWaterTile
-
-                // Floodfill to cluster water tiles
-                while (tilesToCheck.isNotEmpty()) {
-                    val tileWeAreChecking = tilesToCheck.removeAt(0)
-                    for (vector in tileWeAreChecking.neighbors){
-                        if (tilesInArea.contains(vector)) continue
-                        if (!waterTiles.contains(vector)) continue
-                        tilesInArea += vector
-                        tilesToCheck += vector
-                        waterTiles -= vector
-                    }
+            for (waterArea in map.labelComponents { it.isWater }.components) {
+                if (waterArea.size > maxLakeSize) continue
+                for (tile in waterArea) {
+                    tile.baseTerrain = Constants.lakes
+                    tile.setTransients()
                 }
-
-                if (tilesInArea.size <= maxLakeSize) {
-                    for (tile in tilesInArea) {
-                        tile.baseTerrain = Constants.lakes
-                        tile.setTransients()
-                    }
-                }
-                tilesInArea.clear()
             }
         }
 
@@ -460,11 +475,14 @@ class MapGenerator(val ruleset: Ruleset, private val coroutineScope: CoroutineSc
         if (elevationTerrains.isEmpty())
             elevationTerrains.add(Constants.mountain)
 
-        for (tile in tileMap.values.asSequence()) {
+        val humidityNoise = randomness.getPerlinNoiseField(tileMap, humiditySeed, scale = scale, nOctaves = 1)
+        val temperatureNoise = randomness.getPerlinNoiseField(tileMap, temperatureSeed, scale = scale, nOctaves = 1)
+
+        for (tile in tileMap.values) {
             if (tile.isWater || tile.baseTerrain in elevationTerrains)
                 continue
 
-            val humidityRandom = randomness.getPerlinNoise(tile, humiditySeed, scale = scale, nOctaves = 1)
+            val humidityRandom = humidityNoise[tile.zeroBasedIndex]
             val humidity = ((humidityRandom + 1.0) / 2.0 + humidityShift).coerceIn(0.0..1.0)
 
             val expectedTemperature = if (tileMap.mapParameters.shape == MapShape.flatEarth) {
@@ -478,7 +496,7 @@ class MapGenerator(val ruleset: Ruleset, private val coroutineScope: CoroutineSc
                 latitudeTemperature
             }
 
-            val randomTemperature = randomness.getPerlinNoise(tile, temperatureSeed, scale = scale, nOctaves = 1)
+            val randomTemperature = temperatureNoise[tile.zeroBasedIndex]
             var temperature = (5.0 * expectedTemperature + randomTemperature) / 6.0
             temperature = abs(temperature).pow(1.0 - temperatureintensity) * temperature.sign
             temperature = (temperature + temperatureShift).coerceIn(-1.0..1.0)
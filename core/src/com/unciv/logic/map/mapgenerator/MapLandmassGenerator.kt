@@ -115,26 +115,25 @@ class MapLandmassGenerator(
     //region Type-specific generators
     private fun createPerlin() {
         val elevationSeed = randomness.RNG.nextInt().toDouble()
-        for (tile in tileMap.values) {
-            val elevation = randomness.getPerlinNoise(tile, elevationSeed)
-            spawnLandOrWater(tile, elevation)
+        val noise = randomness.getPerlinNoiseField(tileMap, elevationSeed)
+        for ((index, tile) in tileMap.values.withIndex()) {
+            spawnLandOrWater(tile, noise[index])
         }
     }
 
     private fun createFractal() {
+        val maxdim = max(tileMap.maxLatitude, tileMap.maxLongitude)
+        var ratio = maxdim / 32.0 // change scale depending on map size so that average number of continents stay the same
+        if (tileMap.mapParameters.shape == MapShape.hexagonal || tileMap.mapParameters.shape == MapShape.flatEarth) {
+            ratio *= 0.5 // In hexagonal type map for some reason it tends to make a single continent like pangaea if we don't diminish the scale
+        }
+
         retryLoweringWaterLevel {
+            // Each retry gets a new seed, so the noise can't be reused
             val elevationSeed = randomness.RNG.nextInt().toDouble()
-            for (tile in tileMap.values) {
-                val maxdim = max(tileMap.maxLatitude, tileMap.maxLongitude)
-                var ratio = maxdim / 32.0 // change scale depending on map size so that average number of continents stay the same
-                if (tileMap.mapParameters.shape == MapShape.hexagonal || tileMap.mapParameters.shape == MapShape.flatEarth) {
-                    ratio *= 0.5 // In hexagonal type map for some reason it tends to make a single continent like pangaea if we don't diminish the scale
-                }
-
-                var elevation = randomness.getPerlinNoise(tile, elevationSeed, persistence=0.8, lacunarity=1.5, scale=ratio*30.0)
-
-                elevation += getOceanEdgesTransform(tile)
-
+            val noise = randomness.getPerlinNoiseField(tileMap, elevationSeed, persistence=0.8, lacunarity=1.5, scale=ratio*30.0)
+            for ((index, tile) in tileMap.values.withIndex()) {
+                val elevation = noise[index] + getOceanEdgesTransform(tile)
                 spawnLandOrWater(tile, elevation)
             }
         }
@@ -142,8 +141,9 @@ class MapLandmassGenerator(
 
     private fun createLakes() {
         val elevationSeed = randomness.RNG.nextInt().toDouble()
-        for (tile in tileMap.values) {
-            val elevation = 0.3 - getRidgedPerlinNoise(tile, elevationSeed, persistence=0.7, lacunarity=1.5)
+        val noise = randomness.getRidgedPerlinNoiseField(tileMap, elevationSeed, persistence=0.7, lacunarity=1.5)
+        for ((index, tile) in tileMap.values.withIndex()) {
+            val elevation = 0.3 - noise[index]
 
             spawnLandOrWater(tile, elevation)
         }
@@ -152,11 +152,13 @@ class MapLandmassGenerator(
     private fun createSmallContinents() {
         val elevationSeed = randomness.RNG.nextInt().toDouble()
         waterThreshold += 0.25
+        // Same seed on every retry, so only the classification against the lowered threshold is repeated
+        val elevations = randomness.getRidgedPerlinNoiseField(tileMap, elevationSeed, scale = 22.0)
+        for ((index, tile) in tileMap.values.withIndex())
+            elevations[index] += getOceanEdgesTransform(tile)
         retryLoweringWaterLevel {
-            for (tile in tileMap.values) {
-                var elevation = getRidgedPerlinNoise(tile, elevationSeed, scale = 22.0)
-                elevation += getOceanEdgesTransform(tile)
-                spawnLandOrWater(tile, elevation)
+            for ((index, tile) in tileMap.values.withIndex()) {
+                spawnLandOrWater(tile, elevations[index])
             }
         }
     }
@@ -164,9 +166,9 @@ class MapLandmassGenerator(
     private fun createArchipelago() {
         val elevationSeed = randomness.RNG.nextInt().toDouble()
         waterThreshold += 0.25
-        for (tile in tileMap.values) {
-            val elevation = getRidgedPerlinNoise(tile, elevationSeed)
-            spawnLandOrWater(tile, elevation)
+        val noise = randomness.getRidgedPerlinNoiseField(tileMap, elevationSeed)
+        for ((index, tile) in tileMap.values.withIndex()) {
+            spawnLandOrWater(tile, noise[index])
         }
     }
 
@@ -179,9 +181,9 @@ class MapLandmassGenerator(
             largeContinents == 1 && waterPercent <= 0.7f
         }) {
             val elevationSeed = randomness.RNG.nextInt().toDouble()
-            for (tile in tileMap.values) {
-                var elevation = randomness.getPerlinNoise(tile, elevationSeed)
-                elevation = elevation * (3 / 4f) + getEllipticContinent(tile) / 4
+            val noise = randomness.getPerlinNoiseField(tileMap, elevationSeed)
+            for ((index, tile) in tileMap.values.withIndex()) {
+                val elevation = noise[index] * (3 / 4f) + getEllipticContinent(tile) / 4
                 spawnLandOrWater(tile, elevation)
                 tile.setTerrainTransients() // necessary for assignContinents
             }
@@ -192,8 +194,9 @@ class MapLandmassGenerator(
 
     private fun createInnerSea() {
         val elevationSeed = randomness.RNG.nextInt().toDouble()
-        for (tile in tileMap.values) {
-            var elevation = randomness.getPerlinNoise(tile, elevationSeed)
+        val noise = randomness.getPerlinNoiseField(tileMap, elevationSeed)
+        for ((index, tile) in tileMap.values.withIndex()) {
+            var elevation = noise[index]
             elevation -= getEllipticContinent(tile, 0.6) * 0.3
             spawnLandOrWater(tile, elevation)
         }
@@ -208,8 +211,9 @@ class MapLandmassGenerator(
                 else randomness.RNG.nextDouble() > 0.5f
 
         val elevationSeed = randomness.RNG.nextInt().toDouble()
-        for (tile in tileMap.values) {
-            var elevation = randomness.getPerlinNoise(tile, elevationSeed)
+        val noise = randomness.getPerlinNoiseField(tileMap, elevationSeed)
+        for ((index, tile) in tileMap.values.withIndex()) {
+            var elevation = noise[index]
             elevation = (elevation + getContinentAndIslandsTransform(tile, isNorth, isLatitude)) / 2.0
             spawnLandOrWater(tile, elevation)
         }
@@ -223,8 +227,9 @@ class MapLandmassGenerator(
                 else randomness.RNG.nextDouble() > 0.5f
 
         val elevationSeed = randomness.RNG.nextInt().toDouble()
-        for (tile in tileMap.values) {
-            var elevation = randomness.getPerlinNoise(tile, elevationSeed)
+        val noise = randomness.getPerlinNoiseField(tileMap, elevationSeed)
+        for ((index, tile) in tileMap.values.withIndex()) {
+            var elevation = noise[index]
             elevation = (elevation + getTwoContinentsTransform(tile, isLatitude)) / 2.0
             spawnLandOrWater(tile, elevation)
         }
@@ -236,8 +241,9 @@ class MapLandmassGenerator(
         val isEastWest = tileMap.mapParameters.shape == MapShape.flatEarth && randomness.RNG.nextDouble() > 0.5
 
         val elevationSeed = randomness.RNG.nextInt().toDouble()
-        for (tile in tileMap.values) {
-            var elevation = randomness.getPerlinNoise(tile, elevationSeed)
+        val noise = randomness.getPerlinNoiseField(tileMap, elevationSeed)
+        for ((index, tile) in tileMap.values.withIndex()) {
+            var elevation = noise[index]
             elevation = (elevation + getThreeContinentsTransform(tile, isNorth, isEastWest)) / 2.0
             spawnLandOrWater(tile, elevation)
         }
@@ -245,8 +251,9 @@ class MapLandmassGenerator(
 
     private fun createFourCorners() {
         val elevationSeed = randomness.RNG.nextInt().toDouble()
-        for (tile in tileMap.values) {
-            var elevation = randomness.getPerlinNoise(tile, elevationSeed)
+        val noise = randomness.getPerlinNoiseField(tileMap, elevationSeed)
+        for ((index, tile) in tileMap.values.withIndex()) {
+            var elevation = noise[index]
             elevation = elevation / 2 + getFourCornersTransform(tile) / 2
             spawnLandOrWater(tile, elevation)
         }
@@ -428,18 +435,6 @@ class MapLandmassGenerator(
         return max(elevationOffset, -0.35)
     }
 
-    /**
-     * Generates ridged perlin noise. As for parameters see [MapGenerationRandomness.getPerlinNoise]
-     */
-    private fun getRidgedPerlinNoise(tile: Tile, seed: Double,
-                                     nOctaves: Int = 10,
-                                     persistence: Double = 0.5,
-                                     lacunarity: Double = 2.0,
-                                     scale: Double = 10.0): Double {
-        val worldCoords = HexMath.hex2WorldCoords(tile.position)
-        return Perlin.ridgedNoise3d(worldCoords.x.toDouble(), worldCoords.y.toDouble(), seed, nOctaves, persistence, lacunarity, scale)
-    }
-    
     /** Returns lon at lat "percentile from center" - numbers between 0.0-0.1 */
     private fun getLonLatFactors(tile: Tile): Pair<Float, Float>{
         val longitudeFactor = abs(tile.longitude) / tileMap.maxLongitude.toFloat()
@@ -0,0 +1,134 @@
+package com.unciv.logic.map.mapgenerator
+
+import com.badlogic.gdx.files.FileHandle
+import com.unciv.UncivGame
+import com.unciv.logic.files.MapSaver
+import com.unciv.logic.map.MapParameters
+import com.unciv.logic.map.TileMap
+import com.unciv.models.metadata.GameParameters
+import com.unciv.models.ruleset.Ruleset
+import com.unciv.models.ruleset.RulesetCache
+import com.unciv.models.ruleset.RulesetFile
+import com.unciv.utils.Concurrency
+import com.unciv.utils.Log
+import java.security.MessageDigest
+import kotlin.math.min
+
+/**
+ *  Maps whose terrain was generated ahead of time, so starting a new game doesn't have to wait for it.
+ *
+ *  [generate] runs [MapGenerator.generateTerrain] - everything that does not depend on the civilizations in the game -
+ *  for many maps at once, and stores them with [MapSaver] in a subfolder per [getPoolName].
+ *  [GameStarter][com.unciv.logic.GameStarter] takes one with [takeMap] when it generates a map with matching parameters,
+ *  and then only runs the steps depending on the civilizations: regions, starts, resources and city-states.
+ *  A pooled map keeps the seed it was generated with, so maps for a seed the user chose are never taken from the pool.
+ *  Completing a pooled map reseeds the generator, so it gives the same map for the same stored terrain, though not
+ *  the one [MapGenerator.generateMap] would give for that seed.
+ */
+object MapPool {
+    private const val fileExtension = ".map"
+
+    /** Where pooled maps are stored - `null` disables the pool. Set by the launchers, so tests never take pooled maps. */
+    var folder: FileHandle? = null
+
+    /** Outcome of [generate] */
+    class Report(val mapsGenerated: Int, val totalNanos: Long, val perMapNanos: LongArray) {
+        val mapsPerMinute get() = if (totalNanos == 0L) 0.0 else mapsGenerated * 60e9 / totalNanos
+
+        override fun toString() = "Generated $mapsGenerated maps in ${totalNanos / 1000000L}ms, " +
+            "%.1f maps per minute, per map %sms to %sms, average %sms".format(
+                mapsPerMinute,
+                (perMapNanos.minOrNull() ?: 0L) / 1000000L,
+                (perMapNanos.maxOrNull() ?: 0L) / 1000000L,
+                (if (perMapNanos.isEmpty()) 0L else perMapNanos.average().toLong()) / 1000000L
+            )
+    }
+
+    /** Name of the pool subfolder for maps generated with [mapParameters] and the ruleset of [gameParameters].
+     *  Includes all that shapes the terrain except the seed - the parameters used by later steps, like resources, may differ.
+     *  The game version stands for the generator and the built-in rulesets, the json files for the content of the mods,
+     *  so updating either starts a new pool rather than handing out terrain the current game would not generate. */
+    fun getPoolName(mapParameters: MapParameters, gameParameters: GameParameters): String {
+        val key = mapParameters.run {
+            listOf(
+                type, shape, mapSize.radius, mapSize.width, mapSize.height, worldWrap,
+                tilesPerBiomeArea, maxCoastExtension, elevationExponent, temperatureintensity, temperatureShift,
+                vegetationRichness, rareFeaturesRichness, waterThreshold
+            )
+        } + UncivGame.VERSION.toSerializeString() + gameParameters.baseRuleset + gameParameters.mods.sorted()
+        val digest = MessageDigest.getInstance("SHA-256")
+        digest.update(key.joinToString("|").toByteArray(Charsets.UTF_8))
+        for (rulesetName in listOf(gameParameters.baseRuleset) + gameParameters.mods.sorted()) {
+            // Built-in rulesets have no folder
+            val jsonFolder = RulesetCache[rulesetName]?.folderLocation?.child("jsons") ?: continue
+            for (rulesetFile in RulesetFile.entries) {
+                val file = jsonFolder.child(rulesetFile.filename)
+                if (file.exists()) digest.update(file.readBytes())
+            }
+        }
+        return digest.digest().joinToString("") { "%02x".format(it) }
+    }
+
+    /** Generates [count] maps for [mapParameters] on [threads] threads and stores them in the pool.
+     *  The maps are seeded from the seed of [mapParameters] onwards, so repeating a call gives the same maps. */
+    fun generate(
+        mapParameters: MapParameters,
+        gameParameters: GameParameters,
+        count: Int,
+        threads: Int = Runtime.getRuntime().availableProcessors()
+    ): Report {
+        val poolFolder = folder?.child(getPoolName(mapParameters, gameParameters))
+            ?: throw IllegalStateException("MapPool.folder is not set")
+        poolFolder.mkdirs()
+        val ruleset = RulesetCache.getComplexRuleset(gameParameters)
+
+        val perMapNanos = LongArray(count)
+        val startNanos = System.nanoTime()
+        val workerCount = min(threads, count)
+        val workers = (0 until workerCount).map { worker -> {
+            // Each worker generates every workerCount-th map, with a generator of its own
+            for (index in worker until count step workerCount) {
+                val mapStartNanos = System.nanoTime()
+                val parameters = mapParameters.clone().apply { seed = mapParameters.seed + index }
+                val map = MapGenerator(ruleset).generateTerrain(parameters)
+                poolFolder.child("${parameters.seed}$fileExtension")
+                    .writeString(MapSaver.mapToSavedString(map), false, Charsets.UTF_8.name())
+                perMapNanos[index] = System.nanoTime() - mapStartNanos
+            }
+        } }
+        Concurrency.parallelize(workers, parallelize = workers.size > 1)
+        return Report(count, System.nanoTime() - startNanos, perMapNanos)
+    }
+
+    /** How many maps matching [mapParameters] and [gameParameters] the pool holds */
+    fun getPoolSize(mapParameters: MapParameters, gameParameters: GameParameters): Int =
+        getPoolFiles(mapParameters, gameParameters).size
+
+    private fun getPoolFiles(mapParameters: MapParameters, gameParameters: GameParameters): List<FileHandle> {
+        val poolFolder = folder?.child(getPoolName(mapParameters, gameParameters)) ?: return emptyList()
+        if (!poolFolder.exists()) return emptyList()
+        return poolFolder.list(fileExtension).sortedBy { it.name() }
+    }
+
+    /** Removes a map matching [mapParameters] and [gameParameters] from the pool, or returns `null` when there is none
+     *  or the user chose the seed - see [MapParameters.seedChosenByUser]. The map has its transients set for [ruleset], ready for [MapGenerator.generateFromTerrain]. */
+    fun takeMap(mapParameters: MapParameters, gameParameters: GameParameters, ruleset: Ruleset): TileMap? {
+        if (mapParameters.seedChosenByUser) return null
+        while (true) {
+            val mapString = synchronized(this) {
+                val file = getPoolFiles(mapParameters, gameParameters).firstOrNull() ?: return null
+                val mapString = file.readString(Charsets.UTF_8.name())
+                file.delete()
+                mapString
+            }
+            try {
+                val tileMap = MapSaver.mapFromSavedString(mapString)
+                tileMap.setTransients(ruleset)
+                return tileMap
+            } catch (ex: Exception) {
+                // Unreadable, e.g. from an older version - it's gone from the pool, try the next one
+                Log.error("Could not load a pooled map", ex)
+            }
+        }
+    }
+}
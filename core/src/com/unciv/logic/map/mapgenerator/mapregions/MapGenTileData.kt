@@ -10,7 +10,6 @@ import kotlin.math.min
 // Holds a bunch of tile info that is only interesting during map gen
 class MapGenTileData(val tile: Tile, val region: Region?, ruleset: Ruleset) {
     var closeStartPenalty = 0
-    val impacts = HashMap<MapRegions.ImpactType, Int>()
     var isFood = false
         private set
     var isProd = false
@@ -22,6 +21,10 @@ class MapGenTileData(val tile: Tile, val region: Region?, ruleset: Ruleset) {
     var isTwoFromCoast = false
         private set
 
+    /** Start score and whether the surroundings are good enough for a start, before any close start penalty */
+    var baseStartScore = 0
+    var meetsStartMinimums = true
+
     var isGoodStart = true
     var startScore = 0
 
@@ -19,31 +19,67 @@ import com.unciv.models.ruleset.unique.Unique
 import com.unciv.models.ruleset.unique.UniqueType
 import com.unciv.models.translations.equalsPlaceholderText
 import com.unciv.models.translations.getPlaceholderParameters
+import com.unciv.utils.Concurrency
 import com.unciv.utils.Log
 import com.unciv.utils.Tag
 import kotlin.math.abs
 import kotlin.math.max
 import kotlin.math.min
 
-class TileDataMap : HashMap<HexCoord, MapGenTileData>() {
+/** Map gen data for every tile of [tileMap], kept in flat arrays indexed by [Tile.zeroBasedIndex] */
+class TileDataMap(private val tileMap: TileMap, regions: List<Region>, ruleset: Ruleset) {
+    private val data: Array<MapGenTileData>
+    /** Per [MapRegions.ImpactType] ordinal, the impact on every tile - 0 meaning none */
+    private val impacts = Array(MapRegions.ImpactType.entries.size) { IntArray(tileMap.tileList.size) }
+
+    val size get() = data.size
+
+    init {
+        val tiles = tileMap.tileList
+        // A tile in more than one region belongs to the first of them
+        val tileRegions = arrayOfNulls<Region>(tiles.size)
+        for (region in regions.asReversed())
+            for (tile in region.tiles) tileRegions[tile.zeroBasedIndex] = region
+
+        // Evaluating a tile only reads the map, so chunks of tiles can be evaluated side by side
+        val evaluated = arrayOfNulls<MapGenTileData>(tiles.size)
+        val chunks = (tiles.indices step chunkSize).map { chunkStart -> {
+            for (index in chunkStart until min(chunkStart + chunkSize, tiles.size))
+                evaluated[index] = MapGenTileData(tiles[index], tileRegions[index], ruleset)
+        } }
+        Concurrency.parallelize(chunks, parallelize = chunks.size > 1)
+        data = Array(tiles.size) { evaluated[it]!! }
+    }
+
+    operator fun get(tile: Tile) = data[tile.zeroBasedIndex]
+    operator fun get(position: HexCoord) = data[tileMap[position].zeroBasedIndex]
+
+    fun hasImpact(tile: Tile, type: MapRegions.ImpactType) = impacts[type.ordinal][tile.zeroBasedIndex] != 0
+    fun getImpact(tile: Tile, type: MapRegions.ImpactType) = impacts[type.ordinal][tile.zeroBasedIndex]
 
     /** Adds numbers to tileData in a similar way to closeStartPenalty, but for different types */
     fun placeImpact(type: MapRegions.ImpactType, tile: Tile, radius: Int) {
+        val typeImpacts = impacts[type.ordinal]
         // Epicenter
-        this[tile.position]!!.impacts[type] = 99
+        typeImpacts[tile.zeroBasedIndex] = 99
         if (radius <= 0) return
 
         for (ring in 1..radius) {
             val ringValue = radius - ring + 1
             for (outerTile in tile.getTilesAtDistance(ring)) {
-                val data = this[outerTile.position]!!
-                if (data.impacts.containsKey(type))
-                    data.impacts[type] = min(50, max(ringValue, data.impacts[type]!!) + 2)
+                val index = outerTile.zeroBasedIndex
+                if (typeImpacts[index] != 0)
+                    typeImpacts[index] = min(50, max(ringValue, typeImpacts[index]) + 2)
                 else
-                    data.impacts[type] = ringValue
+                    typeImpacts[index] = ringValue
             }
         }
     }
+
+    companion object {
+        /** Tiles per parallel task - smaller maps are done in one go */
+        internal const val chunkSize = 4096
+    }
 }
 
 class MapRegions (val ruleset: Ruleset) {
@@ -83,7 +119,7 @@ class MapRegions (val ruleset: Ruleset) {
     }
 
     private val regions = ArrayList<Region>()
-    private val tileData = TileDataMap()
+    private lateinit var tileData: TileDataMap
     
 
     /** Creates [numRegions] number of balanced regions for civ starting locations. */
@@ -234,10 +270,8 @@ class MapRegions (val ruleset: Ruleset) {
         assignRegionTypes()
 
         // Generate tile data for all tiles
-        for (tile in tileMap.values) {
-            val newData = MapGenTileData(tile, regions.firstOrNull { it.tiles.contains(tile) }, ruleset)
-            tileData[tile.position] = newData
-        }
+        tileData = TileDataMap(tileMap, regions, ruleset)
+        RegionStartFinder.scoreStartCandidates(tileMap, tileData)
 
         // Sort regions by fertility so the worse regions get to pick first
         val sortedRegions = regions.sortedBy { it.totalFertility }
@@ -212,9 +212,8 @@ object MinorCivPlacer {
         while (tileList.isNotEmpty() && civsToPlace.isNotEmpty()) {
             val chosenTile = tileList.random()
             tileList.remove(chosenTile)
-            val data = tileData[chosenTile.position]!!
             // If the randomly chosen tile is too close to a player or a city state, discard it
-            if (data.impacts.containsKey(MapRegions.ImpactType.MinorCiv))
+            if (tileData.hasImpact(chosenTile, MapRegions.ImpactType.MinorCiv))
                 continue
             // Otherwise, go ahead and place the minor civ
             val civToAdd = civsToPlace.first()
@@ -225,7 +224,7 @@ object MinorCivPlacer {
 
     @Readonly
     private fun canPlaceMinorCiv(tile: Tile, tileData: TileDataMap) = !tile.isWater && !tile.isImpassible() &&
-        !tileData[tile.position]!!.isJunk &&
+        !tileData[tile].isJunk &&
         tile.getBaseTerrain().getMatchingUniques(UniqueType.HasQuality).none { it.params[0] == "Undesirable" } && // So we don't get snow hills
         tile.neighbors.count() == 6 // Avoid map edges
 
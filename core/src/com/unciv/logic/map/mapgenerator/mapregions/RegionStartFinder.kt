@@ -4,6 +4,7 @@ import com.badlogic.gdx.math.Rectangle
 import com.badlogic.gdx.math.Vector2
 import com.unciv.Constants
 import com.unciv.logic.map.HexCoord
+import com.unciv.logic.map.TileMap
 import com.unciv.logic.map.mapgenerator.mapregions.MapRegions.Companion.closeStartPenaltyForRing
 import com.unciv.logic.map.mapgenerator.mapregions.MapRegions.Companion.firstRingFoodScores
 import com.unciv.logic.map.mapgenerator.mapregions.MapRegions.Companion.firstRingProdScores
@@ -16,7 +17,9 @@ import com.unciv.logic.map.mapgenerator.mapregions.MapRegions.Companion.secondRi
 import com.unciv.logic.map.tile.Tile
 import com.unciv.logic.map.toHexCoord
 import com.unciv.models.ruleset.tile.TerrainType
+import com.unciv.utils.Concurrency
 import yairm210.purity.annotations.Pure
+import kotlin.math.min
 import kotlin.math.roundToInt
 
 object RegionStartFinder {
@@ -47,7 +50,7 @@ object RegionStartFinder {
         val wetTiles = HashSet<HexCoord>()
         val dryTiles = HashSet<HexCoord>()
         for (tile in centerTiles) {
-            if (tileData[tile.position]!!.isTwoFromCoast)
+            if (tileData[tile].isTwoFromCoast)
                 continue // Don't even consider tiles two from coast
             if (region.continentID != -1 && region.continentID != tile.getContinent())
                 continue // Wrong continent
@@ -63,13 +66,13 @@ object RegionStartFinder {
         }
         // Did we find a good start position?
         for (list in sequenceOf(riverTiles, wetTiles, dryTiles)) {
-            if (list.any { tileData[it]!!.isGoodStart }) {
+            if (list.any { tileData[it].isGoodStart }) {
                 setRegionStart(region, list
-                    .filter { tileData[it]!!.isGoodStart }.maxByOrNull { tileData[it]!!.startScore }!!, tileData)
+                    .filter { tileData[it].isGoodStart }.maxByOrNull { tileData[it].startScore }!!, tileData)
                 return true
             }
             if (list.isNotEmpty()) // Save the best not-good-enough spots for later fallback
-                fallbackTiles.add(list.maxByOrNull { tileData[it]!!.startScore }!!)
+                fallbackTiles.add(list.maxByOrNull { tileData[it].startScore }!!)
         }
         return false
     }
@@ -91,10 +94,10 @@ object RegionStartFinder {
             }
         }
         // Were any of them good?
-        if (dryTiles.any { tileData[it]!!.isGoodStart }) {
+        if (dryTiles.any { tileData[it].isGoodStart }) {
             // Find the one closest to the center
             val center = region.rect.getCenter(Vector2())
-            val closestToCenter = dryTiles.filter { tileData[it]!!.isGoodStart }
+            val closestToCenter = dryTiles.filter { tileData[it].isGoodStart }
                 .minByOrNull {
                 (region.tileMap.getIfTileExistsOrNull(center.x.roundToInt(), center.y.roundToInt())
                     ?: region.tileMap.values.first())
@@ -112,7 +115,7 @@ object RegionStartFinder {
             return true
         }
         if (dryTiles.isNotEmpty())
-            fallbackTiles.add(dryTiles.maxByOrNull { tileData[it]!!.startScore }!!)
+            fallbackTiles.add(dryTiles.maxByOrNull { tileData[it].startScore }!!)
         return false
     }
 
@@ -122,7 +125,7 @@ object RegionStartFinder {
         region: Region
     ) {
         // Fallback time. Just pick the one with best score
-        val fallbackPosition = fallbackTiles.maxByOrNull { tileData[it]!!.startScore }
+        val fallbackPosition = fallbackTiles.maxByOrNull { tileData[it].startScore }
         if (fallbackPosition != null) {
             setRegionStart(region, fallbackPosition, tileData)
             return
@@ -156,10 +159,24 @@ object RegionStartFinder {
     }
 
 
-    /** Evaluates a tile for starting position, setting isGoodStart and startScore in
-     *  MapGenTileData. Assumes that all tiles have corresponding MapGenTileData. */
-    private fun evaluateTileForStart(tile: Tile, tileData: TileDataMap) {
-        val localData = tileData[tile.position]!!
+    /** Scores every tile that could be a start, before close start penalties, see [MapGenTileData.baseStartScore].
+     *  A score only depends on the tile data around the tile, so chunks of tiles are scored side by side
+     *  instead of one region after another - [findStart] then only applies the penalties of the starts found so far. */
+    internal fun scoreStartCandidates(tileMap: TileMap, tileData: TileDataMap) {
+        val tiles = tileMap.tileList
+        val chunks = (tiles.indices step TileDataMap.chunkSize).map { chunkStart -> {
+            for (index in chunkStart until min(chunkStart + TileDataMap.chunkSize, tiles.size)) {
+                val tile = tiles[index]
+                if (tile.isLand && !tile.isImpassible()) scoreTileForStart(tile, tileData)
+            }
+        } }
+        Concurrency.parallelize(chunks, parallelize = chunks.size > 1)
+    }
+
+    /** Sets baseStartScore and meetsStartMinimums in the MapGenTileData of [tile].
+     *  Assumes that all tiles have corresponding MapGenTileData. */
+    private fun scoreTileForStart(tile: Tile, tileData: TileDataMap) {
+        val localData = tileData[tile]
 
         var totalFood = 0
         var totalProd = 0
@@ -174,7 +191,7 @@ object RegionStartFinder {
         for (ring in 1..3) {
             // Sum up the values for this ring
             for (outerTile in tile.getTilesAtDistance(ring)) {
-                val outerTileData = tileData[outerTile.position]!!
+                val outerTileData = tileData[outerTile]
                 if (outerTileData.isJunk)
                     totalJunk++
                 else {
@@ -188,7 +205,7 @@ object RegionStartFinder {
             if (totalFood < minimumFoodForRing[ring]!!
                 || totalProd < minimumProdForRing[ring]!!
                 || totalGood < minimumGoodForRing[ring]!!) {
-                localData.isGoodStart = false
+                localData.meetsStartMinimums = false
             }
 
             // Ring-specific scoring
@@ -214,10 +231,19 @@ object RegionStartFinder {
         }
         // Too much junk?
         if (totalJunk > maximumJunk) {
-            localData.isGoodStart = false
+            localData.meetsStartMinimums = false
         }
+        localData.baseStartScore = totalScore
+    }
+
+    /** Evaluates a tile for starting position, setting isGoodStart and startScore in MapGenTileData
+     *  from its score in [scoreStartCandidates] and any close start penalty. */
+    private fun evaluateTileForStart(tile: Tile, tileData: TileDataMap) {
+        val localData = tileData[tile]
+        if (!localData.meetsStartMinimums) localData.isGoodStart = false
 
         // Finally check if this is near another start
+        var totalScore = localData.baseStartScore
         if (localData.closeStartPenalty > 0) {
             localData.isGoodStart = false
             totalScore -= (totalScore * localData.closeStartPenalty) / 100
@@ -230,7 +256,7 @@ object RegionStartFinder {
 
         for ((ring, penalty) in closeStartPenaltyForRing) {
             for (outerTile in region.tileMap[position].getTilesAtDistance(ring).map { it.position })
-                tileData[outerTile]!!.addCloseStartPenalty(penalty)
+                tileData[outerTile].addCloseStartPenalty(penalty)
         }
     }
 }
@@ -919,7 +919,10 @@ class MapUnit : IsPartOfGameInfoSerialization {
         destroy()
     }
 
-    fun removeFromTile() = currentTile.removeUnit(this)
+    fun removeFromTile() {
+        currentTile.removeUnit(this)
+        civ.spatialIndex.onUnitRemoved(this)
+    }
 
 
     /** Return null if military on tile, or no civilian */
@@ -983,6 +986,8 @@ class MapUnit : IsPartOfGameInfoSerialization {
             isCivilian() -> tile.civilianUnit = this
             else -> tile.militaryUnit = this
         }
+        tile.tileMap.unitPositionsVersion++
+        civ.spatialIndex.onUnitPlaced(this, tile)
         // this check is here in order to not load the fresh built unit into carrier right after the build
         if (baseUnit.movesLikeAirUnits){
             if (!tile.isCityCenter()) isTransported = true
@@ -54,11 +54,26 @@ class Tile : IsPartOfGameInfoSerialization {
 
     var naturalWonder: String? = null
     var resource: String? = null
-        private set
+        private set(value) {
+            if (value == field) return
+            field = value
+            onTileStateChanged()
+        }
     var resourceAmount: Int = 0
 
     var improvement: String? = null
+        set(value) {
+            if (value == field) return
+            field = value
+            tileImprovementCache = null
+            onTileStateChanged()
+        }
     var improvementIsPillaged = false
+        set(value) {
+            if (value == field) return
+            field = value
+            onTileStateChanged()
+        }
 
     internal class ImprovementQueueEntry(
         val improvement: String, turnsToImprovement: Int
@@ -77,8 +92,18 @@ class Tile : IsPartOfGameInfoSerialization {
     internal val improvementQueue = ArrayList<ImprovementQueueEntry>(1)
 
     var roadStatus = RoadStatus.None
+        set(value) {
+            if (value == field) return
+            field = value
+            onTileStateChanged()
+        }
 
     var roadIsPillaged = false
+        set(value) {
+            if (value == field) return
+            field = value
+            onTileStateChanged()
+        }
     private var roadOwner: String = "" // either who last built the road or last owner of tile
 
     @Transient private var roadOwnerObject: Civilization? = null
@@ -195,6 +220,10 @@ class Tile : IsPartOfGameInfoSerialization {
             }
         }
 
+    /** Resolved [improvement], so the many lookups of it don't each hash its name */
+    @Transient @Cache
+    private var tileImprovementCache: TileImprovement? = null
+
 
     val improvementInProgress get() = improvementQueue.firstOrNull()?.improvement
     val turnsToImprovement get() = improvementQueue.firstOrNull()?.turnsToImprovement ?: 0
@@ -239,6 +268,7 @@ class Tile : IsPartOfGameInfoSerialization {
         toReturn.history = history.clone()
         // Setting even though it's transient - where it's needed, it's a real performance saver
         toReturn.tileResourceCache = tileResourceCache
+        toReturn.tileImprovementCache = tileImprovementCache
         return toReturn
     }
 
@@ -289,15 +319,20 @@ class Tile : IsPartOfGameInfoSerialization {
 
     @Readonly fun hasImprovementInProgress() = improvementQueue.isNotEmpty()
 
-    @Readonly fun getTileImprovement(): TileImprovement? = if (improvement == null) null else ruleset.tileImprovements[improvement!!]
+    @Readonly
+    fun getTileImprovement(): TileImprovement? {
+        if (tileImprovementCache == null && improvement != null)
+            tileImprovementCache = ruleset.tileImprovements[improvement!!]
+        return tileImprovementCache
+    }
     @Readonly fun isPillaged(): Boolean = improvementIsPillaged || roadIsPillaged
-    @Readonly fun getUnpillagedTileImprovement(): TileImprovement? = if (getUnpillagedImprovement() == null) null else ruleset.tileImprovements[improvement!!]
+    @Readonly fun getUnpillagedTileImprovement(): TileImprovement? = if (getUnpillagedImprovement() == null) null else getTileImprovement()
     @Readonly fun getTileImprovementInProgress(): TileImprovement? = improvementQueue.firstOrNull()?.let { ruleset.tileImprovements[it.improvement] }
 
     @Readonly
     fun getImprovementToPillage(): TileImprovement? {
         if (canPillageTileImprovement())
-            return ruleset.tileImprovements[improvement]!!
+            return getTileImprovement()!!
         if (canPillageRoad())
             return ruleset.tileImprovements[roadStatus.name]!!
         return null
@@ -314,7 +349,7 @@ class Tile : IsPartOfGameInfoSerialization {
     @Readonly
     fun getImprovementToRepair(): TileImprovement? {
         if (improvement != null && improvementIsPillaged)
-            return ruleset.tileImprovements[improvement]!!
+            return getTileImprovement()!!
         if (roadStatus != RoadStatus.None && roadIsPillaged)
             return ruleset.tileImprovements[roadStatus.name]!!
         return null
@@ -323,8 +358,8 @@ class Tile : IsPartOfGameInfoSerialization {
     @Readonly
     fun canPillageTileImprovement(): Boolean {
         return improvement != null && !improvementIsPillaged
-                && !ruleset.tileImprovements[improvement]!!.hasUnique(UniqueType.Unpillagable)
-                && !ruleset.tileImprovements[improvement]!!.hasUnique(UniqueType.Irremovable)
+                && !getTileImprovement()!!.hasUnique(UniqueType.Unpillagable)
+                && !getTileImprovement()!!.hasUnique(UniqueType.Irremovable)
     }
     @Readonly
     fun canPillageRoad(): Boolean {
@@ -792,10 +827,12 @@ class Tile : IsPartOfGameInfoSerialization {
         if (!ruleset.terrains.containsKey(baseTerrain))
             throw Exception("Terrain $baseTerrain does not exist in ruleset!")
         baseTerrainObject = ruleset.terrains[baseTerrain]!!
+        tileImprovementCache = null // The ruleset may have changed
         setTerrainFeatures(terrainFeatures)
         isWater = getBaseTerrain().type == TerrainType.Water
         isLand = getBaseTerrain().type == TerrainType.Land
         isOcean = baseTerrain == Constants.ocean
+        onTileStateChanged()
 
         // Resource amounts missing - Old save or bad mapgen?
         if (isTilemapInitialized() && tileResource?.resourceType == ResourceType.Strategic && resourceAmount == 0) {
@@ -841,9 +878,17 @@ class Tile : IsPartOfGameInfoSerialization {
             roadOwner = ""
             roadOwnerObject = null
         }
+        // City clones, e.g. for building stat diffs, take over the tiles of their city and hand them back - not a change
+        val isNewOwner = city?.id != owningCity?.id
         owningCity = city
         stateThisTile = GameContext(tile = this, city = city, gameInfo = tileMap.gameInfo)
         isCityCenterInternal = getCity()?.location?.toHexCoord() == position
+        if (isNewOwner) onTileStateChanged()
+    }
+
+    /** Reports the change to [TileMap.onTileChanged], for [TileMap.tileStateVersion] and the caches built on tile state */
+    private fun onTileStateChanged() {
+        if (isTilemapInitialized()) tileMap.onTileChanged(this)
     }
 
     /**
@@ -918,6 +963,7 @@ class Tile : IsPartOfGameInfoSerialization {
             .map { it.params[0].toInt() }.sum()
         tileHeight = if (terrainHasUnique(UniqueType.BlocksLineOfSightAtSameElevation)) unitHeight + 1
         else unitHeight
+        onTileStateChanged()
     }
 
     fun setBaseTerrain(baseTerrainObject: Terrain){
@@ -978,6 +1024,7 @@ class Tile : IsPartOfGameInfoSerialization {
             civilianUnit == mapUnit -> civilianUnit = null
             militaryUnit == mapUnit -> militaryUnit = null
         }
+        if (::tileMap.isInitialized) tileMap.unitPositionsVersion++
     }
 
     /** Does not remove roads */
@@ -37,28 +37,41 @@ class TileStatFunctions(val tile: Tile) {
         city: City?, observingCiv: Civilization?,
         localUniqueCache: LocalUniqueCache = LocalUniqueCache(false)
     ): Stats {
-        val statsBreakdown = getTileStatsBreakdown(city, observingCiv, localUniqueCache)
+        // The breakdown entries are not cloned here and must not be mutated - percentages are applied while summing
+        val statsBreakdown = collectTileStatsBreakdown(city, observingCiv, localUniqueCache)
 
         val improvement = tile.getUnpillagedImprovement()
         val road = tile.getUnpillagedRoad()
 
         val percentageStats = getTilePercentageStats(observingCiv, city, localUniqueCache)
-        for ((cause, @LocalState stats) in statsBreakdown) {
+        val totalStats = Stats()
+        for ((cause, stats) in statsBreakdown) {
             val tileType = when (cause) {
                 improvement -> TilePercentageCategory.Improvement
                 road.name -> TilePercentageCategory.Road
                 else -> TilePercentageCategory.Terrain
             }
-            for ((stat, value) in percentageStats[tileType]!!)
-                stats[stat] *= value.toPercent()
+            val percentages = percentageStats[tileType]!!
+            for (stat in Stat.entries)
+                totalStats[stat] += stats[stat] * percentages[stat].toPercent()
         }
 
-        return statsBreakdown.toStats()
+        return totalStats
     }
 
     @Readonly
     fun getTileStatsBreakdown(city: City?, observingCiv: Civilization?,
                               localUniqueCache: LocalUniqueCache = LocalUniqueCache(false)
+    ): List<Pair<String, Stats>> {
+        // To ensure that the original stats (in uniques, terrains, etc) are not modified by callers, we clone them all
+        return collectTileStatsBreakdown(city, observingCiv, localUniqueCache)
+            .filter { !it.second.isEmpty() }.map { it.first to it.second.clone() }
+    }
+
+    /** Breakdown of the tile's yields by cause, **referencing** ruleset and unique [Stats] instances - read only! */
+    @Readonly
+    private fun collectTileStatsBreakdown(city: City?, observingCiv: Civilization?,
+                                          localUniqueCache: LocalUniqueCache
     ): List<Pair<String, Stats>> {
         val gameContext = GameContext(civInfo = observingCiv, city = city, tile = tile)
         @LocalState val listOfStats = getTerrainStatsBreakdown(gameContext)
@@ -137,8 +150,7 @@ class TileStatFunctions(val tile: Tile) {
             listOfStats.toStats().gold != 0f && observingCiv.goldenAges.isGoldenAge())
             listOfStats.add("Golden Age" to Stats(gold = 1f))
 
-        // To ensure that the original stats (in uniques, terrains, etc) are not modified in getTileStats, we clone them all
-        return listOfStats.filter { !it.second.isEmpty() }.map { it.first to it.second.clone() }
+        return listOfStats
     }
 
     /** Ensures each stat is >= [minimumStats].stat - modifies in place */
@@ -4,6 +4,8 @@ import com.unciv.Constants
 import com.unciv.UncivGame
 import com.unciv.logic.GameInfo
 import com.unciv.logic.GameStarter
+import com.unciv.logic.automation.civilization.AutomationTurnScheduler
+import com.unciv.logic.city.CityStatsStageTracker
 import com.unciv.models.metadata.GameSetupInfo
 import com.unciv.utils.Dispatcher
 import kotlinx.coroutines.CoroutineName
@@ -276,6 +278,10 @@ class Simulation(
         outString += "\nAverage speed: %.1f turns/s \n".format(avgSpeed)
         outString += "Average game duration: $avgDuration\n"
         outString += "Total time: $totalDuration\n"
+        outString += "City stats stages recomputed: " + CityStatsStageTracker.getRecomputationRates().entries
+            .joinToString { "${it.key} %.1f%%".format(it.value * 100) } + "\n"
+        outString += "AI turn phases:\n" + AutomationTurnScheduler.getPhaseCounters().entries
+            .joinToString("\n") { "  ${it.key}: ${it.value}" } + "\n"
 
         return outString
     }
@@ -86,6 +86,7 @@ class Religion() : INamed, IsPartOfGameInfoSerialization {
             }
         }
         updateUniqueMaps()
+        gameInfo.onCivStateChanged()
     }
 
     fun addBelief(belief: Belief) = addBeliefs(listOf(belief))
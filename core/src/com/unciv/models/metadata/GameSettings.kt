@@ -78,6 +78,11 @@ class GameSettings {
     var automatedUnitsCanUpgrade: Boolean = false
     var automatedUnitsChoosePromotions: Boolean = false
     var citiesAutoBombardAtEndOfTurn: Boolean = false
+    /** Work each automated civ's turn may do before its less important phases are skipped, 0 for no limit. Ignored in multiplayer.
+     *  Each of the about 25 phases run counts 1, as does each unit moved - so 100 leaves a civ with 75 units all of its phases. */
+    var aiTurnWorkBudget = 0
+    /** Gather city-state quest targets on worker threads, see [MinorCivTurnAnalysis][com.unciv.logic.civilization.managers.MinorCivTurnAnalysis] */
+    var parallelMinorCivAnalysis = false
 
     var showMinimap: Boolean = true
     var minimapSize: Int = 6    // default corresponds to 15% screen space
@@ -275,7 +275,7 @@ class Building : RulesetStatsObject(), INonPerpetualConstruction {
         val civ = city.civ
         val stateForConditionals = city.state
 
-        if (cityConstructions.isBuilt(name))
+        if (cityConstructions.isBuilt(this@Building))
             yield(RejectionReasonType.AlreadyBuilt.toInstance())
 
         if (isUnavailableBySettings(civ.gameInfo)) {
@@ -385,13 +385,13 @@ class Building : RulesetStatsObject(), INonPerpetualConstruction {
 
         // World Wonders
         if (isWonder) {
-            if (civ.gameInfo.getCities().any { it.cityConstructions.isBuilt(name) })
+            if (civ.gameInfo.getCities().any { it.cityConstructions.isBuilt(this@Building) })
                 yield(RejectionReasonType.WonderAlreadyBuilt.toInstance())
         }
 
         // National Wonders
         if (isNationalWonder) {
-            if (civ.cities.any { it.cityConstructions.isBuilt(name) })
+            if (civ.cities.any { it.cityConstructions.isBuilt(this@Building) })
                 yield(RejectionReasonType.NationalWonderAlreadyBuilt.toInstance())
         }
 
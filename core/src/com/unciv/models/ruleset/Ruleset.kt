@@ -2,9 +2,8 @@ package com.unciv.models.ruleset
 
 import com.badlogic.gdx.Gdx
 import com.badlogic.gdx.files.FileHandle
-import com.badlogic.gdx.utils.JsonReader
+import com.badlogic.gdx.utils.JsonValue
 import com.unciv.Constants
-import com.unciv.json.fromJsonFile
 import com.unciv.json.json
 import com.unciv.logic.BackwardCompatibility.updateDeprecations
 import com.unciv.logic.GameInfo
@@ -193,8 +192,29 @@ class Ruleset {
         return hashMap
     }
 
+    /** Where [load] gets its parsed json from - a [RulesetSnapshotCache] snapshot, or the files themselves */
+    private var jsonSource = RulesetJsonSource.Files
+
+    private fun parseJson(fileHandle: FileHandle): JsonValue {
+        try {
+            return jsonSource.parse(fileHandle)
+        } catch (exception: Exception) {
+            throw Exception("Could not parse json of file ${fileHandle.name()}", exception)
+        }
+    }
+
+    /** Equivalent of [fromJsonFile][com.unciv.json.fromJsonFile], reading through [jsonSource] */
+    private fun <T> readJson(tClass: Class<T>, fileHandle: FileHandle, jsonValue: JsonValue = parseJson(fileHandle)): T {
+        try {
+            return json().readValue(tClass, null, jsonValue)
+        } catch (exception: Exception) {
+            throw Exception("Could not parse json of file ${fileHandle.name()}", exception)
+        }
+    }
+
     private fun <T : INamed> loadNamedArray(arrayClass: Class<Array<T>>, fileHandle: FileHandle): Array<T> {
-        val items = json().fromJsonFile(arrayClass, fileHandle)
+        val rawArray = parseJson(fileHandle)
+        val items = readJson(arrayClass, fileHandle, rawArray)
         if (PlatformCapabilities.current.backgroundThreadPools) return items
 
         fun com.badlogic.gdx.utils.JsonValue.readStringOrNull(name: String): String? {
@@ -258,7 +278,6 @@ class Ruleset {
             }
         }
 
-        val rawArray = JsonReader().parse(fileHandle)
         val rawEntries = ArrayList<com.badlogic.gdx.utils.JsonValue>()
         val rawByName = LinkedHashMap<String, com.badlogic.gdx.utils.JsonValue>()
         var rawCursor = rawArray.child
@@ -595,7 +614,8 @@ class Ruleset {
     }
 
     private fun loadTechColumns(fileHandle: FileHandle): Array<TechColumn> {
-        val parsed = json().fromJsonFile(Array<TechColumn>::class.java, fileHandle)
+        val rawRoot = parseJson(fileHandle)
+        val parsed = readJson(Array<TechColumn>::class.java, fileHandle, rawRoot)
         if (PlatformCapabilities.current.backgroundThreadPools) return parsed
 
         fun com.badlogic.gdx.utils.JsonValue.readStringArray(name: String): ArrayList<String> {
@@ -609,7 +629,6 @@ class Ruleset {
             return values
         }
 
-        val rawRoot = JsonReader().parse(fileHandle)
         if (!rawRoot.isArray) return parsed
 
         val columns = ArrayList<TechColumn>()
@@ -795,7 +814,17 @@ class Ruleset {
     fun allUniques(): Sequence<Unique> = RulesetFile.entries.asSequence().flatMap { it.getUniques(this) }
     @Readonly fun allICivilopediaText(): Sequence<ICivilopediaText> = allRulesetObjects() + events.values.flatMap { it.choices }
 
-    fun load(folderHandle: FileHandle) {
+    /** Loads all ruleset files from [folderHandle], parsed by [jsonSource] - see [RulesetSnapshotCache] */
+    fun load(folderHandle: FileHandle, jsonSource: RulesetJsonSource = RulesetJsonSource.Files) {
+        this.jsonSource = jsonSource
+        try {
+            loadFiles(folderHandle)
+        } finally {
+            this.jsonSource = RulesetJsonSource.Files
+        }
+    }
+
+    private fun loadFiles(folderHandle: FileHandle) {
         fun RulesetFile.file() = folderHandle.child(filename)
 
         // Note: Most files are loaded using createHashmap, which sets originRuleset automatically.
@@ -803,7 +832,7 @@ class Ruleset {
         val modOptionsFile = RulesetFile.ModOptions.file()
         if (modOptionsFile.exists()) {
             try {
-                modOptions = json().fromJsonFile(ModOptions::class.java, modOptionsFile)
+                modOptions = readJson(ModOptions::class.java, modOptionsFile)
                 modOptions.updateDeprecations()
             } catch (ex: Exception) {
                 Log.error("Failed to get modOptions from json file", ex)
@@ -927,7 +956,7 @@ class Ruleset {
 
         val religionsFile = RulesetFile.Religions.file()
         if (religionsFile.exists())
-            religions += json().fromJsonFile(Array<String>::class.java, religionsFile).toList()
+            religions += readJson(Array<String>::class.java, religionsFile).toList()
 
         val ruinRewardsFile = RulesetFile.Ruins.file()
         if (ruinRewardsFile.exists())
@@ -945,7 +974,7 @@ class Ruleset {
 
         val globalUniquesFile = RulesetFile.GlobalUniques.file()
         if (globalUniquesFile.exists()) {
-            globalUniques = json().fromJsonFile(GlobalUniques::class.java, globalUniquesFile)
+            globalUniques = readJson(GlobalUniques::class.java, globalUniquesFile)
             globalUniques.originRuleset = name
         }
 
@@ -1026,6 +1055,7 @@ class Ruleset {
 
         }
         updateResourceTransients()
+        assignObjectIds()
     }
 
     /** Building costs are unique in that they are dependant on info in the technology part.
@@ -1042,6 +1072,11 @@ class Ruleset {
         }
     }
 
+    /** Gives all objects their [IRulesetObject.id] in ruleset order, so a complete ruleset's ids are as dense as possible */
+    internal fun assignObjectIds() {
+        for (rulesetObject in allRulesetObjects()) rulesetObject.id // Assigned on first access
+    }
+
     /** Introduced to support UniqueType.ImprovesResources: gives a resource the chance to scan improvements */
     internal fun updateResourceTransients() {
         for (resource in tileResources.values)
@@ -7,6 +7,7 @@ import com.unciv.logic.UncivShowableException
 import com.unciv.logic.map.MapParameters
 import com.unciv.models.metadata.BaseRuleset
 import com.unciv.models.metadata.GameParameters
+import com.unciv.models.ruleset.unique.expressions.Expressions
 import com.unciv.models.ruleset.validation.RulesetErrorList
 import com.unciv.models.ruleset.validation.RulesetErrorSeverity
 import com.unciv.models.ruleset.validation.getRelativeTextDistance
@@ -40,7 +41,7 @@ object RulesetCache : HashMap<String, Ruleset>() {
             val fileHandle = getBuiltinRulesetFileHandle(ruleset)
             newRulesets[ruleset.fullName] = Ruleset().apply {
                 name = ruleset.fullName
-                load(fileHandle)
+                RulesetSnapshotCache.load(this, fileHandle)
             }
         }
 
@@ -81,6 +82,7 @@ object RulesetCache : HashMap<String, Ruleset>() {
                 }
             }
             if (Log.shouldLog()) for (line in errorLines) Log.debug(line)
+            RulesetSnapshotCache.prune(newRulesets.keys)
         }
 
         // We save the 'old' cache values until we're ready to replace everything, so that the cache isn't empty while we try to load ruleset files
@@ -98,7 +100,7 @@ object RulesetCache : HashMap<String, Ruleset>() {
         return try {
             val modRuleset = Ruleset()
             modRuleset.name = modFolder.name()
-            modRuleset.load(modFolder.child("jsons"))
+            RulesetSnapshotCache.load(modRuleset, modFolder.child("jsons"))
             modRuleset.folderLocation = modFolder
             Log.debug("Mod loaded successfully: %s", modRuleset.name)
             modRuleset
@@ -200,6 +202,8 @@ object RulesetCache : HashMap<String, Ruleset>() {
         }
         newRuleset.updateBuildingCosts() // only after we've added all the mods can we calculate the building costs
         newRuleset.updateResourceTransients()
+        newRuleset.assignObjectIds()
+        Expressions.precompile(newRuleset)
 
         return newRuleset
     }
@@ -6,14 +6,25 @@ import com.unciv.models.ruleset.unique.UniqueMap
 import com.unciv.models.stats.NamedStats
 import com.unciv.ui.screens.civilopediascreen.FormattedLine
 import com.unciv.ui.screens.civilopediascreen.ICivilopediaText
+import yairm210.purity.annotations.Cache
+import yairm210.purity.annotations.Readonly
 
 interface IRulesetObject: IHasUniques, ICivilopediaText {
     var originRuleset: String
+    /** Dense id of this object's name among all objects of its kind, see [RulesetObjectIds] */
+    val id: Int
 }
 
 abstract class RulesetObject: IRulesetObject {
     override var name = ""
     override var originRuleset = ""
+    @Transient @Cache
+    private var cachedId = -1
+    override val id: Int
+        @Readonly get() {
+            if (cachedId < 0) cachedId = RulesetObjectIds.getId(javaClass, name)
+            return cachedId
+        }
     override var uniques = ArrayList<String>() // Can not be a hashset as that would remove doubles
     @delegate:Transient
     override val uniqueObjects: List<Unique> by lazy (::uniqueObjectsProvider)
@@ -27,6 +38,13 @@ abstract class RulesetObject: IRulesetObject {
 // Same, but inherits from NamedStats - I couldn't find a way to unify the declarations but this is fine
 abstract class RulesetStatsObject: NamedStats(), IRulesetObject {
     override var originRuleset = ""
+    @Transient @Cache
+    private var cachedId = -1
+    override val id: Int
+        @Readonly get() {
+            if (cachedId < 0) cachedId = RulesetObjectIds.getId(javaClass, name)
+            return cachedId
+        }
     override var uniques = ArrayList<String>() // Can not be a hashset as that would remove doubles
     @delegate:Transient
     override val uniqueObjects: List<Unique> by lazy (::uniqueObjectsProvider)
@@ -0,0 +1,30 @@
+package com.unciv.models.ruleset
+
+import yairm210.purity.annotations.Readonly
+
+/**
+ *  Dense integer ids for ruleset objects, one id space per kind (class) of object, so caches can keep per-object
+ *  state in arrays or bit sets indexed by [IRulesetObject.id] instead of hash sets of names.
+ *
+ *  Ids are given out per name, not per object instance: a base ruleset and every combined ruleset built on it share
+ *  their objects, and a mod replacing an object keeps its name - so an id means the same thing in every ruleset.
+ *  A ruleset assigns the ids of all its objects in order when it is complete ([Ruleset.assignObjectIds]), so the ids
+ *  of the base rulesets are packed from 0, and names first seen in mods get the next ones.
+ *  Saves keep using names - ids depend on what was loaded, and are not stable between launches.
+ */
+object RulesetObjectIds {
+    private val idsByKind = HashMap<Class<*>, HashMap<String, Int>>()
+
+    /** Id of the object of [kind] named [name], assigning the next free one if the name is new */
+    @Readonly @Suppress("purity") // Hands out the next id to names not seen before - once given, an id never changes
+    @Synchronized
+    fun getId(kind: Class<*>, name: String): Int {
+        val ids = idsByKind.getOrPut(kind) { HashMap() }
+        return ids.getOrPut(name) { ids.size }
+    }
+
+    /** How many ids objects of [kind] have been given so far - a size for arrays indexed by them */
+    @Readonly
+    @Synchronized
+    fun getCount(kind: Class<*>): Int = idsByKind[kind]?.size ?: 0
+}
@@ -0,0 +1,146 @@
+package com.unciv.models.ruleset
+
+import com.badlogic.gdx.Gdx
+import com.badlogic.gdx.files.FileHandle
+import com.badlogic.gdx.utils.JsonReader
+import com.badlogic.gdx.utils.JsonValue
+import com.badlogic.gdx.utils.UBJsonReader
+import com.badlogic.gdx.utils.UBJsonWriter
+import com.unciv.utils.Log
+import com.unciv.utils.debug
+import java.io.ByteArrayInputStream
+import java.util.zip.CRC32
+
+/** Supplies the parsed json for [Ruleset.load] */
+fun interface RulesetJsonSource {
+    fun parse(file: FileHandle): JsonValue
+
+    companion object {
+        val Files = RulesetJsonSource { JsonReader().parse(it) }
+    }
+}
+
+/**
+ *  Binary snapshots of the parsed json of each ruleset, so unchanged rulesets don't need their json text parsed on every launch.
+ *
+ *  A snapshot holds the [JsonValue] trees of all files of one ruleset in libGDX's binary json format (UBJSON),
+ *  together with a key computed from the size and modification time of those files (their content, where the
+ *  file system doesn't tell modification times). Any mismatch or unreadable snapshot falls back to the json files,
+ *  and the snapshot is rewritten.
+ *
+ *  Snapshots deliberately contain json trees rather than the deserialized [Ruleset] objects: everything [Ruleset.load]
+ *  does with the trees still runs, so they stay valid when the ruleset classes change - only [formatVersion] matters.
+ */
+object RulesetSnapshotCache {
+    private const val formatVersion = 1
+    private const val fileExtension = ".ubj"
+
+    /** Where snapshots are stored - `null` disables them. Set by the launchers, so tests never write snapshots. */
+    var folder: FileHandle? = null
+
+    /** Records every tree it parses, for writing a new snapshot */
+    private class RecordingJsonSource : RulesetJsonSource {
+        val trees = LinkedHashMap<String, JsonValue>()
+        override fun parse(file: FileHandle) = JsonReader().parse(file).also { trees[file.path()] = it }
+    }
+
+    private class SnapshotJsonSource(private val trees: Map<String, JsonValue>) : RulesetJsonSource {
+        override fun parse(file: FileHandle) = trees[file.path()] ?: JsonReader().parse(file)
+    }
+
+    /** Loads [ruleset] from [jsonFolder] like [Ruleset.load] does, using and maintaining a snapshot when [folder] is set */
+    fun load(ruleset: Ruleset, jsonFolder: FileHandle) {
+        val snapshotFolder = folder
+        if (snapshotFolder == null) {
+            ruleset.load(jsonFolder)
+            return
+        }
+
+        val key = getKey(jsonFolder)
+        val snapshotFile = snapshotFolder.child(getSnapshotFileName(ruleset.name))
+        val snapshot = readSnapshot(snapshotFile, key)
+        if (snapshot != null) {
+            ruleset.load(jsonFolder, snapshot)
+            return
+        }
+
+        val recorder = RecordingJsonSource()
+        ruleset.load(jsonFolder, recorder)
+        writeSnapshot(snapshotFile, key, recorder.trees)
+    }
+
+    /** Deletes the snapshots of rulesets no longer present */
+    fun prune(rulesetNames: Collection<String>) {
+        val snapshotFolder = folder ?: return
+        if (!snapshotFolder.exists()) return
+        val expectedFileNames = rulesetNames.map { getSnapshotFileName(it) }.toSet()
+        for (file in snapshotFolder.list(fileExtension))
+            if (file.name() !in expectedFileNames) file.delete()
+    }
+
+    private fun getSnapshotFileName(rulesetName: String) =
+        rulesetName.replace(Regex("""[^\w.-]"""), "_") + fileExtension
+
+    private fun getSourceFiles(jsonFolder: FileHandle): List<FileHandle> {
+        val files = RulesetFile.entries.map { jsonFolder.child(it.filename) }.toMutableList()
+        // Ruleset.load also reads the global tutorials when not running in console mode
+        if (Gdx.files != null) files += Gdx.files.internal("jsons").child(RulesetFile.Tutorials.filename)
+        return files
+    }
+
+    private fun getKey(jsonFolder: FileHandle): String {
+        val crc = CRC32()
+        fun update(text: String) = crc.update(text.toByteArray())
+        update(formatVersion.toString())
+        for (file in getSourceFiles(jsonFolder)) {
+            update(file.path())
+            if (!file.exists()) continue
+            val lastModified = file.lastModified()
+            if (lastModified == 0L) crc.update(file.readBytes()) // e.g. packaged in a jar or apk
+            else update("${file.length()}@$lastModified")
+        }
+        return crc.value.toString(16)
+    }
+
+    private fun readSnapshot(snapshotFile: FileHandle, key: String): SnapshotJsonSource? {
+        if (!snapshotFile.exists()) return null
+        return try {
+            val root = readTree(snapshotFile)
+            if (root.getInt("formatVersion", 0) != formatVersion || root.getString("key", "") != key) return null
+            val trees = HashMap<String, JsonValue>()
+            var file = root.get("files")?.child
+            while (file != null) {
+                trees[file.name] = file
+                file = file.next
+            }
+            SnapshotJsonSource(trees)
+        } catch (ex: Exception) {
+            Log.debug("Ignoring unreadable ruleset snapshot %s: %s", snapshotFile.name(), ex.message)
+            null
+        }
+    }
+
+    /** Reads the whole snapshot into memory in one go, then parses it from there - the file is closed before parsing */
+    private fun readTree(snapshotFile: FileHandle): JsonValue =
+        UBJsonReader().parse(ByteArrayInputStream(snapshotFile.readBytes()))
+
+    private fun writeSnapshot(snapshotFile: FileHandle, key: String, trees: Map<String, JsonValue>) {
+        try {
+            UBJsonWriter(snapshotFile.write(false)).use { writer ->
+                writer.`object`()
+                writer.name("formatVersion").value(formatVersion)
+                writer.name("key").value(key)
+                writer.name("files").`object`()
+                for ((path, tree) in trees)
+                    writer.name(path).value(tree)
+                writer.pop()
+                writer.pop()
+            }
+            debug("Wrote ruleset snapshot %s", snapshotFile.name())
+        } catch (ex: Exception) {
+            // Read-only data folder or similar - loading from json still works, just slower
+            Log.debug("Could not write ruleset snapshot %s: %s", snapshotFile.name(), ex.message)
+            snapshotFile.delete()
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.unciv.models.ruleset.unique.expressions
+
+import com.unciv.models.ruleset.Ruleset
+import com.unciv.models.ruleset.unique.Countables
+import com.unciv.models.ruleset.unique.GameContext
+import yairm210.purity.annotations.Readonly
+
+/**
+ *  A [Node] tree lowered to a flat postfix program, for repeated evaluation.
+ *
+ *  - Subtrees without countables are [folded][Node.fold] into constants before lowering.
+ *  - Evaluation runs over a thread-local operand stack, so it doesn't allocate and doesn't box.
+ *  - Countables are resolved once per [Ruleset] instead of on every evaluation.
+ *
+ *  Instances are immutable apart from the resolved countables, which are swapped atomically - safe to share between threads.
+ */
+internal class CompiledExpression private constructor(
+    /** Each instruction is an opcode in the lower [OPCODE_BITS] bits and an index into the matching array above them */
+    private val program: IntArray,
+    private val constants: DoubleArray,
+    private val countables: Array<Node.Countable>,
+    private val unaryOperators: Array<Operator.Unary>,
+    private val binaryOperators: Array<Operator.Binary>,
+    private val maxStackDepth: Int
+) {
+    private class ResolvedCountables(val ruleset: Ruleset, val countables: Array<Countables?>)
+
+    @Volatile private var resolved: ResolvedCountables? = null
+
+    /** Resolves the countables for [ruleset] ahead of the first [eval] */
+    fun resolveCountables(ruleset: Ruleset): Array<Countables?> {
+        val current = resolved
+        if (current != null && current.ruleset === ruleset) return current.countables
+        val newResolved = ResolvedCountables(ruleset, Array(countables.size) { countables[it].getCountable(ruleset) })
+        resolved = newResolved
+        return newResolved.countables
+    }
+
+    @Readonly @Suppress("purity") // Only touches the thread-confined scratch stack and the resolution cache
+    fun eval(context: GameContext): Double {
+        val ruleset = context.gameInfo?.ruleset
+        val resolvedCountables = if (countables.isEmpty() || ruleset == null) null else resolveCountables(ruleset)
+
+        val scratch = scratchStack.get()
+        val base = scratch.reserve(maxStackDepth)
+        // Nested evaluations (expression countables inside expressions) may grow the scratch array,
+        // this frame keeps working on the array it started with
+        val stack = scratch.values
+        var top = base
+        try {
+            for (instruction in program) {
+                val index = instruction ushr OPCODE_BITS
+                when (instruction and OPCODE_MASK) {
+                    PUSH_CONSTANT -> stack[top++] = constants[index]
+                    PUSH_COUNTABLE -> stack[top++] = evalCountable(index, ruleset, resolvedCountables, context)
+                    UNARY -> stack[top - 1] = unaryOperators[index].implementation(stack[top - 1])
+                    BINARY -> {
+                        top--
+                        stack[top - 1] = binaryOperators[index].implementation(stack[top - 1], stack[top])
+                    }
+                }
+            }
+            return stack[base]
+        } finally {
+            scratch.release(base)
+        }
+    }
+
+    @Readonly
+    private fun evalCountable(index: Int, ruleset: Ruleset?, resolvedCountables: Array<Countables?>?, context: GameContext): Double {
+        // Same as Node.Countable.eval: no ruleset means no countables
+        if (ruleset == null || resolvedCountables == null) return 0.0
+        val countable = countables[index]
+        // Unresolved countables are retried, as tests and the mod checker may add ruleset objects after the first evaluation
+        return countable.eval(resolvedCountables[index] ?: countable.getCountable(ruleset), context)
+    }
+
+    private class ScratchStack {
+        var values = DoubleArray(16)
+        private var top = 0
+
+        fun reserve(size: Int): Int {
+            val base = top
+            top += size
+            if (top > values.size) values = values.copyOf(maxOf(top, values.size * 2))
+            return base
+        }
+
+        fun release(base: Int) {
+            top = base
+        }
+    }
+
+    private class Builder {
+        val program = ArrayList<Int>()
+        val constants = ArrayList<Double>()
+        val countables = ArrayList<Node.Countable>()
+        val unaryOperators = ArrayList<Operator.Unary>()
+        val binaryOperators = ArrayList<Operator.Binary>()
+        var depth = 0
+        var maxDepth = 0
+
+        fun emit(opcode: Int, index: Int, depthChange: Int) {
+            program += (index shl OPCODE_BITS) or opcode
+            depth += depthChange
+            if (depth > maxDepth) maxDepth = depth
+        }
+
+        fun <T> indexIn(list: ArrayList<T>, item: T): Int {
+            val index = list.indexOf(item)
+            if (index >= 0) return index
+            list += item
+            return list.lastIndex
+        }
+
+        fun lower(node: Node) {
+            when (node) {
+                is Node.Constant -> emit(PUSH_CONSTANT, indexIn(constants, node.value), 1)
+                is Node.Countable -> emit(PUSH_COUNTABLE, indexIn(countables, node), 1)
+                is Node.UnaryOperation -> {
+                    lower(node.operand)
+                    emit(UNARY, indexIn(unaryOperators, node.operator), 0)
+                }
+                is Node.BinaryOperation -> {
+                    lower(node.left)
+                    lower(node.right)
+                    emit(BINARY, indexIn(binaryOperators, node.operator), -1)
+                }
+            }
+        }
+
+        fun build() = CompiledExpression(
+            program.toIntArray(), constants.toDoubleArray(), countables.toTypedArray(),
+            unaryOperators.toTypedArray(), binaryOperators.toTypedArray(), maxDepth
+        )
+    }
+
+    companion object {
+        private const val OPCODE_BITS = 2
+        private const val OPCODE_MASK = (1 shl OPCODE_BITS) - 1
+        private const val PUSH_CONSTANT = 0
+        private const val PUSH_COUNTABLE = 1
+        private const val UNARY = 2
+        private const val BINARY = 3
+
+        private val scratchStack = ThreadLocal.withInitial { ScratchStack() }
+
+        @Readonly @Suppress("purity") // Builder is local state
+        fun compile(node: Node): CompiledExpression {
+            val builder = Builder()
+            builder.lower(node.fold())
+            return builder.build()
+        }
+    }
+}
@@ -1,10 +1,14 @@
 package com.unciv.models.ruleset.unique.expressions
 
 import com.unciv.models.ruleset.Ruleset
+import com.unciv.models.ruleset.unique.Countables
 import com.unciv.models.ruleset.unique.GameContext
+import com.unciv.models.ruleset.unique.Unique
+import com.unciv.models.ruleset.unique.UniqueParameterType
 import com.unciv.models.ruleset.unique.UniqueType
 import yairm210.purity.annotations.Cache
 import yairm210.purity.annotations.Readonly
+import java.util.concurrent.ConcurrentHashMap
 import kotlin.math.roundToInt
 
 /** 
@@ -30,8 +34,8 @@ class Expressions {
 
     @Readonly
     fun eval(parameterText: String, gameContext: GameContext): Int? {
-        val node = parse(parameterText).node ?: return null
-        return node.eval(gameContext).roundToInt()
+        val compiled = parse(parameterText).compiled ?: return null
+        return compiled.eval(gameContext).roundToInt()
     }
 
     @Readonly
@@ -44,10 +48,17 @@ class Expressions {
         }
     }
 
-    private data class ParseResult(/** null if there was a parse error */ val node: Node?, val exception: Parser.ParsingError?)
+    private class ParseResult(
+        /** null if there was a parse error */ val node: Node?,
+        val exception: Parser.ParsingError?
+    ) {
+        /** The [node] lowered for evaluation, null if there was a parse error */
+        val compiled = node?.let { CompiledExpression.compile(it) }
+    }
 
     companion object {
-        @Cache private val cache: MutableMap<String, ParseResult> = mutableMapOf()
+        /** Shared by all threads - evaluation happens from the UI, the next-turn coroutine and the simulation threads alike */
+        @Cache private val cache = ConcurrentHashMap<String, ParseResult>()
 
         @Readonly
         private fun parse(parameterText: String): ParseResult = cache.getOrPut(parameterText) {
@@ -58,6 +69,36 @@ class Expressions {
                 ParseResult(null, ex)
             }
         }
+
+        /** @return the cached compiled form of [parameterText], throwing the cached [Parser.ParsingError] if it doesn't parse */
+        @Readonly
+        internal fun compile(parameterText: String): CompiledExpression {
+            val parseResult = parse(parameterText)
+            return parseResult.compiled ?: throw parseResult.exception!!
+        }
+
+        /**
+         *  Compiles all expressions used as countables in [ruleset]'s uniques and resolves their countables,
+         *  so the first evaluation in a game doesn't pay for it.
+         */
+        fun precompile(ruleset: Ruleset) {
+            for (uniqueText in ruleset.allRulesetObjects().flatMap { it.uniques }) {
+                if (uniqueText.none { it in expressionCharacters }) continue
+                // Raw strings and a standalone Unique, so the ruleset objects' uniqueObjects lazies aren't triggered
+                val unique = Unique(uniqueText)
+                for (uniqueOrModifier in sequenceOf(unique) + unique.modifiers) {
+                    val type = uniqueOrModifier.type ?: continue
+                    for ((index, param) in uniqueOrModifier.params.withIndex()) {
+                        if (UniqueParameterType.Countable !in type.parameterTypeMap.getOrNull(index).orEmpty()) continue
+                        if (Countables.getMatching(param, ruleset) != Countables.Expression) continue
+                        parse(param).compiled?.resolveCountables(ruleset)
+                    }
+                }
+            }
+        }
+
+        /** Uniques without any of these can't contain an expression other than a plain countable or number */
+        private const val expressionCharacters = "+-*/%^()√"
         
         @Readonly
         fun getParsingError(parameterText: String): Parser.ParsingError? = 
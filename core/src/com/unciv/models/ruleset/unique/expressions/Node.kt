@@ -8,6 +8,8 @@ import yairm210.purity.annotations.Readonly
 internal sealed interface Node {
     @Readonly fun eval(context: GameContext): Double
     @Readonly fun getErrors(ruleset: Ruleset): List<String>
+    /** @return an equivalent tree with all subtrees that don't depend on countables replaced by their value */
+    @Readonly fun fold(): Node = this
 
     // All elements below are not members, they're nested for namespace notation and common visibility
     // All toString() are for debugging only
@@ -22,14 +24,19 @@ internal sealed interface Node {
         override fun toString() = value.toString()
     }
 
-    class UnaryOperation(private val operator: Operator.Unary, private val operand: Node): Node {
+    class UnaryOperation(val operator: Operator.Unary, val operand: Node): Node {
         @Suppress("purity") // cannot mark class val as @Read
         override fun eval(context: GameContext): Double = operator.implementation(operand.eval(context))
         override fun toString() = "($operator $operand)"
         override fun getErrors(ruleset: Ruleset) = operand.getErrors(ruleset)
+        override fun fold(): Node {
+            val foldedOperand = operand.fold()
+            if (foldedOperand is Constant) return NumericConstant(operator.implementation(foldedOperand.value))
+            return UnaryOperation(operator, foldedOperand)
+        }
     }
 
-    class BinaryOperation(private val operator: Operator.Binary, private val left: Node, private val right: Node): Node {
+    class BinaryOperation(val operator: Operator.Binary, val left: Node, val right: Node): Node {
         override fun eval(context: GameContext): Double = operator.implementation(left.eval(context), right.eval(context))
         override fun toString() = "($left $operator $right)"
         override fun getErrors(ruleset: Ruleset): List<String> {
@@ -37,22 +44,33 @@ internal sealed interface Node {
             val rightErrors = right.getErrors(ruleset)
             return leftErrors + rightErrors
         }
+        override fun fold(): Node {
+            val foldedLeft = left.fold()
+            val foldedRight = right.fold()
+            if (foldedLeft is Constant && foldedRight is Constant)
+                return NumericConstant(operator.implementation(foldedLeft.value, foldedRight.value))
+            return BinaryOperation(operator, foldedLeft, foldedRight)
+        }
     }
 
-    class Countable(private val parameterText: String, 
+    class Countable(val parameterText: String, 
                     /** Most countables can be detected via string pattern */ private val rulesetInvariantCountable: Countables?): Node, Tokenizer.Token {
         override fun eval(context: GameContext): Double {
             val ruleset = context.gameInfo?.ruleset
                 ?: return 0.0 // We use "surprised pikachu face" for any unexpected issue so games don't crash 
             
-            val countable = getCountable(ruleset)
-                ?: return 0.0
-            
+            return eval(getCountable(ruleset), context)
+        }
+
+        /** Evaluates with an already resolved [countable], see [CompiledExpression] */
+        @Readonly
+        fun eval(countable: Countables?, context: GameContext): Double {
+            if (countable == null) return 0.0
             return countable.eval(parameterText, context)?.toDouble() ?: 0.0
         }
 
         @Readonly
-        private fun getCountable(ruleset: Ruleset): Countables? {
+        fun getCountable(ruleset: Ruleset): Countables? {
             return rulesetInvariantCountable
                 ?: Countables.getMatching(parameterText, ruleset)
         }
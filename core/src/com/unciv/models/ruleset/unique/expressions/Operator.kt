@@ -12,14 +12,14 @@ internal sealed interface Operator : Tokenizer.Token {
     // All toString() are for use in exception messages only
 
     interface Unary : Operator {
-        val implementation: (Double) -> Double
+        @Pure fun implementation(operand: Double): Double
     }
 
     interface Binary : Operator {
         /** Higher numbers are evaluated *first* */
         val precedence: Int
         val isLeftAssociative: Boolean
-        val implementation: (Double, Double) -> Double
+        @Pure fun implementation(left: Double, right: Double): Double
     }
 
     interface UnaryOrBinary : Operator {
@@ -27,17 +27,17 @@ internal sealed interface Operator : Tokenizer.Token {
         val binary: Binary
     }
 
+    // Implementations are overridden per entry rather than passed as lambdas, so evaluation doesn't box every Double
     enum class UnaryOperators(
         override val symbol: String,
-        override val implementation: (Double) -> Double,
         val description: String
     ) : Unary {
-        Negation("-", { operand -> -operand }, "negation"),
-        Ciel("√", ::sqrt, "square root"),
-        Abs("abs", ::abs, "absolute value - turns negative into positive"),
-        Sqrt2("sqrt", ::sqrt, "square root"),
-        Floor("floor", ::floor, "round down"),
-        Ceil("ceil", ::ceil, "round up"),
+        Negation("-", "negation") { override fun implementation(operand: Double) = -operand },
+        Ciel("√", "square root") { override fun implementation(operand: Double) = sqrt(operand) },
+        Abs("abs", "absolute value - turns negative into positive") { override fun implementation(operand: Double) = abs(operand) },
+        Sqrt2("sqrt", "square root") { override fun implementation(operand: Double) = sqrt(operand) },
+        Floor("floor", "round down") { override fun implementation(operand: Double) = floor(operand) },
+        Ceil("ceil", "round up") { override fun implementation(operand: Double) = ceil(operand) },
         ;
         override fun toString() = symbol
     }
@@ -45,15 +45,14 @@ internal sealed interface Operator : Tokenizer.Token {
     enum class BinaryOperators(
         override val symbol: String,
         override val precedence: Int,
-        override val isLeftAssociative: Boolean,
-        override val implementation: (Double, Double) -> Double
+        override val isLeftAssociative: Boolean
     ) : Binary {
-        Addition("+", 2, true, { left, right -> left + right }),
-        Subtraction("-", 2, true, { left, right -> left - right }),
-        Multiplication("*", 3, true, { left, right -> left * right }),
-        Division("/", 3, true, { left, right -> if (right == 0.0) 0.0 else left / right }),
-        Remainder("%", 3, true, { left, right -> ((left % right) + right) % right }), // true modulo, always non-negative
-        Exponent("^", 4, false, { left, right -> left.pow(right) }),
+        Addition("+", 2, true) { override fun implementation(left: Double, right: Double) = left + right },
+        Subtraction("-", 2, true) { override fun implementation(left: Double, right: Double) = left - right },
+        Multiplication("*", 3, true) { override fun implementation(left: Double, right: Double) = left * right },
+        Division("/", 3, true) { override fun implementation(left: Double, right: Double) = if (right == 0.0) 0.0 else left / right },
+        Remainder("%", 3, true) { override fun implementation(left: Double, right: Double) = ((left % right) + right) % right }, // true modulo, always non-negative
+        Exponent("^", 4, false) { override fun implementation(left: Double, right: Double) = left.pow(right) },
         ;
         override fun toString() = symbol
     }
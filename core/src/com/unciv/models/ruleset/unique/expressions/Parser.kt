@@ -12,7 +12,7 @@ import yairm210.purity.annotations.Readonly
 
 /**
  *  Parse and evaluate simple expressions
- *  - [eval] Does a one-off AST conversion and evaluation in one go
+ *  - [eval] Parses (cached, see [Expressions]) and evaluates in one go
  *  - [parse] Builds the AST without evaluating
  *  - Supports [Countables] as terms, enclosed in square brackets (they're optional when the countable is a single identifier!).
  *
@@ -28,9 +28,10 @@ import yairm210.purity.annotations.Readonly
 object Parser {
     /**
      *  Parse and evaluate an expression. If it needs to support countables, [context] should be supplied.
+     *  The compiled expression is cached, see [Expressions].
      */
     fun eval(text: String, context: GameContext = GameContext.EmptyState): Double =
-        parse(text).eval(context)
+        Expressions.compile(text).eval(context)
 
     @Readonly
     internal fun parse(text: String): Node {
@@ -0,0 +1,60 @@
+package com.unciv.models.translations
+
+import yairm210.purity.annotations.Pure
+import yairm210.purity.annotations.Readonly
+
+/**
+ *  A translated placeholder string like "[city] hast die worken onner [building] gerfinishen",
+ *  precompiled into literal segments and parameter slots, so [String.tr] can fill it without searching and replacing.
+ *
+ *  @param text the translation, containing the [parameterNames] in square brackets in any order
+ *  @param parameterNames the placeholder terms of the original entry, in order of appearance there -
+ *         a term appearing several times (in either string) is always filled with its first parameter
+ */
+class PlaceholderTemplate(val text: String, parameterNames: List<String>) {
+    val parameterCount = parameterNames.size
+    /** Always one more than [slots] */
+    private val literals: Array<String>
+    /** Index into the parameters to [fill] in after the literal with the same index */
+    private val slots: IntArray
+
+    init {
+        val literalList = ArrayList<String>()
+        val slotList = ArrayList<Int>()
+        var literalStart = 0
+        var position = text.indexOf('[')
+        while (position >= 0) {
+            val slot = parameterNames.indexOfFirst { text.isBracketedAt(position, it) }
+            if (slot < 0) {
+                position = text.indexOf('[', position + 1)
+                continue
+            }
+            literalList += text.substring(literalStart, position)
+            slotList += slot
+            literalStart = position + parameterNames[slot].length + 2
+            position = text.indexOf('[', literalStart)
+        }
+        literalList += text.substring(literalStart)
+        literals = literalList.toTypedArray()
+        slots = slotList.toIntArray()
+    }
+
+    /** @return the template with each slot replaced by its entry in [parameters] */
+    @Readonly
+    fun fill(parameters: List<String>): String {
+        if (slots.isEmpty()) return text
+        val builder = StringBuilder(text.length + parameters.sumOf { it.length })
+        for (i in slots.indices) {
+            builder.append(literals[i])
+            builder.append(parameters[slots[i]])
+        }
+        builder.append(literals.last())
+        return builder.toString()
+    }
+
+    private companion object {
+        @Pure
+        fun String.isBracketedAt(position: Int, name: String) =
+            startsWith(name, position + 1) && startsWith("]", position + 1 + name.length)
+    }
+}
@@ -0,0 +1,61 @@
+package com.unciv.models.translations
+
+import com.unciv.UncivGame
+import yairm210.purity.annotations.Cache
+import yairm210.purity.annotations.Readonly
+
+/**
+ *  Memoizes [String.tr] results - one bounded LRU per language and combination of `hideIcons`/`hideStats`.
+ *
+ *  Everything a translation depends on besides those keys invalidates all of it:
+ *  - The [Translations] instance and its [content][Translations.version]
+ *  - The [active mods][TranslationActiveModsCache.version]
+ *  - The ruleset icons, see [com.unciv.ui.components.fonts.FontRulesetIcons.addRulesetImages]
+ *
+ *  tr() is called from the UI as well as from background threads, so all access is synchronized.
+ */
+object TranslationCache {
+    private const val maxEntries = 2048
+
+    private class LruMap : LinkedHashMap<String, String>(256, 0.75f, true) {
+        override fun removeEldestEntry(eldest: MutableMap.MutableEntry<String, String>?) = size > maxEntries
+    }
+
+    /** Key: language, value: one [LruMap] per combination of flags, see [flagsIndex] */
+    @Cache private val byLanguage = HashMap<String, Array<LruMap>>()
+
+    @Cache private var translations: Translations? = null
+    @Cache private var translationsVersion = -1
+    @Cache private var activeModsVersion = -1
+
+    @Readonly
+    private fun flagsIndex(hideIcons: Boolean, hideStats: Boolean) =
+        (if (hideIcons) 1 else 0) + (if (hideStats) 2 else 0)
+
+    @Readonly
+    private fun getMap(language: String, hideIcons: Boolean, hideStats: Boolean): LruMap {
+        val currentTranslations = UncivGame.Current.translations
+        val currentActiveModsVersion = TranslationActiveModsCache.version
+        if (currentTranslations !== translations || currentTranslations.version != translationsVersion
+                || currentActiveModsVersion != activeModsVersion) {
+            byLanguage.clear()
+            translations = currentTranslations
+            translationsVersion = currentTranslations.version
+            activeModsVersion = currentActiveModsVersion
+        }
+        return byLanguage.getOrPut(language) { Array(4) { LruMap() } }[flagsIndex(hideIcons, hideStats)]
+    }
+
+    @Readonly
+    fun get(text: String, language: String, hideIcons: Boolean, hideStats: Boolean): String? =
+        synchronized(this) { getMap(language, hideIcons, hideStats)[text] }
+
+    @Readonly @Suppress("purity") // Writes into one of the LruMaps held by byLanguage, which getMap hands out
+    fun put(text: String, language: String, hideIcons: Boolean, hideStats: Boolean, translated: String) {
+        synchronized(this) { getMap(language, hideIcons, hideStats)[text] = translated }
+    }
+
+    fun clear() {
+        synchronized(this) { byLanguage.clear() }
+    }
+}
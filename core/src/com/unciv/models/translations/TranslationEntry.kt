@@ -1,6 +1,9 @@
 package com.unciv.models.translations
 
 import java.util.HashMap
+import yairm210.purity.annotations.Cache
+import yairm210.purity.annotations.Readonly
+import java.util.concurrent.ConcurrentHashMap
 
 /**
  *  One 'translatable' string
@@ -11,4 +14,19 @@ import java.util.HashMap
  *  @property values:   The translations
  *  @see      Translations
  */
-class TranslationEntry(val entry: String) : HashMap<String, String>()
+class TranslationEntry(val entry: String) : HashMap<String, String>() {
+    /** Key: language - only created for entries with placeholders that actually get translated */
+    @Volatile @Cache private var placeholderTemplates: ConcurrentHashMap<String, PlaceholderTemplate>? = null
+
+    /** @return the translation for [language] split at the placeholders of [entry], or null if there is no translation */
+    @Readonly @Suppress("purity") // Stores the template through a local reference to placeholderTemplates, the @Cache above
+    fun getPlaceholderTemplate(language: String): PlaceholderTemplate? {
+        val translation = this[language] ?: return null
+        val templates = placeholderTemplates
+            ?: ConcurrentHashMap<String, PlaceholderTemplate>().also { placeholderTemplates = it }
+        val template = templates[language]
+        if (template != null && template.text === translation) return template
+        return PlaceholderTemplate(translation, entry.getPlaceholderParameters())
+            .also { templates[language] = it }
+    }
+}
@@ -48,6 +48,25 @@ class Translations : LinkedHashMap<String, TranslationEntry>() {
     // used by tr() whenever GameInfo not initialized (allowing new game screen to use mod translations)
     var translationActiveMods = LinkedHashSet<String>()
 
+    /** Incremented on every change to the entries, so [TranslationCache] knows when to drop memoized translations */
+    var version = 0
+        private set
+
+    override fun put(key: String, value: TranslationEntry): TranslationEntry? {
+        version++
+        return super.put(key, value)
+    }
+
+    override fun remove(key: String): TranslationEntry? {
+        version++
+        return super.remove(key)
+    }
+
+    override fun clear() {
+        version++
+        super.clear()
+    }
+
     /**
      * Searches for the translation entry of a given [text] for a given [language].
      * This includes translations provided by mods from [activeMods]
@@ -150,6 +169,7 @@ class Translations : LinkedHashMap<String, TranslationEntry>() {
             }
             entry[language] = diacriticSupport?.remapDiacritics(value) ?: value
         }
+        version++
     }
 
 
@@ -288,11 +308,21 @@ object TranslationActiveModsCache {
             if (hash != cachedHash) {
                 cachedHash = hash
                 field = getCurrentSet()
+                changeCount++
             }
             return field
         }
         private set
 
+    private var changeCount = 0
+
+    /** Changes whenever [activeMods] changes - the set itself may stay the same instance, see [getCurrentSet] */
+    val version: Int
+        get() {
+            activeMods // checks for changes
+            return changeCount
+        }
+
     private fun getCurrentHash(): Int {
         val gameInfo = UncivGame.Current.gameInfo
         return if (gameInfo != null) {
@@ -337,6 +367,15 @@ object TranslationActiveModsCache {
 fun String.tr(hideIcons: Boolean = false, hideStats: Boolean = false): String {
     val language: String = UncivGame.Current.settings.language
 
+    val cached = TranslationCache.get(this, language, hideIcons, hideStats)
+    if (cached != null) return cached
+    val translated = translateUncached(language, hideIcons, hideStats)
+    TranslationCache.put(this, language, hideIcons, hideStats, translated)
+    return translated
+}
+
+@Readonly
+private fun String.translateUncached(language: String, hideIcons: Boolean, hideStats: Boolean): String {
     // '<' and '>' checks for quick 'no' answer, regex to ensure that no one accidentally put '><' and ruined things
     if (contains('<') && contains('>') && pointyBraceRegex.containsMatchIn(this)) {
         return translateConditionals(hideIcons, language)
@@ -434,31 +473,15 @@ private fun String.translatePlaceholders(language: String, hideIcons: Boolean):
     val translationEntry = UncivGame.Current.translations
         .get(translationStringWithSquareBracketsOnly, language, TranslationActiveModsCache.activeMods)
 
-    var languageSpecificPlaceholder: String
-    val originalEntry: String
-    if (translationEntry == null || !translationEntry.containsKey(language)) {
-        // Translation placeholder doesn't exist for this language, default to English
-        languageSpecificPlaceholder = this
-        originalEntry = this
-    } else {
-        languageSpecificPlaceholder = translationEntry[language]!!
-        originalEntry = translationEntry.entry
-    }
-
     // Take the terms in the message, WITHOUT square brackets
     val termsInMessage = this.getPlaceholderParameters()
-    // Take the terms from the placeholder
-    val termsInTranslationPlaceholder = originalEntry.getPlaceholderParameters()
-    if (termsInMessage.size != termsInTranslationPlaceholder.size)
+    // The translation split at its placeholders, or the message itself when there's no translation for this language
+    val template = translationEntry?.getPlaceholderTemplate(language)
+        ?: PlaceholderTemplate(this, termsInMessage)
+    if (termsInMessage.size != template.parameterCount)
         throw Exception("Message $this has a different number of terms than the placeholder $translationEntry!")
 
-    for (i in termsInMessage.indices) {
-        languageSpecificPlaceholder = languageSpecificPlaceholder.replace(
-            "[${termsInTranslationPlaceholder[i]}]", // re-add square brackets to placeholder terms
-            termsInMessage[i].tr(hideIcons)
-        )
-    }
-    return languageSpecificPlaceholder      // every component is already translated
+    return template.fill(termsInMessage.map { it.tr(hideIcons) })      // every component is already translated
 }
 
 
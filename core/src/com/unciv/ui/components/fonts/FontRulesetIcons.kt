@@ -11,6 +11,7 @@ import com.badlogic.gdx.scenes.scene2d.Group
 import com.unciv.UncivGame
 import com.unciv.models.ruleset.Ruleset
 import com.unciv.models.tilesets.TileSetCache
+import com.unciv.models.translations.TranslationCache
 import com.unciv.ui.components.extensions.center
 import com.unciv.ui.components.extensions.setSize
 import com.unciv.ui.components.fonts.FontRulesetIcons.getPixmapFromActor
@@ -93,7 +94,9 @@ object FontRulesetIcons {
                 addChar(terrain.name, tileGroup)
             }
         }
-        
+
+        // Memoized translations may have icons for the previous ruleset baked in
+        TranslationCache.clear()
     }
 
     private val frameBuffer by lazy {
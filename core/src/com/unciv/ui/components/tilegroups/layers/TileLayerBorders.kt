@@ -65,21 +65,28 @@ class TileLayerBorders(tileGroup: TileGroup, size: Float) : TileLayer(tileGroup,
         if (tileOwner == null)
             return
 
+        // All neighbors are ours - no borders, and no need to look at them one by one
+        val borderMask = tile.tileMap.getTileOwnership().getBorderMask(tile)
+        if (borderMask == 0) {
+            reset()
+            return
+        }
+
         // Setup new borders
         val civOuterColor = tile.getOwner()!!.nation.getOuterColor()
         val civInnerColor = tile.getOwner()!!.nation.getInnerColor()
-        for (neighbor in tile.neighbors) {
+        for ((direction, neighbor) in tile.neighbors.withIndex()) {
             var shouldRemoveBorderSegment = false
             var shouldAddBorderSegment = false
 
             var borderSegmentShouldBeLeftConcave = false
             var borderSegmentShouldBeRightConcave = false
 
-            val neighborOwner = neighbor.getOwner()
-            if (neighborOwner == tileOwner && borderSegments.containsKey(neighbor)) { // the neighbor used to not belong to us, but now it's ours
+            val neighborIsOurs = borderMask and (1 shl direction) == 0
+            if (neighborIsOurs && borderSegments.containsKey(neighbor)) { // the neighbor used to not belong to us, but now it's ours
                 shouldRemoveBorderSegment = true
             }
-            else if (neighborOwner != tileOwner) {
+            else if (!neighborIsOurs) {
                 val leftSharedNeighbor = tile.getLeftSharedNeighbor(neighbor)
                 val rightSharedNeighbor = tile.getRightSharedNeighbor(neighbor)
 
@@ -70,6 +70,9 @@ internal class AdvancedTab(
         addCheckbox("Enable Easter Eggs", settings::enableEasterEggs)
 
         addCheckbox("Enlarge selected notifications", settings::enlargeSelectedNotification)
+
+        if (PlatformCapabilities.current.backgroundThreadPools)
+            addCheckbox("Gather city-state quest targets on multiple threads", settings::parallelMinorCivAnalysis)
         addSeparator()
 
         if (PlatformCapabilities.current.onlineMultiplayer)
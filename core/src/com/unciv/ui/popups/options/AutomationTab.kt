@@ -28,6 +28,8 @@ internal class AutomationTab(
         addCheckbox("Automated units can upgrade", settings::automatedUnitsCanUpgrade)
         addCheckbox("Automated units choose promotions", settings::automatedUnitsChoosePromotions)
         addCheckbox("Cities auto-bombard at end of turn", settings::citiesAutoBombardAtEndOfTurn)
+        addSelectBox("AI turn work budget (0 = no limit)", settings::aiTurnWorkBudget,
+            (listOf(0, 50, 100, 200, 400, 800) + settings.aiTurnWorkBudget).distinct().sorted())
 
         addHeader("AutoPlay")
 
@@ -40,6 +40,9 @@ class MapEditorGenerateTab(
     private val newTab = MapEditorNewMapTab(this)
     private val partialTab = MapEditorGenerateStepsTab(this)
 
+    /** Reused while partial steps run on the same map and ruleset, so they skip the noise earlier runs computed */
+    private var stepGenerator: MapGenerator? = null
+
     init {
         name = "Generate"
         top()
@@ -135,7 +138,9 @@ class MapEditorGenerateTab(
                     }
                     else -> {
                         editorScreen.tileMap.mapParameters.seed = mapParameters.seed
-                        MapGenerator(editorScreen.ruleset).generateSingleStep(editorScreen.tileMap, step)
+                        val generator = stepGenerator?.takeIf { it.ruleset == editorScreen.ruleset }
+                            ?: MapGenerator(editorScreen.ruleset).also { stepGenerator = it }
+                        generator.generateSingleStep(editorScreen.tileMap, step)
                         Concurrency.runOnGLThread {
                             stepCompleted(step)
                         }
@@ -419,7 +419,10 @@ class MapParametersTable(
         seedTextField = UncivTextField.Numeric("RNG Seed", mapParameters.seed, integerOnly = true)
 
         seedTextField.onChange {
-            mapParameters.seed = seedTextField.value?.toLong() ?: 0L
+            val seed = seedTextField.value?.toLong() ?: 0L
+            if (seed == mapParameters.seed) return@onChange // Set by code, e.g. on reseed
+            mapParameters.seed = seed
+            mapParameters.seedChosenByUser = true
         }
 
         table.add("RNG Seed".toLabel()).left()
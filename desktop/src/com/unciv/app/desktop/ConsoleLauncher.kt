@@ -1,5 +1,6 @@
 package com.unciv.app.desktop
 
+import com.badlogic.gdx.files.FileHandle
 import com.unciv.Constants
 import com.unciv.Constants.simulationCiv1
 import com.unciv.Constants.simulationCiv2
@@ -8,10 +9,13 @@ import com.unciv.logic.GameStarter
 import com.unciv.logic.civilization.PlayerType
 import com.unciv.logic.map.MapParameters
 import com.unciv.logic.map.MapSize
+import com.unciv.logic.map.MapType
+import com.unciv.logic.map.mapgenerator.MapPool
 import com.unciv.logic.map.MirroringType
 import com.unciv.logic.simulation.Simulation
 import com.unciv.models.metadata.*
 import com.unciv.models.ruleset.RulesetCache
+import com.unciv.models.ruleset.RulesetSnapshotCache
 import com.unciv.models.ruleset.Speed
 import com.unciv.models.ruleset.nation.Nation
 import com.unciv.models.skins.SkinCache
@@ -35,13 +39,64 @@ internal object ConsoleLauncher {
             turnsBetweenAutosaves = 10000
         }
 
+        RulesetSnapshotCache.folder = FileHandle("RulesetSnapshots")
+        if ("benchmark-rulesets" in arg) {
+            benchmarkRulesetLoading()
+            return
+        }
+
         RulesetCache.loadRulesets(true)
         TileSetCache.loadTileSetConfigs(true)
         SkinCache.loadSkinConfigs(true)
 
+        if ("generate-map-pool" in arg) {
+            generateMapPool(arg)
+            return
+        }
+
         runSimulation()
     }
 
+    /** Fills the [MapPool] with maps for new games: `generate-map-pool [count] [map size] [map type]`,
+     *  for example `generate-map-pool 20 Small Pangaea`. Reports throughput and time per map. */
+    private fun generateMapPool(arg: Array<String>) {
+        val options = arg.dropWhile { it != "generate-map-pool" }.drop(1)
+        val count = options.getOrNull(0)?.toIntOrNull() ?: 10
+        val mapParameters = MapParameters().apply {
+            mapSize = MapSize.Predefined.entries.firstOrNull { it.name == options.getOrNull(1) }
+                ?.let { MapSize(it) } ?: MapSize.Small
+            type = options.getOrNull(2) ?: MapType.pangaea
+        }
+        val gameParameters = GameParameters().apply { baseRuleset = BaseRuleset.Civ_V_GnK.fullName }
+
+        MapPool.folder = FileHandle("MapPool")
+        println("Generating $count maps for $mapParameters, type ${mapParameters.type}")
+        println(MapPool.generate(mapParameters, gameParameters, count))
+        println("Pool now holds ${MapPool.getPoolSize(mapParameters, gameParameters)} maps " +
+            "in ${MapPool.folder!!.child(MapPool.getPoolName(mapParameters, gameParameters)).path()}")
+    }
+
+    /** Compares loading all rulesets from their json files (cold) and from [RulesetSnapshotCache] snapshots (warm) */
+    private fun benchmarkRulesetLoading() {
+        val iterations = 5
+        var coldTotal = 0L
+        var warmTotal = 0L
+        for (i in 1..iterations) {
+            RulesetSnapshotCache.folder!!.deleteDirectory()
+            val coldStart = System.currentTimeMillis()
+            RulesetCache.loadRulesets(true)
+            val coldDuration = System.currentTimeMillis() - coldStart
+            val warmStart = System.currentTimeMillis()
+            RulesetCache.loadRulesets(true)
+            val warmDuration = System.currentTimeMillis() - warmStart
+            println("Iteration $i: cold ${coldDuration}ms, warm ${warmDuration}ms")
+            if (i == 1) continue // JIT warmup
+            coldTotal += coldDuration
+            warmTotal += warmDuration
+        }
+        println("Average of ${iterations - 1} iterations: cold ${coldTotal / (iterations - 1)}ms, warm ${warmTotal / (iterations - 1)}ms")
+    }
+
     @ExperimentalTime
     private fun runSimulation() {
         val ruleset = RulesetCache[BaseRuleset.Civ_V_GnK.fullName]!!
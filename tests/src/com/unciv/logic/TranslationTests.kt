@@ -9,6 +9,7 @@ import com.unciv.models.metadata.GameSettings
 import com.unciv.models.metadata.LocaleCode
 import com.unciv.models.ruleset.RulesetCache
 import com.unciv.models.stats.Stats
+import com.unciv.models.translations.TranslationCache
 import com.unciv.models.translations.TranslationEntry
 import com.unciv.models.translations.TranslationFileReader
 import com.unciv.models.translations.TranslationFileWriter
@@ -18,6 +19,7 @@ import com.unciv.models.translations.Translations.Companion.conditionalPlacement
 import com.unciv.models.translations.Translations.Companion.defaultConditionalOrderingString
 import com.unciv.models.translations.Translations.Companion.shouldCapitalizeKey
 import com.unciv.models.translations.curlyBraceRegex
+import com.unciv.models.translations.fillPlaceholders
 import com.unciv.models.translations.getModifiers
 import com.unciv.models.translations.getPlaceholderParameters
 import com.unciv.models.translations.getPlaceholderText
@@ -581,6 +583,55 @@ class TranslationTests {
         parcours.map { (name, sequence) -> checkGroup(name, sequence) }.toList().forEach { println(it) }
     }
 
+    @Test
+    fun memoizedPlaceholderTranslationFollowsChanges() {
+        setupUncivGame()
+        val message = "work on [Library] has completed in [Akkad]"
+        addTranslation("work on [building] has completed in [city]", "[city] hast die worken onner [building] gerfinishen")
+        Assert.assertEquals("Akkad hast die worken onner Library gerfinishen", message.tr())
+        Assert.assertEquals("Akkad hast die worken onner Library gerfinishen", message.tr())
+
+        addTranslation("work on [building] has completed in [city]", "[building] in [city]")
+        Assert.assertEquals("Library in Akkad", message.tr())
+    }
+
+    @Test
+    @RedirectOutput(RedirectPolicy.Show)
+    @Ignore("Benchmark - comment out annotation for a local run")
+    /** Simulates rebuilding a notification-heavy screen: the same few hundred placeholder strings translated over and over */
+    fun notificationTranslationBenchmark() {
+        setupRuleset()
+        setupUncivGame()
+        loadTranslations()
+        copyTranslationsToUncivGame()
+        UncivGame.Current.settings.language = "German"
+
+        val ruleset = RulesetCache[BaseRuleset.Civ_V_GnK.fullName]!!
+        val names = (ruleset.buildings.keys + ruleset.units.keys + ruleset.nations.values.flatMap { it.cities }).toList()
+        val notifications = translations.values.asSequence()
+            .map { it.entry }
+            .filter { it.contains('[') && !it.contains('<') && !it.contains('{') }
+            .take(300)
+            .mapIndexed { index, entry ->
+                val parameterCount = entry.getPlaceholderParameters().size
+                entry.fillPlaceholders(*Array(parameterCount) { names[(index + it) % names.size] })
+            }.toList()
+
+        fun rebuild(clearCache: Boolean): Long {
+            val startTime = System.nanoTime()
+            repeat(100) {
+                if (clearCache) TranslationCache.clear()
+                for (notification in notifications) notification.tr()
+            }
+            return (System.nanoTime() - startTime) / 1000
+        }
+
+        rebuild(false) // warm up the JIT
+        val uncached = rebuild(true)
+        val cached = rebuild(false)
+        println("Translating ${notifications.size} notifications 100 times: ${uncached}µs without memoization, ${cached}µs with")
+    }
+
     @Test
     fun allConditionalOrderingEntriesAreValid() {
         loadTranslations()
@@ -0,0 +1,66 @@
+package com.unciv.logic.automation.city
+
+import com.unciv.logic.city.City
+import com.unciv.logic.civilization.Civilization
+import com.unciv.models.ruleset.INonPerpetualConstruction
+import com.unciv.testing.GdxTestRunner
+import com.unciv.testing.TestGame
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+
+@RunWith(GdxTestRunner::class)
+internal class ConstructionAutomationCacheTest {
+    private lateinit var civInfo: Civilization
+    private lateinit var city: City
+
+    private val testGame = TestGame()
+
+    @Before
+    fun setUp() {
+        testGame.makeHexagonalMap(4)
+        civInfo = testGame.addCiv()
+        city = testGame.addCity(civInfo, testGame.getTile(0, 0))
+    }
+
+    private fun assertMatchesRejectionReasons(construction: INonPerpetualConstruction) {
+        if (!civInfo.getConstructionAutomationCache().isPossibleForCiv(construction))
+            assertFalse("${construction.name} was ruled out for the civ but is buildable in ${city.name}",
+                construction.isBuildable(city.cityConstructions))
+    }
+
+    @Test
+    fun `constructions ruled out for the civ are not buildable`() {
+        for (building in testGame.ruleset.buildings.values) assertMatchesRejectionReasons(building)
+        for (unit in testGame.ruleset.units.values) assertMatchesRejectionReasons(unit)
+
+        civInfo.tech.addTechnology("Bronze Working")
+        for (building in testGame.ruleset.buildings.values) assertMatchesRejectionReasons(building)
+        for (unit in testGame.ruleset.units.values) assertMatchesRejectionReasons(unit)
+    }
+
+    @Test
+    fun `buildable constructions are possible for the civ`() {
+        val cache = civInfo.getConstructionAutomationCache()
+        val constructions = testGame.ruleset.buildings.values.asSequence<INonPerpetualConstruction>() +
+            testGame.ruleset.units.values.asSequence()
+        for (construction in constructions)
+            if (construction.isBuildable(city.cityConstructions))
+                assertTrue(construction.name, cache.isPossibleForCiv(construction))
+    }
+
+    @Test
+    fun `researching a tech makes its constructions possible`() {
+        val archer = testGame.ruleset.units["Archer"]!!
+        val cache = civInfo.getConstructionAutomationCache()
+        assertFalse(cache.isPossibleForCiv(archer))
+
+        civInfo.tech.addTechnology(archer.requiredTech!!)
+
+        val newCache = civInfo.getConstructionAutomationCache()
+        assertFalse(newCache === cache)
+        assertTrue(newCache.isPossibleForCiv(archer))
+    }
+}
@@ -0,0 +1,63 @@
+package com.unciv.logic.automation.civilization
+
+import com.unciv.logic.automation.civilization.AutomationTurnScheduler.PhasePriority
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Test
+
+internal class AutomationTurnSchedulerTest {
+
+    @Test
+    fun `spent budget skips all but essential phases`() {
+        val scheduler = AutomationTurnScheduler(workBudget = 5)
+        val phasesRun = ArrayList<String>()
+        scheduler.runPhase("Busy") { scheduler.spendWork(10) }
+        scheduler.runPhase("Essential") { phasesRun += "Essential" }
+        scheduler.runPhase("Normal", PhasePriority.Normal) { phasesRun += "Normal" }
+        scheduler.runPhase("Optional", PhasePriority.Optional) { phasesRun += "Optional" }
+
+        assertEquals(listOf("Essential"), phasesRun)
+    }
+
+    @Test
+    fun `half spent budget skips only optional phases`() {
+        val scheduler = AutomationTurnScheduler(workBudget = 10)
+        val phasesRun = ArrayList<String>()
+        scheduler.runPhase("Busy") { scheduler.spendWork(5) } // 6 with the phase itself
+        scheduler.runPhase("Optional", PhasePriority.Optional) { phasesRun += "Optional" }
+        scheduler.runPhase("Normal", PhasePriority.Normal) { phasesRun += "Normal" }
+
+        assertEquals(listOf("Normal"), phasesRun)
+        assertFalse(scheduler.isOverBudget())
+        scheduler.spendWork(4)
+        assertTrue(scheduler.isOverBudget())
+    }
+
+    @Test
+    fun `no budget runs all phases`() {
+        val scheduler = AutomationTurnScheduler(workBudget = 0)
+        val phasesRun = ArrayList<String>()
+        scheduler.runPhase("Busy") { scheduler.spendWork(1000) }
+        scheduler.runPhase("Normal", PhasePriority.Normal) { phasesRun += "Normal" }
+        scheduler.runPhase("Optional", PhasePriority.Optional) { phasesRun += "Optional" }
+
+        assertEquals(listOf("Normal", "Optional"), phasesRun)
+        assertFalse(scheduler.isOverBudget())
+    }
+
+    @Test
+    fun `phases are counted by name`() {
+        AutomationTurnScheduler.resetPhaseCounters()
+        val scheduler = AutomationTurnScheduler(workBudget = 5)
+        scheduler.runPhase("Busy") { scheduler.spendWork(10) }
+        scheduler.runPhase("Optional", PhasePriority.Optional) { }
+
+        val counters = AutomationTurnScheduler.getPhaseCounters()
+        assertEquals(listOf("Busy", "Optional"), counters.keys.toList())
+        assertEquals(1L, counters["Busy"]!!.runs)
+        assertEquals(11L, counters["Busy"]!!.work)
+        assertEquals(0L, counters["Optional"]!!.runs)
+        assertEquals(1L, counters["Optional"]!!.skips)
+    }
+}
@@ -0,0 +1,67 @@
+package com.unciv.logic.automation.civilization
+
+import com.unciv.logic.civilization.Civilization
+import com.unciv.testing.GdxTestRunner
+import com.unciv.testing.TestGame
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+
+@RunWith(GdxTestRunner::class)
+internal class CivPairMetricsTest {
+    private lateinit var civA: Civilization
+    private lateinit var civB: Civilization
+
+    private val testGame = TestGame()
+
+    @Before
+    fun setUp() {
+        testGame.makeHexagonalMap(10)
+        civA = testGame.addCiv()
+        civB = testGame.addCiv()
+        testGame.addCity(civA, testGame.getTile(-2, 0))
+        testGame.addCity(civB, testGame.getTile(2, 0))
+    }
+
+    @Test
+    fun `metrics are shared within the turn`() {
+        val metrics = testGame.gameInfo.getCivPairMetrics()
+        assertTrue(metrics === testGame.gameInfo.getCivPairMetrics())
+        assertEquals(
+            civA.threatManager.getNeighboringCitiesOfOtherCivs().filter { it.second.civ == civB }.toList(),
+            metrics.getNeighboringCityPairs(civA, civB)
+        )
+
+        var computed = 0
+        repeat(2) { metrics.getAttackPathsModifier(civA, civB) { computed++; 1f } }
+        assertEquals(1, computed)
+    }
+
+    @Test
+    fun `metrics follow new cities`() {
+        val metrics = testGame.gameInfo.getCivPairMetrics()
+        testGame.addCity(civA, testGame.getTile(0, 5))
+
+        val newMetrics = testGame.gameInfo.getCivPairMetrics()
+        assertFalse(metrics === newMetrics)
+        assertEquals(
+            civA.threatManager.getNeighboringCitiesOfOtherCivs().filter { it.second.civ == civB }.toList(),
+            newMetrics.getNeighboringCityPairs(civA, civB)
+        )
+    }
+
+    @Test
+    fun `metrics follow wars and tile changes`() {
+        val metrics = testGame.gameInfo.getCivPairMetrics()
+        civA.diplomacyFunctions.makeCivilizationsMeet(civB)
+        civA.getDiplomacyManager(civB)!!.declareWar()
+        val afterWar = testGame.gameInfo.getCivPairMetrics()
+        assertFalse(metrics === afterWar)
+
+        testGame.getTile(0, 0).setImprovement("Farm")
+        assertFalse(afterWar === testGame.gameInfo.getCivPairMetrics())
+    }
+}
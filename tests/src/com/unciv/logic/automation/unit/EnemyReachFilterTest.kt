@@ -0,0 +1,41 @@
+package com.unciv.logic.automation.unit
+
+import com.unciv.logic.civilization.Civilization
+import com.unciv.testing.GdxTestRunner
+import com.unciv.testing.TestGame
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+
+@RunWith(GdxTestRunner::class)
+internal class EnemyReachFilterTest {
+    private lateinit var attackerCiv: Civilization
+    private lateinit var defenderCiv: Civilization
+
+    private val testGame = TestGame()
+
+    @Before
+    fun setUp() {
+        testGame.makeHexagonalMap(8)
+        attackerCiv = testGame.addCiv()
+        defenderCiv = testGame.addCiv()
+
+        attackerCiv.diplomacyFunctions.makeCivilizationsMeet(defenderCiv)
+        attackerCiv.diplomacy[defenderCiv.civName]?.declareWar()
+    }
+
+    @Test
+    fun `only units with an enemy in reach look for targets`() {
+        val nearUnit = testGame.addUnit("Warrior", attackerCiv, testGame.getTile(0, 0))
+        val farUnit = testGame.addUnit("Warrior", attackerCiv, testGame.getTile(-6, -6))
+        testGame.addUnit("Warrior", defenderCiv, testGame.getTile(2, 2))
+        attackerCiv.cache.updateViewableTiles()
+
+        val filter = attackerCiv.getEnemyReachFilter()
+        assertTrue(filter.hasEnemyInReach(nearUnit, nearUnit.movement.getDistanceToTiles()))
+        assertFalse(filter.hasEnemyInReach(farUnit, farUnit.movement.getDistanceToTiles()))
+        assertFalse(filter.hasEnemyInReach(nearUnit, nearUnit.movement.getDistanceToTiles(), stayOnTile = true))
+    }
+}
@@ -0,0 +1,56 @@
+package com.unciv.logic.automation.unit
+
+import com.unciv.Constants
+import com.unciv.logic.civilization.Civilization
+import com.unciv.logic.map.tile.Tile
+import com.unciv.models.ruleset.unique.LocalUniqueCache
+import com.unciv.testing.GdxTestRunner
+import com.unciv.testing.TestGame
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNotEquals
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+
+@RunWith(GdxTestRunner::class)
+internal class SettleValueHeatmapTest {
+    private lateinit var civInfo: Civilization
+
+    val testGame = TestGame()
+
+    @Before
+    fun setUp() {
+        testGame.makeHexagonalMap(7, Constants.grassland)
+        civInfo = testGame.addCiv()
+        testGame.addCity(civInfo, testGame.tileMap[0,0])
+    }
+
+    private fun getSettleValue(heatmap: SettleValueHeatmap, tile: Tile) =
+        heatmap.getSettleValue(tile, testGame.gameInfo.getCities(), LocalUniqueCache())
+
+    @Test
+    fun `kept values follow tile changes`() {
+        val newCityTile = testGame.tileMap[5,0]
+        val keptValue = getSettleValue(civInfo.settleValueHeatmap, newCityTile)
+        assertEquals(getSettleValue(SettleValueHeatmap(civInfo), newCityTile), keptValue, 0.001f)
+
+        testGame.tileMap[5,1].addTerrainFeature(Constants.hill)
+        testGame.tileMap[4,0].baseTerrain = Constants.desert
+        testGame.tileMap[4,0].setTerrainTransients()
+
+        val valueAfterChange = getSettleValue(civInfo.settleValueHeatmap, newCityTile)
+        assertNotEquals(keptValue, valueAfterChange, 0.001f)
+        assertEquals(getSettleValue(SettleValueHeatmap(civInfo), newCityTile), valueAfterChange, 0.001f)
+    }
+
+    @Test
+    fun `kept values follow new cities`() {
+        val newCityTile = testGame.tileMap[6,0]
+        getSettleValue(civInfo.settleValueHeatmap, newCityTile)
+
+        testGame.addCity(civInfo, testGame.tileMap[4,-2])
+
+        assertEquals(getSettleValue(SettleValueHeatmap(civInfo), newCityTile),
+            getSettleValue(civInfo.settleValueHeatmap, newCityTile), 0.001f)
+    }
+}
@@ -10,6 +10,7 @@ import com.unciv.models.stats.Stat
 import com.unciv.testing.GdxTestRunner
 import com.unciv.testing.TestGame
 import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
 import org.junit.Assert.assertTrue
 import org.junit.Before
 import org.junit.Test
@@ -352,5 +353,60 @@ internal class WorkerAutomationTest {
         assertTrue(currentTile.turnsToImprovement > 0)
     }
 
+    @Test
+    fun `workers should leave claimed tiles to each other`() {
+        testGame.addCity(civInfo, testGame.tileMap[0,0])
+        val firstTile = testGame.tileMap[1,1]
+        val secondTile = testGame.tileMap[1,0]
+        val firstWorker = testGame.addUnit("Worker", civInfo, testGame.tileMap[0,1])
+        val secondWorker = testGame.addUnit("Worker", civInfo, testGame.tileMap[-1,0])
+        val jobBoard = workerAutomation.jobBoard
+
+        jobBoard.claim(firstTile, firstWorker)
+        assertTrue(jobBoard.isClaimedByOther(firstTile, secondWorker))
+        assertFalse(jobBoard.isClaimedByOther(firstTile, firstWorker))
+
+        // Heading elsewhere releases the previous claim
+        jobBoard.claim(secondTile, firstWorker)
+        assertFalse(jobBoard.isClaimedByOther(firstTile, secondWorker))
+        assertTrue(jobBoard.isClaimedByOther(secondTile, secondWorker))
+
+        // Taking over a claim releases it for the previous claimant
+        jobBoard.claim(secondTile, secondWorker)
+        assertTrue(jobBoard.isClaimedByOther(secondTile, firstWorker))
+        assertFalse(jobBoard.isClaimedByOther(secondTile, secondWorker))
+    }
+
+    @Test
+    fun `shared rankings follow changes to nearby tiles`() {
+        val city = testGame.addCity(civInfo, testGame.tileMap[0,0])
+        val tile = testGame.tileMap[1,1]
+        val jobBoard = workerAutomation.jobBoard
+        var rankings = 0
+        fun getRanking() = jobBoard.getImprovementRanking(tile, "Farm") { rankings++.toFloat() }
+
+        assertEquals(0f, getRanking())
+        assertEquals(0f, getRanking())
+        assertEquals(1, rankings)
+
+        // An improvement next to it may give adjacency bonuses
+        testGame.tileMap[0,1].improvement = "Farm"
+        assertEquals(1f, getRanking())
+
+        // An improvement further away, or setting the one there again, does not
+        testGame.tileMap[-3,-3].improvement = "Farm"
+        testGame.tileMap[0,1].improvement = "Farm"
+        assertEquals(1f, getRanking())
+
+        // As may losing a feature on the tile itself
+        tile.setTerrainFeatures(listOf())
+        assertEquals(2f, getRanking())
+
+        // And a tile changing owner
+        city.expansion.relinquishOwnership(tile)
+        assertEquals(3f, getRanking())
+        assertEquals(4, rankings)
+    }
+
 
 }
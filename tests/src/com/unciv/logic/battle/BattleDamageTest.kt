@@ -11,6 +11,7 @@ import com.unciv.testing.TestGame
 import org.junit.Assert.assertEquals
 import org.junit.Assert.assertTrue
 import org.junit.Before
+import org.junit.Ignore
 import org.junit.Test
 import org.junit.runner.RunWith
 
@@ -113,6 +114,35 @@ class BattleDamageTest {
         assertEquals(BattleConstants.BASE_FLANKING_BONUS.toInt(), attackModifiers.sumValues())
     }
 
+    @Test
+    fun `kept modifiers follow units moving`() {
+        // given
+        BattleDamage.getAttackModifiers(MapUnitCombatant(defaultAttackerUnit), MapUnitCombatant(defaultDefenderUnit), defaultAttackerTile)
+        testGame.addUnit("Warrior", attackerCiv, testGame.getTile(HexCoord.Zero))
+
+        // when
+        val attackModifiers = BattleDamage.getAttackModifiers(MapUnitCombatant(defaultAttackerUnit), MapUnitCombatant(defaultDefenderUnit), defaultAttackerTile)
+
+        // then
+        assertEquals(BattleConstants.BASE_FLANKING_BONUS.toInt(), attackModifiers["Flanking"])
+    }
+
+    @Test
+    fun `kept modifiers follow stockpiled gold`() {
+        // given
+        val civ = testGame.addCiv("[+10]% Strength <for [All] units> <when above [100] [Gold]>")
+        val attackerTile = testGame.getTile(HexCoord.Zero)
+        val attackerUnit = testGame.addUnit("Warrior", civ, attackerTile)
+        val noBonus = BattleDamage.getAttackModifiers(MapUnitCombatant(attackerUnit), MapUnitCombatant(defaultDefenderUnit), attackerTile)
+        civ.addGold(500)
+
+        // when
+        val attackModifiers = BattleDamage.getAttackModifiers(MapUnitCombatant(attackerUnit), MapUnitCombatant(defaultDefenderUnit), attackerTile)
+
+        // then
+        assertEquals(noBonus.sumValues() + 10, attackModifiers.sumValues())
+    }
+
     @Test
     fun `should retrieve defence fortification modifiers`() {
         // given
@@ -155,4 +185,44 @@ class BattleDamageTest {
         assertTrue(defenceModifiers.isEmpty())
         assertEquals(0, defenceModifiers.sumValues())
     }
+
+    @Ignore("Benchmark, run manually")
+    @Test
+    fun `benchmark damage estimates along a large front`() {
+        val benchmarkGame = TestGame()
+        benchmarkGame.makeHexagonalMap(20)
+        val westCiv = benchmarkGame.addCiv()
+        val eastCiv = benchmarkGame.addCiv()
+        westCiv.diplomacyFunctions.makeCivilizationsMeet(eastCiv)
+        westCiv.diplomacy[eastCiv.civName]?.declareWar()
+        val westUnits = ArrayList<MapUnit>()
+        val eastUnits = ArrayList<MapUnit>()
+        for (tile in benchmarkGame.tileMap.values) {
+            val unitName = if (tile.position.y % 2 == 0) "Swordsman" else "Archer"
+            when (tile.position.x - tile.position.y) {
+                -2, -1 -> westUnits += benchmarkGame.addUnit(unitName, westCiv, tile)
+                0, 1 -> eastUnits += benchmarkGame.addUnit(unitName, eastCiv, tile)
+            }
+        }
+        val pairs = westUnits.flatMap { attacker ->
+            eastUnits.filter { it.getTile().aerialDistanceTo(attacker.getTile()) <= 3 }
+                .map { MapUnitCombatant(attacker) to MapUnitCombatant(it) }
+        }
+
+        fun time(keepModifiers: Boolean): Long {
+            val start = System.nanoTime()
+            repeat(20) {
+                if (!keepModifiers) benchmarkGame.tileMap.unitPositionsVersion++
+                for ((attacker, defender) in pairs) {
+                    BattleDamage.calculateDamageToAttacker(attacker, defender)
+                    BattleDamage.calculateDamageToDefender(attacker, defender)
+                }
+            }
+            return (System.nanoTime() - start) / 20
+        }
+        time(false) // warm-up
+        val recomputedNanos = time(false)
+        val keptNanos = time(true)
+        println("Damage estimates for ${pairs.size} attacker/defender pairs: recomputed ${recomputedNanos / 1000}µs, kept ${keptNanos / 1000}µs")
+    }
 }
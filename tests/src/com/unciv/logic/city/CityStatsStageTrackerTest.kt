@@ -0,0 +1,90 @@
+package com.unciv.logic.city
+
+import com.unciv.logic.city.CityStatsStageTracker.Stage
+import com.unciv.logic.civilization.Civilization
+import com.unciv.logic.map.HexCoord
+import com.unciv.models.ruleset.unique.Unique
+import com.unciv.models.ruleset.unique.UniqueTriggerActivation
+import com.unciv.testing.GdxTestRunner
+import com.unciv.testing.TestGame
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+
+@RunWith(GdxTestRunner::class)
+class CityStatsStageTrackerTest {
+    private lateinit var civ: Civilization
+    private lateinit var city: City
+
+    private val testGame = TestGame()
+
+    @Before
+    fun setUp() {
+        testGame.makeHexagonalMap(3)
+        civ = testGame.addCiv("[+5 Gold] [in all cities] <when at war>")
+        city = testGame.addCity(civ, testGame.getTile(HexCoord.Zero))
+        city.cityStats.update()
+    }
+
+    private fun getGold(): Float {
+        city.cityStats.update()
+        return city.cityStats.currentCityStats.gold
+    }
+
+    @Test
+    fun `unchanged cities reuse their stages`() {
+        CityStatsStageTracker.resetCounters()
+        city.cityStats.update()
+        city.cityStats.update()
+        val (_, reused) = CityStatsStageTracker.getCounters()[Stage.UniqueStats]!!
+        assertTrue(reused >= 1L) // At least the second update has nothing new
+    }
+
+    @Test
+    fun `stats follow a tile improvement`() {
+        val tile = testGame.getTile(1, 0)
+        city.workedTiles.clear()
+        city.workedTiles.add(tile.position)
+        val goldBefore = getGold()
+
+        tile.improvement = testGame.createTileImprovement().apply { gold = 3f }.name
+
+        assertEquals(goldBefore + 3f, getGold())
+    }
+
+    @Test
+    fun `stats follow a war declaration`() {
+        val otherCiv = testGame.addCiv()
+        civ.diplomacyFunctions.makeCivilizationsMeet(otherCiv)
+        val goldBefore = getGold()
+
+        otherCiv.getDiplomacyManager(civ)!!.declareWar()
+
+        assertTrue(civ.isAtWarWith(otherCiv))
+        assertEquals(goldBefore + 5f, getGold())
+    }
+
+    @Test
+    fun `stats follow a triggered unique`() {
+        val goldBefore = getGold()
+
+        UniqueTriggerActivation.triggerUnique(Unique("[+3 Gold] [in all cities] <for [2] turns>"), civ)
+
+        assertEquals(goldBefore + 3f, getGold())
+    }
+
+    @Test
+    fun `stats follow owned unit counts`() {
+        val unitCiv = testGame.addCiv("[+1 Gold] [in all cities] <for every [Units]>")
+        val unitCity = testGame.addCity(unitCiv, testGame.getTile(-3, 0))
+        unitCity.cityStats.update()
+        val goldBefore = unitCity.cityStats.currentCityStats.gold
+
+        testGame.addUnit("Warrior", unitCiv, null) // Off the map, so neither garrison nor unit positions change
+
+        unitCity.cityStats.update()
+        assertEquals(goldBefore + 1f, unitCity.cityStats.currentCityStats.gold)
+    }
+}
@@ -0,0 +1,74 @@
+package com.unciv.logic.city
+
+import com.unciv.models.stats.Stat
+import com.unciv.models.stats.Stats
+import com.unciv.testing.GdxTestRunner
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import org.junit.runner.RunWith
+
+@RunWith(GdxTestRunner::class)
+class StatAccumulatorTests {
+
+    @Test
+    fun mergesRowsWithSameAttribution() {
+        val accumulator = StatAccumulator()
+        accumulator.add("Buildings", "Monument", Stats(culture = 2f))
+        accumulator.add("Buildings", "Monument", Stat.Culture, 1f)
+        accumulator.add("Buildings", "Granary", Stats(food = 2f))
+
+        assertEquals(2, accumulator.rowCount)
+        assertEquals(3f, accumulator[Stat.Culture])
+        assertEquals(2f, accumulator.getForSource("Buildings", Stat.Food))
+    }
+
+    @Test
+    fun ignoresEmptyStats() {
+        val accumulator = StatAccumulator()
+        accumulator.add("Golden Age", null)
+        accumulator.add("Puppet City", Stats())
+        accumulator.add("Railroad", null, Stat.Production, 0f)
+
+        assertEquals(0, accumulator.rowCount)
+    }
+
+    @Test
+    fun growsBeyondInitialCapacity() {
+        val accumulator = StatAccumulator(initialRows = 1)
+        for (i in 1..20)
+            accumulator.add("Source $i", Stats(gold = i.toFloat()))
+
+        assertEquals(20, accumulator.rowCount)
+        assertEquals(210f, accumulator[Stat.Gold])
+        assertEquals(7f, accumulator.getForSource("Source 7", Stat.Gold))
+    }
+
+    @Test
+    fun nestsSingleLevelAccumulatorAsChildren() {
+        val buildings = StatAccumulator()
+        buildings.add("Monument", Stats(culture = 2f))
+        buildings.add("Shrine", Stats(faith = 1f))
+
+        val base = StatAccumulator()
+        base.add("Population", Stats(science = 3f))
+        base.addAsChildren("Buildings", buildings)
+
+        val tree = base.toStatTreeNode()
+        assertEquals(listOf("Population", "Buildings"), tree.children.keys.toList())
+        assertEquals(listOf("Monument", "Shrine"), tree.children["Buildings"]!!.children.keys.toList())
+        assertTrue(tree.totalStats.equals(Stats(science = 3f, culture = 2f, faith = 1f)))
+    }
+
+    @Test
+    fun statMapBySourceKeepsEmptySourcesInInsertionOrder() {
+        val base = StatAccumulator()
+        base.add("Population", Stats(science = 1f))
+        base.addAsChildren("Buildings", StatAccumulator())
+        base.add("Tile yields", Stats(food = 2f))
+
+        val statMap = base.toStatMapBySource()
+        assertEquals(listOf("Population", "Buildings", "Tile yields"), statMap.keys.toList())
+        assertTrue(statMap["Buildings"]!!.isEmpty())
+    }
+}
@@ -1,16 +1,20 @@
 package com.unciv.logic.city.managers
 
 import com.unciv.Constants
+import com.unciv.logic.automation.Automation
 import com.unciv.logic.city.City
 import com.unciv.logic.city.CityFocus
 import com.unciv.logic.civilization.Civilization
 import com.unciv.logic.map.HexCoord
+import com.unciv.models.ruleset.unique.LocalUniqueCache
 import com.unciv.testing.GdxTestRunner
 import com.unciv.testing.TestGame
 import org.junit.Assert.*
 import org.junit.Before
+import org.junit.Ignore
 import org.junit.Test
 import org.junit.runner.RunWith
+import kotlin.random.Random
 
 @RunWith(GdxTestRunner::class)
 class CityPopulationManagerTest {
@@ -263,4 +267,126 @@ class CityPopulationManagerTest {
         assertEquals(2, city.population.population)
         assertTrue(city.population.specialistAllocations.containsKey("Merchant"))
     }
+
+    /** The assignment loop of autoAssignPopulation before it kept rankings between assignments */
+    private fun referenceReassignAllPopulation(city: City) {
+        city.manualSpecialists = false
+        city.workedTiles = hashSetOf()
+        city.lockedTiles = hashSetOf()
+        city.population.specialistAllocations.clear()
+        city.cityStats.update()
+        val freePopulation = city.population.getFreePopulation()
+        if (freePopulation <= 0) return
+
+        val cityStats = city.cityStats.currentCityStats
+        city.currentGPPBonus = city.getGreatPersonPercentageBonus()
+        val specialistFoodBonus = 0f // No FoodConsumptionBySpecialists uniques in these tests
+        val tilesToEvaluate = city.getWorkableTiles().filter { !it.isBlockaded() }.toList().asSequence()
+        val localUniqueCache = LocalUniqueCache()
+        val tileStats = tilesToEvaluate.filterNot { it.providesYield() }
+            .associateWith { it.stats.getTileStats(city, city.civ, localUniqueCache) }
+        val maxSpecialists = city.population.getMaxSpecialists().asSequence()
+
+        repeat(freePopulation) {
+            val bestTileAndRank = tilesToEvaluate
+                .filterNot { it.providesYield() }
+                .associateWith { Automation.rankStatsForCityWork(tileStats[it]!!, city, false, localUniqueCache) }
+                .maxWithOrNull(compareBy({ it.value }, { it.key.longitude }, { it.key.latitude }))
+            val bestTile = bestTileAndRank?.key
+            val valueBestTile = bestTileAndRank?.value ?: 0f
+
+            val bestJobAndRank = maxSpecialists
+                .filter { city.population.specialistAllocations[it.key] < it.value }
+                .map { it.key }
+                .associateWith { Automation.rankSpecialist(it, city, localUniqueCache) }
+                .maxByOrNull { it.value }
+            val bestJob = bestJobAndRank?.key
+            val valueBestSpecialist = bestJobAndRank?.value ?: 0f
+
+            if (valueBestTile > valueBestSpecialist) {
+                if (bestTile != null) {
+                    city.workedTiles = HashSet(city.workedTiles).apply { add(bestTile.position) }
+                    cityStats.food += tileStats[bestTile]!!.food
+                }
+            } else if (bestJob != null) {
+                city.population.specialistAllocations.add(bestJob, 1)
+                cityStats.food += specialistFoodBonus
+            }
+        }
+        city.cityStats.update()
+    }
+
+    private fun setUpVariedCity(random: Random): City {
+        val terrains = listOf(Constants.grassland, Constants.plains, Constants.desert, Constants.tundra, Constants.coast)
+        val features = listOf(null, null, Constants.hill, Constants.forest, Constants.jungle)
+        for (tile in testGame.tileMap.values) {
+            if (tile.position == HexCoord.Zero) continue
+            val terrain = terrains.random(random)
+            val feature = if (terrain == Constants.coast) null else features.random(random)
+            if (feature == null) testGame.setTileTerrainAndFeatures(tile.position, terrain)
+            else testGame.setTileTerrainAndFeatures(tile.position, terrain, feature)
+        }
+        for (tile in testGame.getTile(HexCoord.Zero).getTilesInDistance(3))
+            if (tile.getOwner() == null) city.expansion.takeOwnership(tile)
+        for (building in listOf("Market", "Workshop", "Opera House"))
+            city.cityConstructions.addBuilding(building)
+        return city
+    }
+
+    @Test
+    fun `should assign the same tiles and specialists as before keeping rankings`() {
+        val random = Random(42)
+        for (mapVariant in 0 until 5) {
+            val city = setUpVariedCity(random)
+            for (focus in listOf(CityFocus.NoFocus, CityFocus.FoodFocus, CityFocus.ProductionFocus, CityFocus.GoldFocus, CityFocus.ScienceFocus)) {
+                city.setCityFocus(focus)
+                for (population in listOf(1, 3, 6, 10, 16, 24)) {
+                    city.population.setPopulation(population)
+
+                    referenceReassignAllPopulation(city)
+                    val expectedTiles = city.workedTiles.toSet()
+                    val expectedSpecialists = city.population.specialistAllocations.filterValues { it > 0 }
+
+                    city.reassignAllPopulation()
+                    val context = "map $mapVariant, $focus, population $population"
+                    assertEquals(context, expectedTiles, city.workedTiles.toSet())
+                    assertEquals(context, expectedSpecialists, city.population.specialistAllocations.filterValues { it > 0 })
+                }
+            }
+        }
+    }
+
+    @Ignore("Benchmark, run manually")
+    @Test
+    fun `benchmark reassigning population of a 30-city empire`() {
+        val benchmarkGame = TestGame()
+        benchmarkGame.makeHexagonalMap(30)
+        val benchmarkCiv = benchmarkGame.addCiv()
+        val random = Random(7)
+        val terrains = listOf(Constants.grassland, Constants.plains, Constants.desert, Constants.tundra)
+        for (tile in benchmarkGame.tileMap.values)
+            benchmarkGame.setTileTerrain(tile.position, terrains.random(random))
+        val cities = ArrayList<City>()
+        for (x in -25..25 step 9) for (y in -25..25 step 9) {
+            if (cities.size == 30) break
+            if (!benchmarkGame.tileMap.contains(x, y)) continue
+            val tile = benchmarkGame.tileMap[x, y]
+            val newCity = benchmarkGame.addCity(benchmarkCiv, tile, initialPopulation = 15)
+            for (neighbor in tile.getTilesInDistance(3))
+                if (neighbor.getOwner() == null) newCity.expansion.takeOwnership(neighbor)
+            for (building in listOf("Market", "Workshop", "Opera House"))
+                newCity.cityConstructions.addBuilding(building)
+            cities += newCity
+        }
+
+        fun time(reassign: (City) -> Unit): Long {
+            repeat(3) { cities.forEach(reassign) } // warm-up
+            val start = System.nanoTime()
+            repeat(20) { cities.forEach(reassign) }
+            return (System.nanoTime() - start) / 20
+        }
+        val referenceNanos = time { referenceReassignAllPopulation(it) }
+        val currentNanos = time { it.reassignAllPopulation() }
+        println("Reassigning population of ${cities.size} cities: before ${referenceNanos / 1000}µs, now ${currentNanos / 1000}µs")
+    }
 }
@@ -2,6 +2,7 @@
 
 package com.unciv.logic.civilization
 
+import com.unciv.logic.civilization.transients.TransportNetwork
 import com.unciv.logic.map.tile.RoadStatus
 import com.unciv.testing.GdxTestRunner
 import com.unciv.testing.TestGame
@@ -127,6 +128,32 @@ class CapitalConnectionsFinderTests {
         Assert.assertFalse(notConnectedCity.isConnectedToCapital())
     }
 
+    @Test
+    fun `Connections follow pillaged and rebuilt roads`() {
+        // Map: A-C
+        val capital = testGame.addCity(ourCiv, testGame.tileMap[0, 0])
+        val connectedCity = testGame.addCity(ourCiv, testGame.tileMap[0, 3])
+        createMedium(0, 3, RoadStatus.Road)
+        ourCiv.cache.updateCitiesConnectedToCapital()
+        Assert.assertTrue(connectedCity.isConnectedToCapital())
+
+        testGame.tileMap[0, 2].roadIsPillaged = true
+        ourCiv.cache.updateCitiesConnectedToCapital()
+        Assert.assertFalse(connectedCity.isConnectedToCapital())
+
+        testGame.tileMap[0, 2].roadIsPillaged = false
+        ourCiv.cache.updateCitiesConnectedToCapital()
+        Assert.assertTrue(connectedCity.isConnectedToCapital())
+
+        // A railroad only counts if unbroken
+        createMedium(2, 3, RoadStatus.Railroad)
+        val network = ourCiv.cache.transportNetwork
+        Assert.assertTrue(network.areConnected(TransportNetwork.Layer.Road, capital.getCenterTile(), connectedCity.getCenterTile()))
+        Assert.assertFalse(network.areConnected(TransportNetwork.Layer.Railroad, capital.getCenterTile(), connectedCity.getCenterTile()))
+        createMedium(1, 1, RoadStatus.Railroad)
+        Assert.assertTrue(network.areConnected(TransportNetwork.Layer.Railroad, capital.getCenterTile(), connectedCity.getCenterTile()))
+    }
+
 //     @Test
 //     fun `Cities are connected via own harbors only`() {
 //         // Map: A
@@ -0,0 +1,66 @@
+package com.unciv.logic.civilization
+
+import com.unciv.Constants
+import com.unciv.logic.map.HexCoord
+import com.unciv.testing.GdxTestRunner
+import com.unciv.testing.TestGame
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+
+@RunWith(GdxTestRunner::class)
+class CivRankingSnapshotTests {
+    private lateinit var civ: Civilization
+
+    private val testGame = TestGame()
+
+    @Before
+    fun setUp() {
+        testGame.makeHexagonalMap(8)
+        civ = testGame.addCiv()
+        testGame.addCity(civ, testGame.getTile(0, 0))
+    }
+
+    @Test
+    fun `kept score follows mid-turn changes`() {
+        val initialScore = civ.calculateTotalScore()
+
+        testGame.addCity(civ, testGame.getTile(5, 0))
+        val scoreWithCity = civ.calculateTotalScore()
+        assertTrue(scoreWithCity > initialScore)
+
+        civ.tech.addTechnology(testGame.ruleset.technologies.keys.first { !civ.tech.isResearched(it) })
+        assertEquals(civ.calculateScoreBreakdown().values.sum(), civ.calculateTotalScore(), 0.001)
+        assertTrue(civ.calculateTotalScore() > scoreWithCity)
+    }
+
+    @Test
+    fun `kept score follows trading a land tile for a water tile`() {
+        val city = civ.cities.first()
+        val landTile = testGame.getTile(1, 0)
+        val waterTile = testGame.setTileTerrain(HexCoord(3, 0), Constants.ocean)
+        val tileCount = city.tiles.size
+        val initialScore = civ.calculateTotalScore()
+
+        city.expansion.relinquishOwnership(landTile)
+        city.expansion.takeOwnership(waterTile)
+
+        assertEquals(tileCount, city.tiles.size)
+        assertTrue(civ.calculateTotalScore() < initialScore) // Only land tiles score
+    }
+
+    @Test
+    fun `kept score follows population and wonders`() {
+        val city = civ.cities.first()
+        val initialScore = civ.calculateTotalScore()
+
+        city.population.addPopulation(2)
+        val scoreWithPopulation = civ.calculateTotalScore()
+        assertTrue(scoreWithPopulation > initialScore)
+
+        city.cityConstructions.addBuilding(testGame.ruleset.buildings.values.first { it.isWonder })
+        assertTrue(civ.calculateTotalScore() > scoreWithPopulation)
+    }
+}
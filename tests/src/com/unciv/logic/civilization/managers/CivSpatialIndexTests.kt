@@ -0,0 +1,74 @@
+package com.unciv.logic.civilization.managers
+
+import com.unciv.testing.GdxTestRunner
+import com.unciv.testing.TestGame
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+
+@RunWith(GdxTestRunner::class)
+class CivSpatialIndexTests {
+    private val testGame = TestGame()
+    private val civ = testGame.addCiv()
+    private val otherCiv = testGame.addCiv()
+
+    @Before
+    fun setUp() {
+        testGame.makeHexagonalMap(20)
+    }
+
+    @Test
+    fun `finds units in distance`() {
+        val near = testGame.addUnit("Warrior", civ, testGame.getTile(2, 0))
+        val far = testGame.addUnit("Warrior", civ, testGame.getTile(12, 0))
+        testGame.addUnit("Warrior", otherCiv, testGame.getTile(1, 0))
+        val center = testGame.getTile(0, 0)
+
+        assertEquals(listOf(near), civ.spatialIndex.getUnitsInDistance(center, 5))
+        assertEquals(setOf(near, far), civ.spatialIndex.getUnitsInDistance(center, 12).toSet())
+        assertTrue(civ.spatialIndex.getUnitsInDistance(center, 1).isEmpty())
+    }
+
+    @Test
+    fun `follows moving, dying and captured units`() {
+        val center = testGame.getTile(0, 0)
+        assertTrue(civ.spatialIndex.getUnitsInDistance(center, 3).isEmpty()) // Builds the index before the changes
+
+        val unit = testGame.addUnit("Warrior", civ, testGame.getTile(10, 0))
+        val worker = testGame.addUnit("Worker", civ, testGame.getTile(-10, 0))
+        assertTrue(civ.spatialIndex.getUnitsInDistance(center, 3).isEmpty())
+
+        unit.removeFromTile()
+        unit.putInTile(testGame.getTile(2, 0))
+        assertEquals(listOf(unit), civ.spatialIndex.getUnitsInDistance(center, 3))
+
+        unit.destroy()
+        assertTrue(civ.spatialIndex.getUnitsInDistance(center, 3).isEmpty())
+
+        worker.capturedBy(otherCiv)
+        assertTrue(civ.spatialIndex.getUnitsInDistance(worker.currentTile, 0).isEmpty())
+        assertEquals(listOf(worker), otherCiv.spatialIndex.getUnitsInDistance(worker.currentTile, 0))
+    }
+
+    @Test
+    fun `closest units come first`() {
+        val units = listOf(7, 3, 15, 1).map { testGame.addUnit("Warrior", civ, testGame.getTile(it, 0)) }
+        val center = testGame.getTile(0, 0)
+
+        assertEquals(listOf(units[3], units[1]), civ.spatialIndex.getClosestUnits(center, 2))
+        assertEquals(listOf(units[1], units[0]), civ.spatialIndex.getClosestUnits(center, 2) { it != units[3] })
+        assertEquals(4, civ.spatialIndex.getClosestUnits(center, 10).size)
+    }
+
+    @Test
+    fun `follows founded cities`() {
+        val center = testGame.getTile(0, 0)
+        assertTrue(civ.spatialIndex.getCitiesInDistance(center, 5).isEmpty())
+
+        val city = testGame.addCity(civ, testGame.getTile(3, 0))
+        assertEquals(listOf(city), civ.spatialIndex.getCitiesInDistance(center, 5))
+        assertEquals(listOf(city), civ.spatialIndex.getClosestCities(testGame.getTile(-15, 0), 1))
+    }
+}
@@ -0,0 +1,85 @@
+package com.unciv.logic.civilization.managers
+
+import com.unciv.Constants
+import com.unciv.logic.civilization.Civilization
+import com.unciv.testing.GdxTestRunner
+import com.unciv.testing.TestGame
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertNotNull
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+
+@RunWith(GdxTestRunner::class)
+internal class MinorCivTurnAnalysisTest {
+    private lateinit var majorCiv: Civilization
+    private val cityStates = ArrayList<Civilization>()
+
+    private val testGame = TestGame()
+
+    @Before
+    fun setUp() {
+        testGame.makeHexagonalMap(12)
+        testGame.gameInfo.barbarians.setTransients(testGame.gameInfo)
+        majorCiv = testGame.addCiv()
+        testGame.addCity(majorCiv, testGame.getTile(0, 0))
+        for ((index, position) in listOf(6 to 0, -6 to 0, 0 to 6, 0 to -6, 6 to -6, -6 to 6).withIndex()) {
+            val cityState = testGame.addCiv(cityStateType = if (index % 2 == 0) "Cultured" else "Maritime")
+            testGame.addCity(cityState, testGame.getTile(position.first, position.second))
+            cityState.diplomacyFunctions.makeCivilizationsMeet(majorCiv)
+            cityStates += cityState
+        }
+        testGame.gameInfo.turns = QuestManager.INDIVIDUAL_QUEST_FIRST_POSSIBLE_TURN
+    }
+
+    @Test
+    fun `parallel analysis matches sequential analysis`() {
+        testGame.gameInfo.barbarians.createNewCamp(testGame.getTile(8, 0))
+
+        val sequential = MinorCivTurnAnalysis(testGame.gameInfo, cityStates[0], parallel = false)
+        val parallel = MinorCivTurnAnalysis(testGame.gameInfo, cityStates[0], parallel = true)
+
+        for (cityState in cityStates) {
+            val expected = sequential.getQuestTargets(cityState)
+            val actual = parallel.getQuestTargets(cityState)
+            assertNotNull(expected)
+            assertNotNull(actual)
+            assertEquals(expected!!.encampments, actual!!.encampments)
+            val expectedForMajor = expected.forChallenger[majorCiv]!!
+            val actualForMajor = actual.forChallenger[majorCiv]!!
+            assertEquals(expectedForMajor.resources, actualForMajor.resources)
+            assertEquals(expectedForMajor.wonders, actualForMajor.wonders)
+            assertEquals(expectedForMajor.greatPeople, actualForMajor.greatPeople)
+            assertEquals(expectedForMajor.cityStateTargets, actualForMajor.cityStateTargets)
+        }
+        assertTrue(sequential.getQuestTargets(cityStates[0])!!.encampments.any { it.improvement == Constants.barbarianEncampment })
+    }
+
+    @Test
+    fun `no quest targets before quests can start`() {
+        testGame.gameInfo.turns = 1
+        val analysis = MinorCivTurnAnalysis(testGame.gameInfo, cityStates[0], parallel = false)
+        assertFalse(cityStates.any { analysis.getQuestTargets(it) != null })
+    }
+
+    @Test
+    fun `analysis is only reused until a major civ moves`() {
+        val gameInfo = testGame.gameInfo
+        val analysis = gameInfo.getMinorCivTurnAnalysis(cityStates[0])
+        assertTrue(analysis === gameInfo.getMinorCivTurnAnalysis(cityStates.last()))
+
+        // A major civ taking its turn after the first city-state, e.g. one added later in the game
+        val lateMajorCiv = testGame.addCiv()
+        assertTrue(analysis.isValidFor(cityStates.last()))
+        assertFalse(analysis.isValidFor(lateMajorCiv))
+
+        // Built in a major civ's turn, as the barbarians do before anyone moved, it isn't reused by city-states
+        val earlyAnalysis = MinorCivTurnAnalysis(gameInfo, majorCiv, parallel = false)
+        assertFalse(earlyAnalysis.isValidFor(cityStates[0]))
+
+        gameInfo.turns++
+        assertFalse(analysis.isValidFor(cityStates[0]))
+    }
+}
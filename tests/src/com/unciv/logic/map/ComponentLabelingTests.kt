@@ -0,0 +1,56 @@
+package com.unciv.logic.map
+
+import com.unciv.Constants
+import com.unciv.testing.GdxTestRunner
+import com.unciv.testing.TestGame
+import org.junit.Assert.assertEquals
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+
+@RunWith(GdxTestRunner::class)
+class ComponentLabelingTests {
+    private val testGame = TestGame()
+
+    @Before
+    fun setUp() {
+        // An island of radius 1 inside a ring of ocean, inside a ring of land
+        testGame.makeHexagonalMap(4)
+        val center = testGame.tileMap[HexCoord.Zero]
+        for (tile in testGame.tileMap.values)
+            if (tile.aerialDistanceTo(center) == 2)
+                testGame.setTileTerrain(tile.position, Constants.ocean)
+    }
+
+    @Test
+    fun `continents are the connected land areas`() {
+        val tileMap = testGame.tileMap
+        tileMap.assignContinents(TileMap.AssignContinentsMode.Reassign)
+
+        assertEquals(listOf(7, 42), tileMap.continentSizes.values.sorted())
+        val center = tileMap[HexCoord.Zero]
+        val islandContinent = center.getContinent()
+        for (tile in tileMap.values) {
+            val distance = tile.aerialDistanceTo(center)
+            when {
+                distance < 2 -> assertEquals(islandContinent, tile.getContinent())
+                distance == 2 -> assertEquals(-1, tile.getContinent())
+                else -> assertEquals(1 - islandContinent, tile.getContinent())
+            }
+        }
+    }
+
+    @Test
+    fun `components are labeled in map order`() {
+        val tileMap = testGame.tileMap
+        val water = tileMap.labelComponents { it.isWater }
+
+        assertEquals(1, water.components.size)
+        assertEquals(12, water.components[0].size)
+        for (tile in tileMap.values)
+            assertEquals(if (tile.isWater) 0 else -1, water.getComponent(tile))
+
+        val land = tileMap.labelComponents { it.isLand }
+        assertEquals(0, land.getComponent(tileMap.values.first { it.isLand }))
+    }
+}
@@ -0,0 +1,59 @@
+package com.unciv.logic.map
+
+import com.unciv.testing.GdxTestRunner
+import com.unciv.testing.TestGame
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+
+@RunWith(GdxTestRunner::class)
+class TileOwnershipTests {
+    private val testGame = TestGame()
+    private val civ = testGame.addCiv()
+    private val otherCiv = testGame.addCiv()
+
+    @Before
+    fun setUp() {
+        testGame.makeHexagonalMap(6)
+    }
+
+    /** Checks the maintained state against a freshly built one */
+    private fun assertMatchesRebuild(ownership: TileOwnership) {
+        val rebuilt = TileOwnership(testGame.tileMap)
+        for (tile in testGame.tileMap.tileList)
+            assertEquals(rebuilt.getBorderMask(tile), ownership.getBorderMask(tile))
+    }
+
+    @Test
+    fun `borders follow taken and relinquished tiles`() {
+        val ownership = testGame.tileMap.getTileOwnership() // Built before the changes
+        val city = testGame.addCity(civ, testGame.getTile(0, 0))
+        val center = city.getCenterTile()
+
+        assertFalse(ownership.isBorderTile(center))
+        for (neighbor in center.neighbors) assertTrue(ownership.isBorderTile(neighbor))
+        assertMatchesRebuild(ownership)
+
+        val newTile = testGame.getTile(2, 0)
+        city.expansion.takeOwnership(newTile)
+        assertTrue(ownership.isBorderTile(newTile))
+        assertMatchesRebuild(ownership)
+
+        city.expansion.relinquishOwnership(newTile)
+        assertEquals(0, ownership.getBorderMask(newTile))
+        assertMatchesRebuild(ownership)
+    }
+
+    @Test
+    fun `borders follow captured cities`() {
+        val ownership = testGame.tileMap.getTileOwnership()
+        testGame.addCity(civ, testGame.getTile(-3, 0))
+        val city = testGame.addCity(civ, testGame.getTile(3, 0))
+
+        city.moveToCiv(otherCiv)
+        assertMatchesRebuild(ownership)
+    }
+}
@@ -0,0 +1,26 @@
+package com.unciv.logic.map.mapgenerator
+
+import com.unciv.testing.GdxTestRunner
+import com.unciv.testing.TestGame
+import org.junit.Assert.assertEquals
+import org.junit.Test
+import org.junit.runner.RunWith
+
+@RunWith(GdxTestRunner::class)
+internal class MapGenerationRandomnessTest {
+
+    private val testGame = TestGame()
+    private val randomness = MapGenerationRandomness()
+
+    @Test
+    fun `noise field matches noise per tile`() {
+        testGame.makeHexagonalMap(45) // Over 6000 tiles, so computed in more than one chunk
+        val tileMap = testGame.tileMap
+
+        val field = randomness.getPerlinNoiseField(tileMap, 1234.0, persistence = 0.8, scale = 20.0)
+
+        assertEquals(tileMap.values.size, field.size)
+        for (tile in tileMap.values)
+            assertEquals(randomness.getPerlinNoise(tile, 1234.0, persistence = 0.8, scale = 20.0), field[tile.zeroBasedIndex], 0.0)
+    }
+}
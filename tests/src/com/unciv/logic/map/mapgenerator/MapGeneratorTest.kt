@@ -0,0 +1,77 @@
+package com.unciv.logic.map.mapgenerator
+
+import com.unciv.logic.map.MapParameters
+import com.unciv.logic.map.MapShape
+import com.unciv.logic.map.MapSize
+import com.unciv.logic.map.MapType
+import com.unciv.models.ruleset.Ruleset
+import com.unciv.models.ruleset.RulesetCache
+import com.unciv.testing.GdxTestRunner
+import com.unciv.ui.screens.mapeditorscreen.MapGeneratorSteps
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Ignore
+import org.junit.Test
+import org.junit.runner.RunWith
+
+@RunWith(GdxTestRunner::class)
+internal class MapGeneratorTest {
+    private lateinit var ruleset: Ruleset
+
+    @Before
+    fun setUp() {
+        RulesetCache.loadRulesets(noMods = true)
+        ruleset = RulesetCache.getVanillaRuleset()
+    }
+
+    private fun getParameters(size: MapSize, type: String = MapType.pangaea) = MapParameters().apply {
+        mapSize = size
+        shape = MapShape.hexagonal
+        this.type = type
+        seed = 1234L
+    }
+
+    @Test
+    fun `steps are timed`() {
+        val generator = MapGenerator(ruleset)
+        generator.generateMap(getParameters(MapSize.Tiny))
+
+        val steps = generator.stepTimings.map { it.step }
+        assertTrue("MapLandmassGenerator" in steps)
+        assertTrue("assignContinents" in steps)
+    }
+
+    @Test
+    fun `timings only cover the last run`() {
+        val generator = MapGenerator(ruleset)
+        val map = generator.generateMap(getParameters(MapSize.Tiny))
+
+        generator.generateSingleStep(map, MapGeneratorSteps.HumidityAndTemperature)
+        assertEquals(listOf("SingleStep HumidityAndTemperature"), generator.stepTimings.map { it.step })
+    }
+
+    @Test
+    fun `rerunning a step with kept noise gives the same map`() {
+        val generator = MapGenerator(ruleset)
+        val map = generator.generateMap(getParameters(MapSize.Tiny))
+
+        generator.generateSingleStep(map, MapGeneratorSteps.HumidityAndTemperature)
+        val firstRun = map.values.map { it.baseTerrain }
+        val noiseFieldsComputed = generator.randomness.noiseFieldsComputed
+        generator.generateSingleStep(map, MapGeneratorSteps.HumidityAndTemperature)
+
+        assertEquals(noiseFieldsComputed, generator.randomness.noiseFieldsComputed) // Both fields came from the cache
+        assertEquals(firstRun, map.values.map { it.baseTerrain })
+    }
+
+    @Ignore("Benchmark, run manually")
+    @Test
+    fun `benchmark map generation steps`() {
+        for (type in listOf(MapType.pangaea, MapType.fractal, MapType.smallContinents)) {
+            val generator = MapGenerator(ruleset)
+            generator.generateMap(getParameters(MapSize.Huge, type))
+            println("$type: " + generator.stepTimings.joinToString())
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.unciv.logic.map.mapgenerator
+
+import com.badlogic.gdx.files.FileHandle
+import com.unciv.logic.map.MapParameters
+import com.unciv.logic.map.MapShape
+import com.unciv.logic.map.MapSize
+import com.unciv.logic.map.MapType
+import com.unciv.models.metadata.BaseRuleset
+import com.unciv.models.metadata.GameParameters
+import com.unciv.models.ruleset.Ruleset
+import com.unciv.models.ruleset.RulesetCache
+import com.unciv.testing.GdxTestRunner
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNotEquals
+import org.junit.Assert.assertNotNull
+import org.junit.Assert.assertNull
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import java.nio.file.Files
+
+@RunWith(GdxTestRunner::class)
+internal class MapPoolTest {
+    private lateinit var poolFolder: FileHandle
+    private val gameParameters = GameParameters().apply { baseRuleset = BaseRuleset.Civ_V_GnK.fullName }
+
+    @Before
+    fun setUp() {
+        RulesetCache.loadRulesets(noMods = true)
+        poolFolder = FileHandle(Files.createTempDirectory("MapPool").toFile())
+        MapPool.folder = poolFolder
+    }
+
+    @After
+    fun tearDown() {
+        MapPool.folder = null
+        poolFolder.deleteDirectory()
+    }
+
+    private fun getParameters() = MapParameters().apply {
+        mapSize = MapSize.Tiny
+        shape = MapShape.hexagonal
+        type = MapType.pangaea
+        seed = 1234L
+    }
+
+    @Test
+    fun `pooled maps are taken once and always complete the same way`() {
+        val report = MapPool.generate(getParameters(), gameParameters, 2, threads = 2)
+        assertEquals(2, report.mapsGenerated)
+        assertEquals(2, MapPool.getPoolSize(getParameters(), gameParameters))
+
+        val ruleset = RulesetCache.getComplexRuleset(gameParameters)
+        val pooledMap = MapPool.takeMap(getParameters(), gameParameters, ruleset)
+        assertNotNull(pooledMap)
+        assertEquals(1, MapPool.getPoolSize(getParameters(), gameParameters))
+
+        // The pooled terrain is the terrain generateTerrain makes for the pooled map's seed
+        val pooledSeed = pooledMap!!.mapParameters.seed
+        val expected = MapGenerator(ruleset).generateTerrain(getParameters().apply { seed = pooledSeed })
+        assertEquals(expected.values.map { it.baseTerrain }, pooledMap.values.map { it.baseTerrain })
+
+        // Completing the same terrain twice gives the same map
+        val gameMapParameters = getParameters().apply { seed = 0L }
+        MapGenerator(ruleset).generateFromTerrain(pooledMap, gameMapParameters, gameParameters, emptyList())
+        assertEquals(pooledSeed, gameMapParameters.seed)
+        MapGenerator(ruleset).generateFromTerrain(expected, getParameters(), gameParameters, emptyList())
+        assertEquals(expected.values.map { it.resource }, pooledMap.values.map { it.resource })
+
+        assertNotNull(MapPool.takeMap(getParameters(), gameParameters, ruleset))
+        assertNull(MapPool.takeMap(getParameters(), gameParameters, ruleset))
+    }
+
+    @Test
+    fun `maps for a chosen seed are never taken from the pool`() {
+        MapPool.generate(getParameters(), gameParameters, 1, threads = 1)
+        val ruleset = RulesetCache.getComplexRuleset(gameParameters)
+
+        assertNull(MapPool.takeMap(getParameters().apply { seedChosenByUser = true }, gameParameters, ruleset))
+        assertEquals(1, MapPool.getPoolSize(getParameters(), gameParameters))
+    }
+
+    @Test
+    fun `pools are separate per terrain parameters`() {
+        val otherSize = getParameters().apply { mapSize = MapSize.Small }
+        val otherSeed = getParameters().apply { seed = 42L }
+        val otherResources = getParameters().apply { resourceRichness = 0.3f }
+        assertNotEquals(MapPool.getPoolName(getParameters(), gameParameters), MapPool.getPoolName(otherSize, gameParameters))
+        assertEquals(MapPool.getPoolName(getParameters(), gameParameters), MapPool.getPoolName(otherSeed, gameParameters))
+        assertEquals(MapPool.getPoolName(getParameters(), gameParameters), MapPool.getPoolName(otherResources, gameParameters))
+    }
+
+    @Test
+    fun `pools are separate per mod content`() {
+        val modFolder = poolFolder.child("Terrain mod")
+        modFolder.child("jsons").child("Terrains.json").writeString("[]", false)
+        RulesetCache["Terrain mod"] = Ruleset().apply { name = "Terrain mod"; folderLocation = modFolder }
+        val modGameParameters = gameParameters.clone().apply { mods = linkedSetOf("Terrain mod") }
+        try {
+            val poolName = MapPool.getPoolName(getParameters(), modGameParameters)
+            assertNotEquals(MapPool.getPoolName(getParameters(), gameParameters), poolName)
+            assertEquals(poolName, MapPool.getPoolName(getParameters(), modGameParameters))
+
+            modFolder.child("jsons").child("Terrains.json").writeString("""[{"name":"Marsh"}]""", false)
+            assertNotEquals(poolName, MapPool.getPoolName(getParameters(), modGameParameters))
+        } finally {
+            RulesetCache.remove("Terrain mod")
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.unciv.logic.map.mapgenerator
+
+import com.unciv.logic.map.HexCoord
+import com.unciv.logic.map.mapgenerator.mapregions.MapRegions.ImpactType
+import com.unciv.logic.map.mapgenerator.mapregions.TileDataMap
+import com.unciv.testing.GdxTestRunner
+import com.unciv.testing.TestGame
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import org.junit.runner.RunWith
+
+@RunWith(GdxTestRunner::class)
+internal class TileDataMapTest {
+
+    private val testGame = TestGame()
+
+    @Test
+    fun `impacts fall off with distance and stack`() {
+        testGame.makeHexagonalMap(5)
+        val tileMap = testGame.tileMap
+        val tileData = TileDataMap(tileMap, emptyList(), testGame.ruleset)
+        val center = tileMap[HexCoord.Zero]
+
+        tileData.placeImpact(ImpactType.Luxury, center, 2)
+
+        assertEquals(tileMap.values.size, tileData.size)
+        assertEquals(99, tileData.getImpact(center, ImpactType.Luxury))
+        for (tile in tileMap.values) {
+            when (tile.aerialDistanceTo(center)) {
+                1 -> assertEquals(2, tileData.getImpact(tile, ImpactType.Luxury))
+                2 -> assertEquals(1, tileData.getImpact(tile, ImpactType.Luxury))
+                0 -> {}
+                else -> assertFalse(tileData.hasImpact(tile, ImpactType.Luxury))
+            }
+            assertFalse(tileData.hasImpact(tile, ImpactType.Strategic))
+        }
+
+        // Overlapping impacts take the higher one, plus 2
+        val neighbor = center.neighbors.first()
+        tileData.placeImpact(ImpactType.Luxury, neighbor, 1)
+        val sharedNeighbor = neighbor.neighbors.first { it.aerialDistanceTo(center) == 1 }
+        assertEquals(4, tileData.getImpact(sharedNeighbor, ImpactType.Luxury))
+        assertTrue(tileData[center.position] === tileData[center])
+    }
+}
@@ -0,0 +1,56 @@
+package com.unciv.models.ruleset
+
+import com.unciv.logic.map.HexCoord
+import com.unciv.models.metadata.BaseRuleset
+import com.unciv.models.metadata.GameParameters
+import com.unciv.testing.GdxTestRunner
+import com.unciv.testing.TestGame
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import org.junit.runner.RunWith
+
+@RunWith(GdxTestRunner::class)
+class RulesetObjectIdsTests {
+    private val testGame = TestGame()
+
+    @Test
+    fun `ids are the same in base and combined rulesets`() {
+        val baseRuleset = RulesetCache[BaseRuleset.Civ_V_GnK.fullName]!!
+        val complexRuleset = RulesetCache.getComplexRuleset(GameParameters().apply { baseRuleset = BaseRuleset.Civ_V_GnK.fullName })
+
+        for (building in baseRuleset.buildings.values)
+            assertEquals(building.id, complexRuleset.buildings[building.name]!!.id)
+        for (improvement in baseRuleset.tileImprovements.values)
+            assertEquals(improvement.id, complexRuleset.tileImprovements[improvement.name]!!.id)
+    }
+
+    @Test
+    fun `ids are dense per kind`() {
+        val ruleset = RulesetCache[BaseRuleset.Civ_V_GnK.fullName]!!
+        val ids = ruleset.buildings.values.map { it.id }
+        assertEquals(ids.size, ids.distinct().size)
+        assertTrue(ids.all { it < RulesetObjectIds.getCount(Building::class.java) })
+    }
+
+    @Test
+    fun `built buildings are tracked by id`() {
+        testGame.makeHexagonalMap(2)
+        val city = testGame.addCity(testGame.addCiv(), testGame.getTile(HexCoord.Zero))
+        val monument = testGame.ruleset.buildings["Monument"]!!
+        val cityConstructions = city.cityConstructions
+
+        assertFalse(cityConstructions.isBuilt(monument))
+        cityConstructions.addBuilding(monument)
+        assertTrue(cityConstructions.isBuilt(monument))
+        assertEquals(cityConstructions.isBuilt(monument.name), cityConstructions.isBuilt(monument))
+
+        val clone = cityConstructions.clone().apply { city = cityConstructions.city; setTransients() }
+        assertTrue(clone.isBuilt(monument))
+
+        cityConstructions.removeBuilding(monument)
+        assertFalse(cityConstructions.isBuilt(monument))
+        assertTrue(clone.isBuilt(monument))
+    }
+}
@@ -0,0 +1,61 @@
+package com.unciv.models.ruleset
+
+import com.badlogic.gdx.Gdx
+import com.badlogic.gdx.files.FileHandle
+import com.unciv.models.metadata.BaseRuleset
+import com.unciv.testing.GdxTestRunner
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import java.nio.file.Files
+
+@RunWith(GdxTestRunner::class)
+class RulesetSnapshotCacheTests {
+    private lateinit var snapshotFolder: FileHandle
+    private val jsonFolder get() = Gdx.files.internal("jsons/${BaseRuleset.Civ_V_GnK.fullName}")
+
+    @Before
+    fun setUp() {
+        snapshotFolder = FileHandle(Files.createTempDirectory("RulesetSnapshots").toFile())
+        RulesetSnapshotCache.folder = snapshotFolder
+    }
+
+    @After
+    fun tearDown() {
+        RulesetSnapshotCache.folder = null
+        snapshotFolder.deleteDirectory()
+    }
+
+    private fun load() = Ruleset().apply {
+        name = BaseRuleset.Civ_V_GnK.fullName
+        RulesetSnapshotCache.load(this, jsonFolder)
+    }
+
+    @Test
+    fun snapshotLoadsSameRuleset() {
+        val fromJson = load()
+        assertTrue(snapshotFolder.list().isNotEmpty())
+        val fromSnapshot = load()
+
+        for (file in RulesetFile.entries) {
+            val expected = file.getRulesetObjects(fromJson).associate { it.name to it.uniques }
+            val actual = file.getRulesetObjects(fromSnapshot).associate { it.name to it.uniques }
+            assertEquals(file.filename, expected, actual)
+        }
+        assertEquals(fromJson.technologies.values.map { it.cost }, fromSnapshot.technologies.values.map { it.cost })
+        assertEquals(fromJson.buildings.values.map { it.cost }, fromSnapshot.buildings.values.map { it.cost })
+        assertEquals(fromJson.modOptions.isBaseRuleset, fromSnapshot.modOptions.isBaseRuleset)
+    }
+
+    @Test
+    fun corruptSnapshotFallsBackToJson() {
+        val fromJson = load()
+        for (file in snapshotFolder.list()) file.writeString("not a snapshot", false)
+
+        val fromCorruptSnapshot = load()
+        assertEquals(fromJson.units.keys, fromCorruptSnapshot.units.keys)
+    }
+}
@@ -9,6 +9,8 @@ import com.unciv.testing.TestGame
 import org.junit.Assert.assertEquals
 import org.junit.Test
 import org.junit.runner.RunWith
+import java.util.concurrent.ConcurrentLinkedQueue
+import kotlin.concurrent.thread
 import kotlin.math.PI
 import kotlin.math.abs
 import kotlin.math.ulp
@@ -86,6 +88,16 @@ class ExpressionTests {
         assertEquals("failure count", 0, fails)
     }
 
+    @Test
+    fun testRepeatedEvaluationIsStable() {
+        // Evaluation runs from a cached compiled form - make sure repeated and concurrent use don't interfere
+        val expression = "(2 + 1.5) * (4 + 10) / sqrt 4 - 3 % 2"
+        val expected = (2 + 1.5) * (4 + 10) / 2 - 1
+        val results = ConcurrentLinkedQueue<Double>()
+        (1..8).map { thread { repeat(100) { results.add(Parser.eval(expression)) } } }.forEach { it.join() }
+        assertEquals(800, results.count { abs(it - expected) < epsilon })
+    }
+
     @Test
     @CoversCountable(Countables.FilteredCities, Countables.OwnedTiles)
     fun testExpressionsWithCountables() {
@@ -97,6 +109,8 @@ class ExpressionTests {
         val input = listOf(
             "√[[Your] Cities]" to 1.0,
             "[Owned [worked] Tiles] / [Owned [unimproved] Tiles] * 100" to 100.0 / 6, // city center counts as improved
+            "2 * pi * [[Your] Cities] - -(4 / 2)" to 2 * PI + 2, // constant subtrees are folded around the countable
+            "1 + [[[Your] Cities] * 2]" to 3.0, // expression countable evaluated inside an expression
         )
 
         var fails = 0